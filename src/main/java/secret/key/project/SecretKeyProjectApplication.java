@@ -2,8 +2,10 @@ package secret.key.project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SecretKeyProjectApplication {
 
 	public static void main(String[] args) {
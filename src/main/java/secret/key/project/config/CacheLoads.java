@@ -0,0 +1,42 @@
+package secret.key.project.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+//Carga de un miss fuera del lock del mapa. Cache.get corre el loader dentro de ConcurrentHashMap.compute
+//(un synchronized): con hilos virtuales en Java 21-23 eso fija el hilo a su carrier durante toda la consulta
+//a Mongo. Aquí compute solo publica un future vacío, el primer hilo ejecuta el loader y los demás esperan
+//ese mismo future (join no fija el carrier). Un loader que devuelve null no queda en caché; si falla, el
+//error llega solo a quien cargó y los que esperaban vuelven a intentar
+public final class CacheLoads {
+
+    private CacheLoads() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            CompletableFuture<V> propia = new CompletableFuture<>();
+            CompletableFuture<V> vigente = cache.get(key, (k, executor) -> propia);
+
+            if (vigente == propia) {
+                try {
+                    propia.complete(loader.apply(key));
+                } catch (RuntimeException | Error e) {
+                    //Cancelado: Caffeine lo quita del mapa sin loguear otra vez la traza
+                    propia.cancel(false);
+                    throw e;
+                }
+            }
+
+            try {
+                return vigente.join();
+            } catch (CancellationException e) {
+                //Falló la carga de otro hilo: se reintenta, quizás como el que carga
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package secret.key.project.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+import secret.key.project.entity.User;
+import secret.key.project.error.UsuarioException;
+
+//Seguridad: id del usuario autenticado en el SecurityContext del hilo actual, o en el contexto de Reactor
+//en el stack reactivo (ahí un mismo hilo atiende muchas peticiones y no hay contexto por hilo)
+public class CurrentUser {
+
+    //esto para evitar instanciarla
+    private CurrentUser() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    public static String getUserId() {
+        return getUserId(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public static Mono<String> getReactiveUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .map(CurrentUser::getUserId)
+                .switchIfEmpty(Mono.error(() -> new UsuarioException("Usuario no autenticado")));
+    }
+
+    public static String getUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UsuarioException("Usuario no autenticado");
+        }
+
+        Object principal = authentication.getPrincipal();
+
+        // En producción: principal es secret.key.project.entity.User
+        if (principal instanceof User) {
+            return ((User) principal).getId();
+        }
+
+        // En tests con @WithMockUser: principal es org.springframework.security.core.userdetails.User
+        if (principal instanceof org.springframework.security.core.userdetails.User) {
+            // Retorna el username como ID para tests
+            return ((org.springframework.security.core.userdetails.User) principal).getUsername();
+        }
+
+        // Fallback: si principal es un String (username)
+        if (principal instanceof String) {
+            return (String) principal;
+        }
+
+        throw new UsuarioException("Usuario no autenticado correctamente");
+    }
+}
@@ -0,0 +1,75 @@
+package secret.key.project.config;
+
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.service.JwtService;
+import secret.key.project.service.TokenVersionService;
+
+//JwtAuthenticationFilter para WebFlux: valida el Bearer y deja la autenticación en el contexto de Reactor.
+//Sin @Component: como bean WebFilter Spring lo registraría también fuera de la cadena de seguridad
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final boolean statelessAuth;
+
+    public JwtAuthenticationWebFilter(JwtService jwtService,
+                                      ReactiveUserDetailsService userDetailsService,
+                                      TokenVersionService tokenVersionService,
+                                      boolean statelessAuth) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.statelessAuth = statelessAuth;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        final TokenClaims tokenClaims;
+        try {
+            tokenClaims = jwtService.parseToken(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            //Token inválido o vencido: sigue sin autenticar y la cadena de seguridad responde 401
+            log.warn("Token JWT inválido: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+
+        if (tokenClaims.getSubject() == null) {
+            return chain.filter(exchange);
+        }
+
+        //Los tokens antiguos no traen roles, para ellos se mantiene la consulta del usuario
+        Mono<UserDetails> usuario = statelessAuth && tokenClaims.getRoles() != null
+                ? Mono.just(jwtService.toPrincipal(tokenClaims))
+                : userDetailsService.findByUsername(tokenClaims.getSubject());
+
+        return usuario
+                .filter(userDetails -> jwtService.isTokenValid(tokenClaims, userDetails))
+                .filterWhen(userDetails -> tokenVersionService.isCurrentReactive(tokenClaims))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()))
+                .flatMap(authToken -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken))
+                        .thenReturn(true))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(true)))
+                .then();
+    }
+}
@@ -0,0 +1,60 @@
+package secret.key.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import secret.key.project.entity.PlatformCredential;
+
+//Crea los índices declarados en PlatformCredential (auto-index-creation está apagado fuera de test).
+//Las altas y cambios dependen del índice único user_name_idx para detectar nombres repetidos; hasta que el índice
+//se confirma en Mongo los servicios vuelven a consultar el nombre antes de escribir (isNombreUnicoConfirmado).
+//Corre en el scheduler y reintenta mientras no se confirme: si Mongo no responde la aplicación igual levanta.
+//Si ya hay credenciales repetidas (userId, name) el índice no se puede crear: ver "Unique platform names" en el README
+@Configuration
+@Slf4j
+public class MongoIndexConfig {
+
+    public static final String INDICE_USUARIO_NOMBRE = "user_name_idx";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    private volatile boolean nombreUnicoConfirmado;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, MongoMappingContext mongoMappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoMappingContext = mongoMappingContext;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${mongo.indexes.retry-interval-ms:60000}")
+    public void verificarIndices() {
+        if (nombreUnicoConfirmado) {
+            return;
+        }
+        try {
+            crearIndices();
+        } catch (RuntimeException e) {
+            log.error("No se pudieron crear los índices de platform_credentials, se valida el nombre con una consulta previa: {}",
+                    e.getMessage());
+        }
+    }
+
+    //createIndex no hace nada si el índice ya existe con las mismas opciones
+    public void crearIndices() {
+        IndexOperations indexOps = mongoTemplate.indexOps(PlatformCredential.class);
+        IndexResolver resolver = IndexResolver.create(mongoMappingContext);
+        resolver.resolveIndexFor(PlatformCredential.class).forEach(indexOps::createIndex);
+
+        nombreUnicoConfirmado = indexOps.getIndexInfo().stream()
+                .anyMatch(indice -> INDICE_USUARIO_NOMBRE.equals(indice.getName()) && indice.isUnique());
+        log.info("Índices de platform_credentials verificados, {} confirmado: {}", INDICE_USUARIO_NOMBRE, nombreUnicoConfirmado);
+    }
+
+    public boolean isNombreUnicoConfirmado() {
+        return nombreUnicoConfirmado;
+    }
+}
@@ -0,0 +1,41 @@
+package secret.key.project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import secret.key.project.crypto.BCryptStrengthCalibrator;
+import secret.key.project.crypto.BoundedPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+//Compartido por SecurityConfig (servlet) y ReactiveSecurityConfig (perfil reactive)
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    //register y login hashean en un pool acotado, no en el hilo de Tomcat.
+    //Hashes nuevos como {bcrypt} con el costo calibrado; los guardados sin prefijo (antes de la
+    //delegación) se verifican con BCrypt y se rehashean en el siguiente login exitoso
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.hashing.threads:2}") int threads,
+                                           @Value("${auth.hashing.queue-capacity:20}") int queueCapacity,
+                                           @Value("${auth.hashing.timeout:3s}") Duration timeout,
+                                           @Value("${auth.hashing.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.hashing.bcrypt.target-time:250ms}") Duration targetTime,
+                                           @Value("${auth.hashing.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.hashing.bcrypt.max-strength:14}") int maxStrength) {
+        int costo = strength > 0 ? strength : BCryptStrengthCalibrator.calibrar(targetTime, minStrength, maxStrength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(costo)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new BoundedPasswordEncoder(delegating, meterRegistry, threads, queueCapacity, timeout);
+    }
+}
@@ -0,0 +1,123 @@
+package secret.key.project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import secret.key.project.service.JwtService;
+import secret.key.project.service.TokenVersionService;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+//Seguridad del stack reactivo (perfil reactive): mismas reglas que SecurityConfig, con el JWT validado en
+//JwtAuthenticationWebFilter. Todo lo que consulta Mongo de forma bloqueante corre en boundedElastic
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final String frontendurl = "http://localhost:3000";
+
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http,
+                                                              JwtService jwtService,
+                                                              ReactiveUserDetailsService reactiveUserDetailsService,
+                                                              TokenVersionService tokenVersionService,
+                                                              @Value("${jwt.stateless:false}") boolean statelessAuth,
+                                                              @Value("${management.server.port:-1}") int managementPort) {
+        JwtAuthenticationWebFilter jwtAuthFilter = new JwtAuthenticationWebFilter(jwtService,
+                reactiveUserDetailsService, tokenVersionService, statelessAuth);
+
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                //Stateless: sin WebSession, la autenticación solo vive durante la petición
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(
+                                "/api/auth/**",
+                                "/swagger-ui/**",
+                                "/v3/api-docs/**",
+                                "/swagger-ui.html"
+                        ).permitAll()
+                        .matchers(actuatorEnPuertoDeGestion(managementPort)).permitAll()
+                        .pathMatchers("/v1/secret-key/platform/**").hasRole("USER")
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(jwtAuthFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    //Mismo criterio que SecurityConfig: el actuator solo queda abierto en management.server.port
+    private static ServerWebExchangeMatcher actuatorEnPuertoDeGestion(int managementPort) {
+        return exchange -> {
+            InetSocketAddress local = exchange.getRequest().getLocalAddress();
+            boolean coincide = managementPort > 0 && local != null && local.getPort() == managementPort
+                    && SecurityConfig.ACTUATOR_PUBLICO.contains(exchange.getRequest().getPath().value());
+            return coincide ? ServerWebExchangeMatcher.MatchResult.match() : ServerWebExchangeMatcher.MatchResult.notMatch();
+        };
+    }
+
+    //Un hit de la caché de usuarios se resuelve en el event loop; un miss consulta Mongo en boundedElastic
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(UserDetailsService userDetailsService, UserCache userCache) {
+        return username -> Mono.justOrEmpty(userCache.getUserFromCache(username))
+                .switchIfEmpty(Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+
+    //Login: el manager verifica el password en boundedElastic (y BoundedPasswordEncoder acota el hashing).
+    //Rehash de hashes desactualizados igual que en el servlet
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService reactiveUserDetailsService,
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       UserDetailsPasswordService userDetailsPasswordService) {
+        UserDetailsRepositoryReactiveAuthenticationManager authManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        authManager.setPasswordEncoder(passwordEncoder);
+        authManager.setUserDetailsPasswordService((user, newPassword) ->
+                Mono.fromCallable(() -> userDetailsPasswordService.updatePassword(user, newPassword))
+                        .subscribeOn(Schedulers.boundedElastic()));
+        return authManager;
+    }
+
+    private CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of(frontendurl));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setAllowCredentials(true); // Muy importante para JWT
+        configuration.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
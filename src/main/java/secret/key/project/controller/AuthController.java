@@ -2,10 +2,13 @@ package secret.key.project.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,11 +21,13 @@ import secret.key.project.entity.User;
 import secret.key.project.error.UsuarioException;
 import secret.key.project.repository.UserRepository;
 import secret.key.project.service.JwtService;
+import secret.key.project.service.TokenVersionService;
 
 import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 public class AuthController {
 
@@ -30,15 +35,21 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserCache userCache;
+    private final TokenVersionService tokenVersionService;
 
     public AuthController(UserRepository userRepository,
                           PasswordEncoder passwordEncoder,
                           JwtService jwtService,
-                          AuthenticationManager authenticationManager){
+                          AuthenticationManager authenticationManager,
+                          UserCache userCache,
+                          TokenVersionService tokenVersionService){
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.userCache = userCache;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @PostMapping("/register")
@@ -55,6 +66,7 @@ public class AuthController {
         user.setRoles(List.of("ROLE_USER"));
 
         User savedUser = userRepository.save(user);
+        userCache.removeUserFromCache(savedUser.getUsername());
         String token = jwtService.generateToken(user, savedUser.getId());
 
         log.info("Usuario Registrado exitosamente!");
@@ -76,4 +88,15 @@ public class AuthController {
         log.info("Token: {}, username: {}, password: {}",token, user.getUsername(), user.getPassword());
         return ResponseEntity.status(HttpStatus.OK).body(new AuthResponse(token, user.getUsername(), user.getId()));
     }
+
+    //Cierra la sesión en todos los dispositivos: los tokens emitidos hasta ahora dejan de ser válidos
+    @PostMapping("/revoke")
+    @Operation(summary = "Revocar todos los tokens del usuario")
+    public ResponseEntity<Void> revoke(@AuthenticationPrincipal User user){
+        if (user == null) {
+            throw new UsuarioException("Usuario no autenticado");
+        }
+        tokenVersionService.revokeTokens(user);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,104 @@
+package secret.key.project.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import secret.key.project.dto.AuthRequest;
+import secret.key.project.dto.AuthResponse;
+import secret.key.project.dto.RegisterRequest;
+import secret.key.project.entity.User;
+import secret.key.project.error.UsuarioException;
+import secret.key.project.repository.UserRepository;
+import secret.key.project.service.JwtService;
+import secret.key.project.service.TokenVersionService;
+
+import java.util.List;
+
+//AuthController para el stack reactivo. El registro usa el UserRepository bloqueante (y el hash, que espera
+//al pool de BoundedPasswordEncoder) en boundedElastic; el login pasa por el ReactiveAuthenticationManager
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class AuthHandler {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final UserCache userCache;
+    private final TokenVersionService tokenVersionService;
+
+    public AuthHandler(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       JwtService jwtService,
+                       ReactiveAuthenticationManager authenticationManager,
+                       UserCache userCache,
+                       TokenVersionService tokenVersionService) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        this.authenticationManager = authenticationManager;
+        this.userCache = userCache;
+        this.tokenVersionService = tokenVersionService;
+    }
+
+    public Mono<ServerResponse> register(ServerRequest request) {
+        return request.bodyToMono(RegisterRequest.class)
+                .publishOn(Schedulers.boundedElastic())
+                .map(registerRequest -> {
+                    if (userRepository.existsByUsername(registerRequest.getUsername())) {
+                        throw new UsuarioException("El usuario ya existe");
+                    }
+
+                    User user = new User();
+                    user.setUsername(registerRequest.getUsername());
+                    user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+                    user.setRoles(List.of("ROLE_USER"));
+
+                    User savedUser = userRepository.save(user);
+                    userCache.removeUserFromCache(savedUser.getUsername());
+                    log.info("Usuario Registrado exitosamente! username: {}", savedUser.getUsername());
+                    return new AuthResponse(jwtService.generateToken(user, savedUser.getId()), savedUser.getUsername(), savedUser.getId());
+                })
+                .flatMap(response -> ServerResponse.status(HttpStatus.CREATED).bodyValue(response));
+    }
+
+    //El principal autenticado ya es el User de Mongo: no hace falta volver a buscarlo para el token
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return request.bodyToMono(AuthRequest.class)
+                .flatMap(authRequest -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())))
+                .map(authentication -> {
+                    if (!(authentication.getPrincipal() instanceof User user)) {
+                        throw new UsuarioException("Usuario no encontrado");
+                    }
+                    log.info("Usuario autenticado exitosamente! username: {}", user.getUsername());
+                    return new AuthResponse(jwtService.generateToken(user, user.getId()), user.getUsername(), user.getId());
+                })
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    //El $inc de tokenVersion es bloqueante: corre en boundedElastic
+    public Mono<ServerResponse> revoke(ServerRequest request) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .map(Authentication::getPrincipal)
+                .ofType(User.class)
+                .switchIfEmpty(Mono.error(() -> new UsuarioException("Usuario no autenticado")))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(tokenVersionService::revokeTokens)
+                .then(ServerResponse.noContent().build());
+    }
+}
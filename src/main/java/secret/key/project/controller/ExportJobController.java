@@ -0,0 +1,46 @@
+package secret.key.project.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.dto.ExportJobDTO;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.service.ExportJobService;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/secret-key/platform/export/jobs")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    public ExportJobController(ExportJobService exportJobService){
+        this.exportJobService = exportJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExportJobDTO> createExportJob(@RequestParam ("format") String format){
+        ExportJobDTO job = exportJobService.crearExportacion(ExportFormat.from(format));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDTO> findExportJob(@PathVariable String id){
+        ExportJobDTO job = exportJobService.obtenerExportacion(id);
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadExportJob(@PathVariable String id){
+        ExportFormat format = ExportFormat.from(exportJobService.obtenerExportacion(id).getFormat());
+        StreamingResponseBody result = exportJobService.descargarExportacion(id);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment().filename(format.getFileName()).build());
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(result);
+    }
+}
@@ -0,0 +1,36 @@
+package secret.key.project.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import secret.key.project.dto.ImportJobDTO;
+import secret.key.project.importer.ImportFormat;
+import secret.key.project.service.ImportJobService;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/secret-key/platform/import")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService){
+        this.importJobService = importJobService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> createImportJob(@RequestParam ("file") MultipartFile file,
+                                                       @RequestParam (value = "format", required = false) String format){
+        ImportJobDTO job = importJobService.crearImportacion(file, ImportFormat.from(format, file.getOriginalFilename()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> findImportJob(@PathVariable String id){
+        ImportJobDTO job = importJobService.obtenerImportacion(id);
+        return ResponseEntity.ok(job);
+    }
+}
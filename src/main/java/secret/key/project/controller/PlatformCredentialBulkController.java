@@ -0,0 +1,41 @@
+package secret.key.project.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.service.PlatformCredentialBulkService;
+
+import java.util.List;
+
+//Operaciones por lote: responden 200 con el resultado de cada elemento, aunque algunos fallen
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/secret-key/platform/bulk")
+public class PlatformCredentialBulkController {
+
+    private final PlatformCredentialBulkService platformCredentialBulkService;
+
+    public PlatformCredentialBulkController(PlatformCredentialBulkService platformCredentialBulkService){
+        this.platformCredentialBulkService = platformCredentialBulkService;
+    }
+
+    @PostMapping
+    public ResponseEntity<BulkResultDTO> createPlatformCredentials(@RequestBody List<PlatformCredentialDTO> platformCredentials){
+        BulkResultDTO result = platformCredentialBulkService.crearPlataformas(platformCredentials);
+        return ResponseEntity.ok(result);
+    }
+
+    @PutMapping
+    public ResponseEntity<BulkResultDTO> updatePlatformCredentials(@RequestBody List<PlatformCredentialDTO> platformCredentials){
+        BulkResultDTO result = platformCredentialBulkService.actualizarPlataformas(platformCredentials);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/delete")
+    public ResponseEntity<BulkResultDTO> deletePlatformCredentials(@RequestBody List<String> ids){
+        BulkResultDTO result = platformCredentialBulkService.eliminarPlataformas(ids);
+        return ResponseEntity.ok(result);
+    }
+}
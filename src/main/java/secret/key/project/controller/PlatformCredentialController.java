@@ -1,19 +1,28 @@
 package secret.key.project.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.dto.CursorPageDTO;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.dto.SlicePageDTO;
 import secret.key.project.entity.PlatformCredential;
+import secret.key.project.export.ExportFormat;
 import secret.key.project.service.PlatformCredentialService;
 
 import java.util.List;
 import java.util.Map;
 
+//Stack servlet; con el perfil reactive las rutas las sirve PlatformCredentialRouter
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/v1/secret-key/platform")
 public class PlatformCredentialController {
 
@@ -23,20 +32,53 @@ public class PlatformCredentialController {
         this.platformCredentialService =  platformCredentialService;
     }
 
+    //Listado con total; como /slice y /cursor devuelve resúmenes sin el password
     @GetMapping("/")
-    public ResponseEntity<Page<PlatformCredentialDTO>> findPlatformCredentialsPagination(@RequestParam ("page") int page,
-                                                                                         @RequestParam ("size") int size){
+    public ResponseEntity<Page<PlatformCredentialSummaryDTO>> findPlatformCredentialsPagination(@RequestParam ("page") int page,
+                                                                                                @RequestParam ("size") int size){
         Pageable pageable = PageRequest.of(page, size);
-        Page<PlatformCredentialDTO> pagination = platformCredentialService.getPlatformCredentialByPagination(pageable);
+        Page<PlatformCredentialSummaryDTO> pagination = platformCredentialService.getPlatformCredentialByPagination(pageable);
         return ResponseEntity.ok(pagination);
     }
 
+    //Paginación sin count: hasNext siempre, el total solo con total=true. Los listados no traen el password
+    @GetMapping("/slice")
+    public ResponseEntity<SlicePageDTO<PlatformCredentialSummaryDTO>> findPlatformCredentialsSlice(@RequestParam ("page") int page,
+                                                                                           @RequestParam ("size") int size,
+                                                                                           @RequestParam (value = "total", defaultValue = "false") boolean total){
+        Pageable pageable = PageRequest.of(page, size);
+        SlicePageDTO<PlatformCredentialSummaryDTO> slice = platformCredentialService.getPlatformCredentialBySlice(pageable, total);
+        return ResponseEntity.ok(slice);
+    }
+
+    //Paginación por cursor (keyset); el endpoint por número de página se mantiene por compatibilidad
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<PlatformCredentialSummaryDTO>> findPlatformCredentialsByCursor(@RequestParam (value = "cursor", required = false) String cursor,
+                                                                                               @RequestParam (value = "size", defaultValue = "20") int size){
+        CursorPageDTO<PlatformCredentialSummaryDTO> page = platformCredentialService.getPlatformCredentialByCursor(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/name")
     public ResponseEntity<PlatformCredentialDTO> findPlatformCredentialByName(@RequestParam ("name") String name){
         PlatformCredentialDTO platformFind = platformCredentialService.getPlatformCredentialByName(name);
         return ResponseEntity.ok(platformFind);
     }
 
+    //Búsqueda por prefijo o subcadena en name, host de la url y username, ordenada por relevancia
+    @GetMapping("/search")
+    public ResponseEntity<List<PlatformCredentialSummaryDTO>> searchPlatformCredentials(@RequestParam ("q") String q,
+                                                                                       @RequestParam (value = "limit", defaultValue = "20") int limit){
+        List<PlatformCredentialSummaryDTO> results = platformCredentialService.buscarPlataformas(q, limit);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/{id}/password")
+    public ResponseEntity<PlatformCredentialSecretDTO> revealPlatformCredentialPassword(@PathVariable String id){
+        PlatformCredentialSecretDTO secret = platformCredentialService.revelarPassword(id);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(secret);
+    }
+
     @PostMapping("/")
     public ResponseEntity<PlatformCredentialDTO> createPlatformCredential (@Valid @RequestBody PlatformCredentialDTO platformCredentialDTO){
         PlatformCredentialDTO saved = platformCredentialService.createPlatformCredential(platformCredentialDTO);
@@ -56,8 +98,8 @@ public class PlatformCredentialController {
     }
 
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportPlatformCredentialExcel() {
-        byte[] excel = platformCredentialService.exportarPlataformasExcel();
+    public ResponseEntity<StreamingResponseBody> exportPlatformCredentialExcel() {
+        StreamingResponseBody excel = platformCredentialService.exportarPlataformasExcel();
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
         headers.setContentDisposition(ContentDisposition.attachment().filename("lista-plataformas.xlsx").build());
@@ -65,11 +107,28 @@ public class PlatformCredentialController {
     }
 
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportPlatformCredentialPdf() {
-        byte[] pdf = platformCredentialService.exportarPlataformasPDF();
+    public ResponseEntity<StreamingResponseBody> exportPlatformCredentialPdf() {
+        StreamingResponseBody pdf = platformCredentialService.exportarPlataformasPDF();
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDisposition(ContentDisposition.attachment().filename("lista-plataformas.pdf").build());
         return ResponseEntity.status(HttpStatus.OK).headers(headers).body(pdf);
     }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportPlatformCredentialCsv() {
+        return exportar(platformCredentialService.exportarPlataformasCsv(), ExportFormat.CSV);
+    }
+
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPlatformCredentialNdjson() {
+        return exportar(platformCredentialService.exportarPlataformasNdjson(), ExportFormat.NDJSON);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportar(StreamingResponseBody body, ExportFormat format) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment().filename(format.getFileName()).build());
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(body);
+    }
 }
@@ -0,0 +1,91 @@
+package secret.key.project.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.service.ReactivePlatformCredentialService;
+
+import java.util.Map;
+
+//Handlers de las rutas funcionales de PlatformCredentialRouter (perfil reactive)
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PlatformCredentialHandler {
+
+    private final ReactivePlatformCredentialService reactivePlatformCredentialService;
+
+    public PlatformCredentialHandler(ReactivePlatformCredentialService reactivePlatformCredentialService) {
+        this.reactivePlatformCredentialService = reactivePlatformCredentialService;
+    }
+
+    //Arreglo JSON escrito a medida que llegan los documentos, o una línea por credencial con
+    //Accept: application/x-ndjson
+    public Mono<ServerResponse> findPlatformCredentialsStream(ServerRequest request) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok()
+                .contentType(mediaType)
+                .body(reactivePlatformCredentialService.listarPlataformas(), PlatformCredentialSummaryDTO.class);
+    }
+
+    public Mono<ServerResponse> findPlatformCredentialByName(ServerRequest request) {
+        return reactivePlatformCredentialService.getPlatformCredentialByName(request.queryParam("name").orElse(null))
+                .flatMap(platformFind -> ServerResponse.ok().bodyValue(platformFind));
+    }
+
+    public Mono<ServerResponse> revealPlatformCredentialPassword(ServerRequest request) {
+        return reactivePlatformCredentialService.revelarPassword(request.pathVariable("id"))
+                .flatMap(secret -> ServerResponse.ok().cacheControl(CacheControl.noStore())
+                        .bodyValue(secret));
+    }
+
+    public Mono<ServerResponse> createPlatformCredential(ServerRequest request) {
+        return cuerpo(request)
+                .flatMap(reactivePlatformCredentialService::createPlatformCredential)
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED).bodyValue(saved));
+    }
+
+    public Mono<ServerResponse> updatePlatformCredential(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return cuerpo(request)
+                .flatMap(dto -> reactivePlatformCredentialService.updatePlatformCredential(dto, id))
+                .flatMap(updated -> ServerResponse.ok().bodyValue(updated));
+    }
+
+    public Mono<ServerResponse> deletePlatformCredential(ServerRequest request) {
+        return reactivePlatformCredentialService.deletePlatformCredential(request.pathVariable("id"))
+                .then(ServerResponse.ok().bodyValue(Map.of("message", "Plataforma eliminada con éxito!")));
+    }
+
+    public Mono<ServerResponse> exportPlatformCredentialCsv(ServerRequest request) {
+        return exportar(request, ExportFormat.CSV);
+    }
+
+    public Mono<ServerResponse> exportPlatformCredentialNdjson(ServerRequest request) {
+        return exportar(request, ExportFormat.NDJSON);
+    }
+
+    private static Mono<PlatformCredentialDTO> cuerpo(ServerRequest request) {
+        return request.bodyToMono(PlatformCredentialDTO.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("La plataforma no puede ser nula!")));
+    }
+
+    private Mono<ServerResponse> exportar(ServerRequest request, ExportFormat format) {
+        return reactivePlatformCredentialService.exportarPlataformas(format, request.exchange().getResponse().bufferFactory())
+                .flatMap(body -> ServerResponse.ok()
+                        .contentType(format.getMediaType())
+                        .headers(headers -> headers.setContentDisposition(ContentDisposition.attachment().filename(format.getFileName()).build()))
+                        .body(body, DataBuffer.class));
+    }
+}
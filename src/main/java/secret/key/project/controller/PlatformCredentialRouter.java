@@ -0,0 +1,40 @@
+package secret.key.project.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+//Rutas funcionales del stack reactivo (perfil reactive), con los mismos paths que los controllers servlet.
+//El listado paginado, la búsqueda, las operaciones por lote, XLSX/PDF y los trabajos asíncronos siguen solo
+//en el stack servlet; aquí el listado es un solo stream con backpressure
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PlatformCredentialRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> platformCredentialRoutes(PlatformCredentialHandler handler) {
+        return RouterFunctions.route()
+                .path("/v1/secret-key/platform", builder -> builder
+                        .GET("/stream", handler::findPlatformCredentialsStream)
+                        .GET("/name", handler::findPlatformCredentialByName)
+                        .GET("/{id}/password", handler::revealPlatformCredentialPassword)
+                        .GET("/export/csv", handler::exportPlatformCredentialCsv)
+                        .GET("/export/ndjson", handler::exportPlatformCredentialNdjson)
+                        .POST("/", handler::createPlatformCredential)
+                        .PUT("/{id}", handler::updatePlatformCredential)
+                        .DELETE("/{id}", handler::deletePlatformCredential))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> authRoutes(AuthHandler handler) {
+        return RouterFunctions.route()
+                .POST("/api/auth/register", handler::register)
+                .POST("/api/auth/login", handler::login)
+                .POST("/api/auth/revoke", handler::revoke)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package secret.key.project.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+//Elige el costo de BCrypt para que un hash tarde cerca del tiempo objetivo en esta CPU.
+//Cada punto de costo duplica el tiempo, así que basta medir el mínimo y extrapolar
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final int MUESTRAS = 3;
+    private static final String PASSWORD_PRUEBA = "calibracion-bcrypt";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    //El mayor costo entre min y max cuyo tiempo estimado no supera el objetivo
+    public static int calibrar(Duration objetivo, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        //Primer hash fuera de la medición: carga de clases y JIT
+        encoder.encode(PASSWORD_PRUEBA);
+
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < MUESTRAS; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode(PASSWORD_PRUEBA);
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+
+        int strength = costoPara(mejor, objetivo.toNanos(), minStrength, maxStrength);
+        log.info("Costo BCrypt calibrado: {} ({} ms con costo {}, objetivo {} ms, estimado {} ms)",
+                strength, mejor / 1_000_000, minStrength, objetivo.toMillis(),
+                (mejor << (strength - minStrength)) / 1_000_000);
+        return strength;
+    }
+
+    static int costoPara(long nanosMinimo, long nanosObjetivo, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long estimado = nanosMinimo;
+        while (strength < maxStrength && estimado * 2 <= nanosObjetivo) {
+            estimado *= 2;
+            strength++;
+        }
+        return strength;
+    }
+}
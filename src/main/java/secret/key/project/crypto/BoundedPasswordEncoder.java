@@ -0,0 +1,124 @@
+package secret.key.project.crypto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import secret.key.project.error.PasswordHashNoDisponibleException;
+import secret.key.project.error.PasswordHashRechazadoException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+//BCrypt (~100 ms de CPU por hash) en un pool acotado propio: los hilos de Tomcat solo esperan el resultado
+//y como mucho threads + queue-capacity quedan ocupados en hashing. Con la cola llena se responde 429 al
+//instante y si la espera supera el timeout 503, en lugar de dejar sin hilos a las lecturas de credenciales
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rechazos;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  MeterRegistry meterRegistry,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration timeout) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+
+        //Sin bean propio: así no reemplaza al applicationTaskExecutor que usa Spring MVC
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("password-hash-");
+        this.executor.initialize();
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rechazos = Counter.builder("auth.password.hash.rejected")
+                .description("Hashes rechazados por cola llena")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Hashes en espera de un hilo")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Hashes en ejecución")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    //Solo inspecciona el prefijo del hash, no hace falta pasar por el pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> future;
+        try {
+            future = executor.submit(tarea);
+        } catch (TaskRejectedException e) {
+            rechazos.increment();
+            log.warn("Cola de hashing llena, autenticación rechazada");
+            throw new PasswordHashRechazadoException("Hay demasiadas autenticaciones en curso, intenta más tarde");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //BCrypt no atiende interrupciones: el hash termina igual, pero nadie espera su resultado
+            future.cancel(true);
+            log.warn("El hashing superó el tiempo máximo de {} ms", timeout.toMillis());
+            throw new PasswordHashNoDisponibleException("El servicio de autenticación está saturado, intenta más tarde");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashNoDisponibleException("La autenticación fue interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error inesperado al calcular el hash", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operacion) {
+        return Timer.builder("auth.password.hash")
+                .description("Tiempo de CPU de BCrypt, sin la espera en cola")
+                .tag("operation", operacion)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
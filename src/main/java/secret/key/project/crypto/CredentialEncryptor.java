@@ -0,0 +1,113 @@
+package secret.key.project.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.error.PlatformCredentialExporException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+//Cifra y descifra los campos sensibles de PlatformCredential con la clave de datos del usuario.
+//El password siempre; username y url si se configuran (name no: lo usan el índice único y los ordenamientos).
+//Al leer se descifra todo valor con PREFIX, y los valores sin prefijo (guardados antes del cifrado) pasan tal cual
+@Component
+@Slf4j
+public class CredentialEncryptor {
+
+    public static final String PASSWORD = "password";
+    public static final String USERNAME = "username";
+    public static final String URL = "url";
+
+    private final DataKeyService dataKeyService;
+    private final boolean cifrarUsername;
+    private final boolean cifrarUrl;
+
+    public CredentialEncryptor(DataKeyService dataKeyService,
+                               @Value("${crypto.encrypt-username:false}") boolean cifrarUsername,
+                               @Value("${crypto.encrypt-url:false}") boolean cifrarUrl) {
+        this.dataKeyService = dataKeyService;
+        this.cifrarUsername = cifrarUsername;
+        this.cifrarUrl = cifrarUrl;
+    }
+
+    //Copia con los campos cifrados: la instancia del llamador conserva el texto plano
+    public PlatformCredential encrypt(PlatformCredential credential) {
+        String userId = credential.getUserId();
+        return new PlatformCredential(credential.getId(), userId, credential.getName(),
+                encrypt(userId, URL, credential.getUrl()),
+                encrypt(userId, USERNAME, credential.getUsername()),
+                encrypt(userId, PASSWORD, credential.getPassword()),
+                credential.getCreatedDate());
+    }
+
+    //Descifra en el mismo objeto todos los campos (exportaciones)
+    public PlatformCredential decrypt(PlatformCredential credential) {
+        decryptExceptPassword(credential);
+        credential.setPassword(decrypt(credential.getUserId(), PASSWORD, credential.getPassword()));
+        return credential;
+    }
+
+    //Lo que se hace al leer de Mongo: url y username en claro, el password queda cifrado hasta que
+    //se serializa o se revela (ver SecretValue)
+    public PlatformCredential decryptExceptPassword(PlatformCredential credential) {
+        String userId = credential.getUserId();
+        credential.setUrl(decrypt(userId, URL, credential.getUrl()));
+        credential.setUsername(decrypt(userId, USERNAME, credential.getUsername()));
+        return credential;
+    }
+
+    public String encrypt(String userId, String campo, String valor) {
+        if (valor == null || !cifra(campo)) {
+            return valor;
+        }
+        try {
+            return FieldCipher.sealToString(dataKeyService.getDataKey(userId), aad(userId, campo), valor);
+        } catch (GeneralSecurityException e) {
+            log.error("Error al cifrar el campo {} del usuario {}: {}", campo, userId, e.getMessage());
+            throw new PlatformCredentialExporException("Error al cifrar la credencial");
+        }
+    }
+
+    public String decrypt(String userId, String campo, String valor) {
+        if (!FieldCipher.isSealed(valor)) {
+            return valor;
+        }
+        try {
+            return FieldCipher.openToString(dataKeyService.getDataKey(userId), aad(userId, campo), valor);
+        } catch (GeneralSecurityException e) {
+            log.error("Error al descifrar el campo {} del usuario {}: {}", campo, userId, e.getMessage());
+            throw new PlatformCredentialExporException("Error al descifrar la credencial");
+        }
+    }
+
+    //Descifra a un char[] que el llamador debe limpiar; los valores sin prefijo se copian tal cual
+    public char[] decryptToChars(String userId, String campo, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (!FieldCipher.isSealed(valor)) {
+            return valor.toCharArray();
+        }
+        try {
+            return FieldCipher.openToChars(dataKeyService.getDataKey(userId), aad(userId, campo), valor);
+        } catch (GeneralSecurityException e) {
+            log.error("Error al descifrar el campo {} del usuario {}: {}", campo, userId, e.getMessage());
+            throw new PlatformCredentialExporException("Error al descifrar la credencial");
+        }
+    }
+
+    //Longitud del texto plano estimada a partir de la guardada, para los campos que se cifran
+    public int plainLength(String campo, int longitudGuardada) {
+        return cifra(campo) ? FieldCipher.plainLength(longitudGuardada) : longitudGuardada;
+    }
+
+    private boolean cifra(String campo) {
+        return PASSWORD.equals(campo) || (USERNAME.equals(campo) && cifrarUsername) || (URL.equals(campo) && cifrarUrl);
+    }
+
+    private static byte[] aad(String userId, String campo) {
+        return (userId + '\0' + campo).getBytes(StandardCharsets.UTF_8);
+    }
+}
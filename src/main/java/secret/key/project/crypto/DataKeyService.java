@@ -0,0 +1,123 @@
+package secret.key.project.crypto;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import secret.key.project.config.CacheLoads;
+import secret.key.project.entity.UserDataKey;
+import secret.key.project.error.PlatformCredentialExporException;
+import secret.key.project.repository.UserDataKeyRepository;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+//Claves de datos por usuario (cifrado de sobre): la primera escritura del usuario crea su clave, se guarda
+//envuelta con la clave maestra y se mantiene desenvuelta en caché, así un listado o una exportación
+//desenvuelve una sola vez por usuario y no por fila. Métricas: cache.* con cache=data-keys
+@Component
+@Slf4j
+public class DataKeyService {
+
+    private final UserDataKeyRepository userDataKeyRepository;
+    private final MasterKeyProvider masterKeyProvider;
+    private final AsyncCache<String, SecretKey> cache;
+
+    public DataKeyService(UserDataKeyRepository userDataKeyRepository,
+                          MasterKeyProvider masterKeyProvider,
+                          MeterRegistry meterRegistry,
+                          @Value("${crypto.data-key-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${crypto.data-key-cache.ttl:30m}") Duration ttl) {
+        this.userDataKeyRepository = userDataKeyRepository;
+        this.masterKeyProvider = masterKeyProvider;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "data-keys");
+    }
+
+    public SecretKey getDataKey(String userId) {
+        if (userId == null) {
+            throw new IllegalStateException("No se puede resolver la clave de datos sin userId");
+        }
+        //findById/insert fuera del lock del mapa: no fija hilos virtuales
+        return CacheLoads.get(cache, userId, this::cargarOCrear);
+    }
+
+    //Si la clave ya está desenvuelta en caché: usarla no consulta Mongo (ver ReactiveCredentialEncryptor)
+    public boolean isLoaded(String userId) {
+        CompletableFuture<SecretKey> clave = userId != null ? cache.getIfPresent(userId) : null;
+        return clave != null && clave.isDone() && !clave.isCompletedExceptionally();
+    }
+
+    private SecretKey cargarOCrear(String userId) {
+        Optional<UserDataKey> existente = userDataKeyRepository.findById(userId);
+        if (existente.isPresent()) {
+            return desenvolver(existente.get());
+        }
+
+        SecretKey dataKey = generarClave();
+        UserDataKey nueva = new UserDataKey(userId, envolver(userId, dataKey), masterKeyProvider.getAlias(), Instant.now());
+        try {
+            userDataKeyRepository.insert(nueva);
+            log.info("Clave de datos creada para el usuario: {}", userId);
+            return dataKey;
+        } catch (DuplicateKeyException e) {
+            //Otra instancia la creó primero: se usa la guardada
+            return desenvolver(userDataKeyRepository.findById(userId).orElseThrow(() -> e));
+        }
+    }
+
+    private byte[] envolver(String userId, SecretKey dataKey) {
+        try {
+            return FieldCipher.seal(masterKeyProvider.getMasterKey(), aad(userId), dataKey.getEncoded());
+        } catch (GeneralSecurityException e) {
+            log.error("Error al envolver la clave de datos del usuario {}: {}", userId, e.getMessage());
+            throw new PlatformCredentialExporException("Error al crear la clave de cifrado del usuario");
+        }
+    }
+
+    private SecretKey desenvolver(UserDataKey userDataKey) {
+        byte[] raw = null;
+        try {
+            raw = FieldCipher.open(masterKeyProvider.getMasterKey(), aad(userDataKey.getUserId()), userDataKey.getWrappedKey());
+            return new SecretKeySpec(raw, "AES");
+        } catch (GeneralSecurityException e) {
+            log.error("Error al desenvolver la clave de datos del usuario {} (alias {}): {}", userDataKey.getUserId(),
+                    userDataKey.getMasterKeyAlias(), e.getMessage());
+            throw new PlatformCredentialExporException("Error al abrir la clave de cifrado del usuario");
+        } finally {
+            if (raw != null) {
+                Arrays.fill(raw, (byte) 0);
+            }
+        }
+    }
+
+    private static byte[] aad(String userId) {
+        return ("dek:" + userId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SecretKey generarClave() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            return keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo generar la clave de datos", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package secret.key.project.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+//AES-GCM con IV aleatorio de 12 bytes: sellado = iv || ciphertext || tag. El aad (usuario y campo) queda
+//autenticado pero no se guarda, así un valor copiado a otro usuario o a otro campo no se puede abrir.
+//El Cipher se reutiliza por hilo: getInstance busca el proveedor en cada llamada y es lo más caro por fila
+//(con hilos virtuales el hilo es la petición: un getInstance por petición, amortizado entre sus filas)
+public final class FieldCipher {
+
+    public static final String PREFIX = "enc:v1:";
+
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int OVERHEAD = IV_LENGTH + TAG_BITS / 8;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(FieldCipher::nuevoCipher);
+
+    private FieldCipher() {
+        throw new UnsupportedOperationException("Clase de utilidad");
+    }
+
+    public static byte[] seal(SecretKey key, byte[] aad, byte[] plain) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        SECURE_RANDOM.nextBytes(iv);
+        byte[] sealed = new byte[IV_LENGTH + plain.length + TAG_BITS / 8];
+        System.arraycopy(iv, 0, sealed, 0, IV_LENGTH);
+        Cipher cipher = CIPHERS.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_LENGTH));
+        cipher.updateAAD(aad);
+        cipher.doFinal(plain, 0, plain.length, sealed, IV_LENGTH);
+        return sealed;
+    }
+
+    public static byte[] open(SecretKey key, byte[] aad, byte[] sealed) throws GeneralSecurityException {
+        if (sealed.length < OVERHEAD) {
+            throw new GeneralSecurityException("Valor cifrado demasiado corto");
+        }
+        Cipher cipher = CIPHERS.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_LENGTH));
+        cipher.updateAAD(aad);
+        return cipher.doFinal(sealed, IV_LENGTH, sealed.length - IV_LENGTH);
+    }
+
+    //Texto cifrado como String para que el campo siga siendo string en Mongo: PREFIX + base64(sellado)
+    public static String sealToString(SecretKey key, byte[] aad, String plain) throws GeneralSecurityException {
+        byte[] bytes = plain.getBytes(StandardCharsets.UTF_8);
+        try {
+            return PREFIX + Base64.getEncoder().encodeToString(seal(key, aad, bytes));
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    public static String openToString(SecretKey key, byte[] aad, String stored) throws GeneralSecurityException {
+        byte[] plain = open(key, aad, decodificar(stored));
+        try {
+            return new String(plain, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    //Igual que openToString pero sin crear un String: el llamador limpia el char[] cuando termina
+    public static char[] openToChars(SecretKey key, byte[] aad, String stored) throws GeneralSecurityException {
+        byte[] plain = open(key, aad, decodificar(stored));
+        CharBuffer buffer = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(plain));
+        try {
+            return Arrays.copyOf(buffer.array(), buffer.limit());
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+            Arrays.fill(buffer.array(), '\0');
+        }
+    }
+
+    public static boolean isSealed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    //Longitud aproximada en caracteres del texto plano de un valor sellado (para anchos de columna)
+    public static int plainLength(int storedLength) {
+        return Math.max(0, (storedLength - PREFIX.length()) / 4 * 3 - OVERHEAD);
+    }
+
+    private static byte[] decodificar(String stored) throws GeneralSecurityException {
+        try {
+            return Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Valor cifrado con base64 inválido", e);
+        }
+    }
+
+    private static Cipher nuevoCipher() {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM no está disponible en esta JVM", e);
+        }
+    }
+}
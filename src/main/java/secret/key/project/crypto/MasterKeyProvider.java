@@ -0,0 +1,94 @@
+package secret.key.project.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+//Clave maestra AES-256 guardada en un keystore PKCS12 local. Solo se usa para envolver las claves de datos
+//de cada usuario; nunca cifra credenciales directamente. Si falta el keystore se crea solo si se permite (dev)
+@Component
+@Slf4j
+public class MasterKeyProvider {
+
+    private final SecretKey masterKey;
+    private final String alias;
+
+    public MasterKeyProvider(@Value("${crypto.keystore.path:secret-key-master.p12}") Path path,
+                             @Value("${crypto.keystore.password:}") String password,
+                             @Value("${crypto.keystore.create-if-missing:false}") boolean crearSiFalta,
+                             @Value("${crypto.master-key-alias:master-key}") String alias) {
+
+        if (password == null || password.isBlank()) {
+            throw new IllegalStateException("Falta crypto.keystore.password para abrir el keystore de la clave maestra");
+        }
+        this.alias = alias;
+        char[] clave = password.toCharArray();
+
+        try {
+            if (Files.exists(path)) {
+                this.masterKey = cargar(path, clave, alias);
+            } else if (crearSiFalta) {
+                this.masterKey = crear(path, clave, alias);
+                log.warn("Keystore de la clave maestra creado en {}: respáldalo, sin él no se pueden leer las credenciales", path.toAbsolutePath());
+            } else {
+                throw new IllegalStateException("No existe el keystore de la clave maestra: " + path.toAbsolutePath());
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo abrir el keystore de la clave maestra: " + e.getMessage(), e);
+        }
+    }
+
+    public SecretKey getMasterKey() {
+        return masterKey;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    private static SecretKey cargar(Path path, char[] clave, String alias) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, clave);
+        }
+        if (!(keyStore.getEntry(alias, new KeyStore.PasswordProtection(clave)) instanceof KeyStore.SecretKeyEntry entry)) {
+            throw new IllegalStateException("El keystore no tiene una clave secreta con el alias: " + alias);
+        }
+        return entry.getSecretKey();
+    }
+
+    private static SecretKey crear(Path path, char[] clave, String alias) throws IOException, GeneralSecurityException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        SecretKey key = keyGenerator.generateKey();
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, clave);
+        keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(key), new KeyStore.PasswordProtection(clave));
+
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(path);
+        }
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, clave);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,43 @@
+package secret.key.project.crypto;
+
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import secret.key.project.entity.PlatformCredential;
+
+//Cifrado en la capa de persistencia: save, insert y bulkOps.insert pasan por BeforeConvert (se escribe una
+//copia cifrada) y AfterSave; todo find, stream y findAndModify pasa por AfterConvert. Al leer solo se descifran
+//url y username: el password sigue cifrado en la entidad y se descifra en SecretValue cuando hace falta.
+//Los Update armados a mano (findAndModify, bulkUpdate) cifran sus valores en el repositorio
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PlatformCredentialEncryptionCallback implements BeforeConvertCallback<PlatformCredential>,
+        AfterSaveCallback<PlatformCredential>, AfterConvertCallback<PlatformCredential> {
+
+    private final CredentialEncryptor credentialEncryptor;
+
+    //@Lazy: el MappingMongoConverter resuelve los callbacks al crearse y el encryptor depende de un repositorio
+    //que necesita ese mismo MongoTemplate
+    public PlatformCredentialEncryptionCallback(@Lazy CredentialEncryptor credentialEncryptor) {
+        this.credentialEncryptor = credentialEncryptor;
+    }
+
+    @Override
+    public PlatformCredential onBeforeConvert(PlatformCredential entity, String collection) {
+        return credentialEncryptor.encrypt(entity);
+    }
+
+    @Override
+    public PlatformCredential onAfterSave(PlatformCredential entity, Document document, String collection) {
+        return credentialEncryptor.decryptExceptPassword(entity);
+    }
+
+    @Override
+    public PlatformCredential onAfterConvert(PlatformCredential entity, Document document, String collection) {
+        return credentialEncryptor.decryptExceptPassword(entity);
+    }
+}
@@ -0,0 +1,58 @@
+package secret.key.project.crypto;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import secret.key.project.entity.PlatformCredential;
+
+import java.util.function.Supplier;
+
+//CredentialEncryptor para el stack reactivo. AES-GCM con la clave en caché son microsegundos y corre en el
+//event loop; si la clave de datos del usuario no está cargada, la primera operación la trae de Mongo
+//(bloqueante) en boundedElastic y las siguientes del mismo usuario vuelven al event loop
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCredentialEncryptor {
+
+    private final CredentialEncryptor credentialEncryptor;
+    private final DataKeyService dataKeyService;
+
+    //@Lazy por el mismo ciclo que PlatformCredentialEncryptionCallback: lo usan los callbacks del ReactiveMongoTemplate
+    public ReactiveCredentialEncryptor(@Lazy CredentialEncryptor credentialEncryptor, @Lazy DataKeyService dataKeyService) {
+        this.credentialEncryptor = credentialEncryptor;
+        this.dataKeyService = dataKeyService;
+    }
+
+    public Mono<PlatformCredential> encrypt(PlatformCredential credential) {
+        return conClave(credential.getUserId(), () -> credentialEncryptor.encrypt(credential));
+    }
+
+    //Sin campos cifrados (url y username en claro por configuración) no hace falta la clave
+    public Mono<PlatformCredential> decryptExceptPassword(PlatformCredential credential) {
+        if (!FieldCipher.isSealed(credential.getUrl()) && !FieldCipher.isSealed(credential.getUsername())) {
+            return Mono.just(credential);
+        }
+        return conClave(credential.getUserId(), () -> credentialEncryptor.decryptExceptPassword(credential));
+    }
+
+    public Mono<PlatformCredential> decrypt(PlatformCredential credential) {
+        if (!FieldCipher.isSealed(credential.getPassword())) {
+            return decryptExceptPassword(credential);
+        }
+        return conClave(credential.getUserId(), () -> credentialEncryptor.decrypt(credential));
+    }
+
+    //Ejecuta la operación con la clave de datos del usuario ya en caché
+    public <T> Mono<T> conClave(String userId, Supplier<T> operacion) {
+        if (dataKeyService.isLoaded(userId)) {
+            return Mono.fromSupplier(operacion);
+        }
+        return Mono.fromSupplier(() -> {
+                    dataKeyService.getDataKey(userId);
+                    return operacion.get();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,39 @@
+package secret.key.project.crypto;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterSaveCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import secret.key.project.entity.PlatformCredential;
+
+//Lo mismo que PlatformCredentialEncryptionCallback para el ReactiveMongoTemplate, que no invoca los callbacks
+//síncronos: se escribe una copia cifrada y al leer se descifran url y username, el password sigue cifrado
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePlatformCredentialEncryptionCallback implements ReactiveBeforeConvertCallback<PlatformCredential>,
+        ReactiveAfterSaveCallback<PlatformCredential>, ReactiveAfterConvertCallback<PlatformCredential> {
+
+    private final ReactiveCredentialEncryptor reactiveCredentialEncryptor;
+
+    public ReactivePlatformCredentialEncryptionCallback(ReactiveCredentialEncryptor reactiveCredentialEncryptor) {
+        this.reactiveCredentialEncryptor = reactiveCredentialEncryptor;
+    }
+
+    @Override
+    public Publisher<PlatformCredential> onBeforeConvert(PlatformCredential entity, String collection) {
+        return reactiveCredentialEncryptor.encrypt(entity);
+    }
+
+    @Override
+    public Publisher<PlatformCredential> onAfterSave(PlatformCredential entity, Document document, String collection) {
+        return reactiveCredentialEncryptor.decryptExceptPassword(entity);
+    }
+
+    @Override
+    public Publisher<PlatformCredential> onAfterConvert(PlatformCredential entity, Document document, String collection) {
+        return reactiveCredentialEncryptor.decryptExceptPassword(entity);
+    }
+}
@@ -0,0 +1,108 @@
+package secret.key.project.crypto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.util.Arrays;
+
+//Password de un DTO. Lo leído de Mongo se guarda cifrado tal cual y se descifra recién al serializar la
+//respuesta o al revelarlo, así un listado que no llega a escribirse no paga el descifrado. El texto plano
+//vive en un char[] que se limpia después de usarlo; lo que envía el cliente se guarda en un char[] propio.
+//En el stack reactivo la respuesta se serializa en el event loop, donde no se puede ir a Mongo por la clave
+//de datos: ahí el password se descifra antes (opened) y el char[] se limpia al serializarlo
+@JsonSerialize(using = SecretValue.Serializer.class)
+public final class SecretValue {
+
+    private final char[] plain;
+    private final String sealed;
+    private final String userId;
+    private final CredentialEncryptor credentialEncryptor;
+    //Se limpia después de serializarlo una vez
+    private final boolean unSoloUso;
+
+    private SecretValue(char[] plain, String sealed, String userId, CredentialEncryptor credentialEncryptor, boolean unSoloUso) {
+        this.plain = plain;
+        this.sealed = sealed;
+        this.userId = userId;
+        this.credentialEncryptor = credentialEncryptor;
+        this.unSoloUso = unSoloUso;
+    }
+
+    //Valor en claro (body de la petición, importaciones)
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static SecretValue of(String plain) {
+        return plain != null ? new SecretValue(plain.toCharArray(), null, null, null, false) : null;
+    }
+
+    //Valor tal como está guardado; si no tiene prefijo (guardado antes del cifrado) se devuelve tal cual
+    public static SecretValue sealed(String stored, String userId, CredentialEncryptor credentialEncryptor) {
+        return stored != null ? new SecretValue(null, stored, userId, credentialEncryptor, false) : null;
+    }
+
+    //Descifrado ya, con la clave de datos en caché (ReactiveCredentialEncryptor.conClave)
+    public static SecretValue opened(String stored, String userId, CredentialEncryptor credentialEncryptor) {
+        return stored != null
+                ? new SecretValue(credentialEncryptor.decryptToChars(userId, CredentialEncryptor.PASSWORD, stored), null, null, null, true)
+                : null;
+    }
+
+    //Copia del texto plano: el llamador debe limpiarla con Arrays.fill cuando termina
+    public char[] reveal() {
+        if (plain != null) {
+            return plain.clone();
+        }
+        return credentialEncryptor.decryptToChars(userId, CredentialEncryptor.PASSWORD, sealed);
+    }
+
+    //Para pasarlo a la entidad (Mongo solo guarda String); el cifrado lo aplica el callback al escribir
+    public String toPlainString() {
+        char[] chars = reveal();
+        try {
+            return new String(chars);
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    public boolean isSealed() {
+        return FieldCipher.isSealed(sealed);
+    }
+
+    //Limpia el valor en claro que envió el cliente una vez que ya se guardó
+    public void destroy() {
+        if (plain != null) {
+            Arrays.fill(plain, '\0');
+        }
+    }
+
+    //Nunca el secreto: los DTO se loguean con toString de Lombok
+    @Override
+    public String toString() {
+        return "[PROTECTED]";
+    }
+
+    //Escribe el char[] descifrado directo al generador y lo limpia enseguida
+    public static final class Serializer extends StdSerializer<SecretValue> {
+
+        public Serializer() {
+            super(SecretValue.class);
+        }
+
+        @Override
+        public void serialize(SecretValue value, JsonGenerator gen, SerializationContext context) throws JacksonException {
+            char[] chars = value.reveal();
+            try {
+                gen.writeString(chars, 0, chars.length);
+            } finally {
+                Arrays.fill(chars, '\0');
+                if (value.unSoloUso) {
+                    value.destroy();
+                }
+            }
+        }
+    }
+}
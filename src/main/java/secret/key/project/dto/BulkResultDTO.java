@@ -0,0 +1,18 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> items;
+}
@@ -0,0 +1,23 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+
+    private String id;
+    private String format;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private long processed;
+    private long total;
+    private int progress; // porcentaje 0-100
+    private Instant createdAt;
+    private Instant expiresAt; // solo cuando el resultado está listo o falló
+    private String error;
+}
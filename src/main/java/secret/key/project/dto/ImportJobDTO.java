@@ -0,0 +1,25 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private String id;
+    private String format;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private long processed; // filas de datos leídas hasta ahora
+    private long imported;
+    private long rejected;
+    private List<ImportRejectedRowDTO> rejectedRows; // las primeras import.max-rejected-rows
+    private Instant createdAt;
+    private Instant expiresAt; // solo cuando terminó o falló
+    private String error;
+}
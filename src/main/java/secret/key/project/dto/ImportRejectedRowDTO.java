@@ -0,0 +1,16 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Fila del archivo que no se importó; row es la fila del archivo (la cabecera es la 1)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRejectedRowDTO {
+
+    private long row;
+    private String name;
+    private String reason;
+}
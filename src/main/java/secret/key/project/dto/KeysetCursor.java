@@ -0,0 +1,40 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//Posición de la última credencial devuelta (userId, name), serializada como token opaco base64url.
+//El name basta para el seek porque es único por usuario (user_name_idx). El userId solo sirve para rechazar
+//tokens de otro usuario; la consulta siempre filtra por el usuario autenticado
+@Getter
+@ToString
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final char SEPARADOR = '\u0000';
+
+    private final String userId;
+    private final String name;
+
+    public String encode() {
+        String valor = userId + SEPARADOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split(String.valueOf(SEPARADOR), -1);
+            if (partes.length != 2 || partes[0].isEmpty()) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido!");
+            }
+            return new KeysetCursor(partes[0], partes[1]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido!");
+        }
+    }
+}
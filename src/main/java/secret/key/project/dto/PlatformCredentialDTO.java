@@ -3,6 +3,7 @@ package secret.key.project.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import org.springframework.data.mongodb.core.mapping.Field;
+import secret.key.project.crypto.SecretValue;
 
 import java.time.LocalDate;
 
@@ -14,6 +15,7 @@ public class PlatformCredentialDTO {
     private String name;
     private String url;
     private String username;
-    private String password;
+    @Schema(type = "string")//Se descifra recién al serializar la respuesta
+    private SecretValue password;
     private LocalDate createdDate;
 }
@@ -0,0 +1,17 @@
+package secret.key.project.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import secret.key.project.crypto.SecretValue;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformCredentialSecretDTO {
+
+    private String id;
+    @Schema(type = "string")
+    private SecretValue password;
+}
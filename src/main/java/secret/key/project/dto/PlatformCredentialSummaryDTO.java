@@ -0,0 +1,16 @@
+package secret.key.project.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+//Vista de listado: todo menos el password, que se pide aparte con el endpoint de revelar
+@Data
+public class PlatformCredentialSummaryDTO {
+
+    private String id;
+    private String name;
+    private String url;
+    private String username;
+    private LocalDate createdDate;
+}
@@ -0,0 +1,20 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//Página sin total obligatorio: totalElements es null salvo que se pida explícitamente
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlicePageDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long totalElements;
+}
@@ -0,0 +1,26 @@
+package secret.key.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.List;
+
+//Claims ya validados de un JWT (firma y expiración), obtenidos con un único parseo
+@Getter
+@ToString
+@AllArgsConstructor
+public class TokenClaims {
+
+    private final String subject;
+    private final String userId;
+    private final Date expiration;
+    //Solo presentes en tokens emitidos con roles/versión (null en tokens antiguos)
+    private final List<String> roles;
+    private final int tokenVersion;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -27,6 +27,8 @@ public class User implements UserDetails {
     private String username;
     private String password;
     private List<String> roles;
+    //Se incrementa para invalidar todos los tokens emitidos al usuario
+    private int tokenVersion;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,30 @@
+package secret.key.project.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+//Clave de datos de un usuario envuelta (AES-GCM) con la clave maestra; el _id es el userId
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Document(collection = "user_data_keys")
+public class UserDataKey {
+
+    @Id
+    private String userId;
+
+    @Field(name = "wrapped_key")
+    private byte[] wrappedKey;
+
+    @Field(name = "master_key_alias")
+    private String masterKeyAlias;
+
+    @Field(name = "created_at")
+    private Instant createdAt;
+}
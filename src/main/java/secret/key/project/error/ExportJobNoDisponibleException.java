@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class ExportJobNoDisponibleException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportJobNoDisponibleException(String mensaje){
+        super(mensaje);
+    }
+}
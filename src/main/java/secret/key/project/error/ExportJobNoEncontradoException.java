@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class ExportJobNoEncontradoException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportJobNoEncontradoException(String mensaje){
+        super(mensaje);
+    }
+}
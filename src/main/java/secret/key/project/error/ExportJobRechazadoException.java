@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class ExportJobRechazadoException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportJobRechazadoException(String mensaje){
+        super(mensaje);
+    }
+}
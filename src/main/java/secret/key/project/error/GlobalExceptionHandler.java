@@ -1,10 +1,13 @@
 package secret.key.project.error;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import secret.key.project.config.MongoIndexConfig;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -48,6 +51,71 @@ public class GlobalExceptionHandler {
         return construirRespuesta(HttpStatus.NOT_FOUND, exception.getMessage());
     }
 
+    //Lo lanzan los índices únicos en lugar de una consulta previa de existencia
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<Map<String, Object>> manejarClaveDuplicada(DuplicateKeyException exception){
+        log.warn("Registro duplicado: {}", exception.getMostSpecificCause().getMessage());
+        return construirRespuesta(HttpStatus.CONFLICT, mensajeClaveDuplicada(exception));
+    }
+
+    //Solo user_name_idx corresponde a un nombre de plataforma repetido; el resto de índices únicos lleva un mensaje genérico
+    static String mensajeClaveDuplicada(DuplicateKeyException exception) {
+        String detalle = exception.getMessage();
+        return detalle != null && detalle.contains(MongoIndexConfig.INDICE_USUARIO_NOMBRE)
+                ? "Ya existe una plataforma registrada con ese nombre!"
+                : "Ya existe un registro con esos datos!";
+    }
+
+    //Manejar trabajos de exportación asíncrona
+    @ExceptionHandler(ExportJobRechazadoException.class)
+    public ResponseEntity<Map<String, Object>> manejarExportJobRechazado(ExportJobRechazadoException exception){
+        log.warn("Exportación rechazada: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+    }
+
+    @ExceptionHandler(ExportJobNoEncontradoException.class)
+    public ResponseEntity<Map<String, Object>> manejarExportJobNoEncontrado(ExportJobNoEncontradoException exception){
+        log.warn("Error al obtener exportación: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    @ExceptionHandler(ExportJobNoDisponibleException.class)
+    public ResponseEntity<Map<String, Object>> manejarExportJobNoDisponible(ExportJobNoDisponibleException exception){
+        log.warn("Exportación no disponible: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler(ImportJobRechazadoException.class)
+    public ResponseEntity<Map<String, Object>> manejarImportJobRechazado(ImportJobRechazadoException exception){
+        log.warn("Importación rechazada: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+    }
+
+    @ExceptionHandler(ImportJobNoEncontradoException.class)
+    public ResponseEntity<Map<String, Object>> manejarImportJobNoEncontrado(ImportJobNoEncontradoException exception){
+        log.warn("Error al obtener importación: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    //Pool de hashing saturado: cola llena (429) o espera mayor al timeout (503)
+    @ExceptionHandler(PasswordHashRechazadoException.class)
+    public ResponseEntity<Map<String, Object>> manejarPasswordHashRechazado(PasswordHashRechazadoException exception){
+        log.warn("Autenticación rechazada: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashNoDisponibleException.class)
+    public ResponseEntity<Map<String, Object>> manejarPasswordHashNoDisponible(PasswordHashNoDisponibleException exception){
+        log.warn("Autenticación no disponible: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> manejarArchivoDemasiadoGrande(MaxUploadSizeExceededException exception){
+        log.warn("Archivo subido demasiado grande: {}", exception.getMessage());
+        return construirRespuesta(HttpStatus.CONTENT_TOO_LARGE, "El archivo supera el tamaño máximo permitido!");
+    }
+
     private ResponseEntity<Map<String, Object>> construirRespuesta(HttpStatus status, String mensaje){
         return ResponseEntity.status(status).body(Map.of(
                 "status", status.value(),
@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class ImportJobNoEncontradoException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportJobNoEncontradoException(String mensaje){
+        super(mensaje);
+    }
+}
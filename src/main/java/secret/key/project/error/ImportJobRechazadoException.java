@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class ImportJobRechazadoException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportJobRechazadoException(String mensaje){
+        super(mensaje);
+    }
+}
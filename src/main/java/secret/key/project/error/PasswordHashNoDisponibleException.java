@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class PasswordHashNoDisponibleException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashNoDisponibleException(String mensaje){
+        super(mensaje);
+    }
+}
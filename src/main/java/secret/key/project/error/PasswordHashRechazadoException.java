@@ -0,0 +1,10 @@
+package secret.key.project.error;
+
+public class PasswordHashRechazadoException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashRechazadoException(String mensaje){
+        super(mensaje);
+    }
+}
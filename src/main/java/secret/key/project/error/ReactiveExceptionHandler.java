@@ -0,0 +1,120 @@
+package secret.key.project.error;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+//GlobalExceptionHandler para el stack reactivo: @RestControllerAdvice no aplica a las rutas funcionales.
+//Mismos códigos y la misma forma del JSON de error. Antes del DefaultErrorWebExceptionHandler (-1)
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(-2)
+@Slf4j
+public class ReactiveExceptionHandler implements WebExceptionHandler {
+
+    private final ServerResponse.Context context;
+
+    public ReactiveExceptionHandler(ServerCodecConfigurer serverCodecConfigurer) {
+        List<HttpMessageWriter<?>> writers = serverCodecConfigurer.getWriters();
+        this.context = new ServerResponse.Context() {
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return writers;
+            }
+
+            @Override
+            public List<ViewResolver> viewResolvers() {
+                return List.of();
+            }
+        };
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable exception) {
+        //Con la respuesta ya enviada (exportación cortada a la mitad) solo queda cerrar la conexión
+        if (exchange.getResponse().isCommitted()) {
+            log.error("Error después de enviar la respuesta: {}", exception.getMessage());
+            return Mono.error(exception);
+        }
+
+        HttpStatusCode status = estado(exception);
+        String mensaje = mensaje(exception, status);
+        if (status.is5xxServerError()) {
+            log.error("Error en {}: {}", exchange.getRequest().getPath(), exception.getMessage(), exception);
+        } else {
+            log.warn("Error en {}: {}", exchange.getRequest().getPath(), mensaje);
+        }
+
+        //Las exportaciones ya pusieron sus encabezados de descarga
+        exchange.getResponse().getHeaders().remove("Content-Disposition");
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "status", status.value(),
+                        "error", HttpStatus.valueOf(status.value()).getReasonPhrase(),
+                        "message", mensaje,
+                        "timestamp", LocalDateTime.now()))
+                .flatMap(response -> response.writeTo(exchange, context));
+    }
+
+    private static HttpStatusCode estado(Throwable exception) {
+        if (exception instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (exception instanceof PlatformCredentialNoEncontradoException
+                || exception instanceof UsuarioExceptionNoContentException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (exception instanceof UsuarioException || exception instanceof AuthenticationException) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        if (exception instanceof DuplicateKeyException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (exception instanceof PasswordHashRechazadoException) {
+            return HttpStatus.TOO_MANY_REQUESTS;
+        }
+        if (exception instanceof PasswordHashNoDisponibleException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        //Body mal formado (ServerWebInputException), ruta inexistente, método no permitido
+        if (exception instanceof ResponseStatusException responseStatus) {
+            return responseStatus.getStatusCode();
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static String mensaje(Throwable exception, HttpStatusCode status) {
+        if (exception instanceof DuplicateKeyException duplicada) {
+            return GlobalExceptionHandler.mensajeClaveDuplicada(duplicada);
+        }
+        if (exception instanceof AuthenticationException) {
+            return "Usuario o contraseña incorrectos";
+        }
+        if (exception instanceof ResponseStatusException responseStatus) {
+            return responseStatus.getReason() != null ? responseStatus.getReason() : status.toString();
+        }
+        if (status == HttpStatus.INTERNAL_SERVER_ERROR && !(exception instanceof PlatformCredentialExporException)) {
+            return "Error interno del servidor";
+        }
+        return exception.getMessage();
+    }
+}
@@ -0,0 +1,33 @@
+package secret.key.project.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+//Cuenta los bytes que pasan al stream de destino (para credential.export.bytes); no es thread-safe,
+//como las exportaciones que lo usan
+public final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    //FilterOutputStream escribe byte por byte; se delega el bloque completo
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,87 @@
+package secret.key.project.export;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+//Temporal local cifrado con AES-CTR y una clave efímera que solo vive en memoria: si el proceso muere
+//el archivo queda ilegible. Solo el usuario del proceso puede leerlo (600 en sistemas POSIX)
+@Slf4j
+public final class EncryptedTempFile {
+
+    private static final String CIPHER = "AES/CTR/NoPadding";
+    private static final int IV_LENGTH = 16;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final Path path;
+    private final SecretKey key;
+    private final byte[] iv = new byte[IV_LENGTH];
+
+    private EncryptedTempFile(Path path, SecretKey key) {
+        this.path = path;
+        this.key = key;
+        SECURE_RANDOM.nextBytes(iv);
+    }
+
+    public static EncryptedTempFile create(Path directory, String prefix) throws IOException {
+        Path path;
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            path = Files.createTempFile(directory, prefix, ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            path = Files.createTempFile(directory, prefix, ".tmp");
+        }
+        return new EncryptedTempFile(path, generateKey());
+    }
+
+    public OutputStream openOutputStream() throws IOException {
+        return new BufferedOutputStream(new CipherOutputStream(Files.newOutputStream(path), cipher(Cipher.ENCRYPT_MODE)));
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return new CipherInputStream(Files.newInputStream(path), cipher(Cipher.DECRYPT_MODE));
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el temporal {}: {}", path.getFileName(), e.getMessage());
+        }
+    }
+
+    private Cipher cipher(int mode) throws IOException {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(mode, key, new IvParameterSpec(iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("No se pudo inicializar el cifrado del temporal", e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256, SECURE_RANDOM);
+            return keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo generar la clave del temporal", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package secret.key.project.export;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+//Formatos de exportación de las credenciales, con su content type y extensión de descarga
+public enum ExportFormat {
+
+    XLSX(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), "xlsx"),
+    PDF(MediaType.APPLICATION_PDF, "pdf"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv"),
+    NDJSON(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileName() {
+        return "lista-plataformas." + extension;
+    }
+
+    public static ExportFormat from(String format) {
+        if (format == null || format.isBlank()) {
+            throw new IllegalArgumentException("El formato de exportación no puede ser nulo o vacio!");
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + format + " (xlsx, pdf, csv, ndjson)");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package secret.key.project.export;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Métricas de las exportaciones, por formato: credential.export{format,outcome=success|error} (duración de la
+//escritura), credential.export.rows y credential.export.bytes (tamaño de las exportaciones completas).
+//Los meters se registran una sola vez; registrar solo busca en los EnumMap
+@Component
+public class ExportMetrics {
+
+    private final Map<ExportFormat, Timer> exitos = new EnumMap<>(ExportFormat.class);
+    private final Map<ExportFormat, Timer> errores = new EnumMap<>(ExportFormat.class);
+    private final Map<ExportFormat, DistributionSummary> filas = new EnumMap<>(ExportFormat.class);
+    private final Map<ExportFormat, DistributionSummary> bytes = new EnumMap<>(ExportFormat.class);
+
+    public ExportMetrics(MeterRegistry meterRegistry) {
+        for (ExportFormat formato : ExportFormat.values()) {
+            exitos.put(formato, exportTimer(meterRegistry, formato, "success"));
+            errores.put(formato, exportTimer(meterRegistry, formato, "error"));
+            filas.put(formato, DistributionSummary.builder("credential.export.rows")
+                    .description("Filas escritas por exportación")
+                    .tag("format", formato.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            bytes.put(formato, DistributionSummary.builder("credential.export.bytes")
+                    .description("Tamaño de la exportación generada")
+                    .baseUnit("bytes")
+                    .tag("format", formato.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    //Si la exportación falló o el cliente cortó la descarga solo cuenta la duración
+    public void registrar(ExportFormat formato, long duracionNanos, long totalFilas, long totalBytes, boolean exito) {
+        if (!exito) {
+            errores.get(formato).record(duracionNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        exitos.get(formato).record(duracionNanos, TimeUnit.NANOSECONDS);
+        filas.get(formato).record(totalFilas);
+        bytes.get(formato).record(totalBytes);
+    }
+
+    private static Timer exportTimer(MeterRegistry meterRegistry, ExportFormat formato, String outcome) {
+        return Timer.builder("credential.export")
+                .description("Duración de la exportación, desde abrir el cursor hasta el último byte")
+                .tag("format", formato.name().toLowerCase())
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package secret.key.project.export;
+
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+
+import java.awt.Color;
+
+//Tema del reporte PDF precalculado una sola vez: fuentes, colores y celdas plantilla.
+//Las plantillas nunca se modifican; cada exportación trabaja sobre sus propias copias (CellFactory).
+public final class PdfExportTheme {
+
+    public static final Color PRIMARY_COLOR = new Color(41, 128, 185);
+    public static final Color HEADER_BORDER_COLOR = new Color(200, 200, 200);
+    public static final Color DATA_BORDER_COLOR = new Color(220, 220, 220);
+
+    //Font es mutable: solo se usan dentro de CellFactory, nunca se entregan
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 20, Font.BOLD, Color.WHITE);
+    private static final Font INFO_FONT = new Font(Font.HELVETICA, 12, Font.NORMAL, Color.DARK_GRAY);
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE);
+    private static final Font CONTENT_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL, Color.BLACK);
+
+    private static final PdfPCell TITLE_TEMPLATE = createTitleTemplate();
+    private static final PdfPCell HEADER_TEMPLATE = createHeaderTemplate();
+    private static final PdfPCell DATA_TEMPLATE = createDataTemplate();
+
+    private PdfExportTheme() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    public static CellFactory newCellFactory() {
+        return new CellFactory();
+    }
+
+    private static PdfPCell createTitleTemplate() {
+        PdfPCell cell = new PdfPCell();
+        cell.setColspan(2); // Ocupa las dos columnas
+        cell.setBackgroundColor(PRIMARY_COLOR);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(15f);
+        return cell;
+    }
+
+    private static PdfPCell createHeaderTemplate() {
+        PdfPCell cell = new PdfPCell();
+        cell.setBackgroundColor(PRIMARY_COLOR);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_CENTER);
+        cell.setPadding(10f);
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setBorderWidthBottom(1f);
+        cell.setBorderColorBottom(HEADER_BORDER_COLOR);
+        return cell;
+    }
+
+    private static PdfPCell createDataTemplate() {
+        PdfPCell cell = new PdfPCell();
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(10f);
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setBorderWidthBottom(0.5f);
+        cell.setBorderColorBottom(DATA_BORDER_COLOR);
+        return cell;
+    }
+
+    //Fábrica de celdas de una exportación (no es thread-safe). PdfPTable.addCell copia la celda recibida,
+    //así que se reutiliza una única celda de trabajo por tipo y solo se le cambia el texto.
+    //La celda retornada debe pasarse a addCell antes de pedir la siguiente.
+    public static final class CellFactory {
+
+        private final PdfPCell titleCell = new PdfPCell(TITLE_TEMPLATE);
+        private final PdfPCell headerCell = new PdfPCell(HEADER_TEMPLATE);
+        private final PdfPCell dataCell = new PdfPCell(DATA_TEMPLATE);
+
+        private CellFactory() {
+        }
+
+        public PdfPCell title(String text) {
+            titleCell.setPhrase(new Paragraph(text, TITLE_FONT));
+            return titleCell;
+        }
+
+        public Paragraph info(String text) {
+            return new Paragraph(text, INFO_FONT);
+        }
+
+        public PdfPCell header(String text) {
+            headerCell.setPhrase(new Paragraph(text, HEADER_FONT));
+            return headerCell;
+        }
+
+        public PdfPCell data(String text) {
+            dataCell.setPhrase(new Paragraph(text != null ? text : "", CONTENT_FONT));
+            return dataCell;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package secret.key.project.export;
+
+import secret.key.project.entity.PlatformCredential;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+//Codifica credenciales como filas CSV (RFC 4180) o NDJSON directo a UTF-8 sobre un buffer de bytes reutilizado:
+//no crea Strings, char[] ni Writers por fila, así el costo por fila es solo copiar caracteres.
+//Una instancia por exportación (no es thread-safe); el stream de destino lo cierra quien lo abrió
+public final class StreamingRowEncoder implements Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    //La escritura indivisible más larga es una fecha (10 bytes)
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    public StreamingRowEncoder(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingRowEncoder(OutputStream out, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("El buffer del encoder debe tener al menos " + MIN_BUFFER_SIZE + " bytes");
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    //CSV
+    public void csvHeader(String[] columnas) throws IOException {
+        for (int i = 0; i < columnas.length; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            csvField(columnas[i]);
+        }
+        newLine();
+    }
+
+    public void csvRow(PlatformCredential credential) throws IOException {
+        csvField(credential.getName());
+        writeByte(',');
+        csvField(credential.getUrl());
+        writeByte(',');
+        csvField(credential.getUsername());
+        writeByte(',');
+        csvField(credential.getPassword());
+        writeByte(',');
+        date(credential.getCreatedDate());
+        newLine();
+    }
+
+    //NDJSON: un objeto JSON por línea
+    public void ndjsonRow(PlatformCredential credential) throws IOException {
+        writeAscii("{\"id\":");
+        jsonString(credential.getId());
+        writeAscii(",\"name\":");
+        jsonString(credential.getName());
+        writeAscii(",\"url\":");
+        jsonString(credential.getUrl());
+        writeAscii(",\"username\":");
+        jsonString(credential.getUsername());
+        writeAscii(",\"password\":");
+        jsonString(credential.getPassword());
+        writeAscii(",\"createdDate\":");
+        if (credential.getCreatedDate() == null) {
+            writeAscii("null");
+        } else {
+            writeByte('"');
+            date(credential.getCreatedDate());
+            writeByte('"');
+        }
+        writeAscii("}\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    //Entre comillas solo si el campo lo necesita; las comillas internas se duplican
+    private void csvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsCsvQuotes(value)) {
+            writeChars(value);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+        writeByte('"');
+    }
+
+    private static boolean needsCsvQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void jsonString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writeEscape('"');
+                case '\\' -> writeEscape('\\');
+                case '\n' -> writeEscape('n');
+                case '\r' -> writeEscape('r');
+                case '\t' -> writeEscape('t');
+                case '\b' -> writeEscape('b');
+                case '\f' -> writeEscape('f');
+                default -> {
+                    if (c < 0x20) {
+                        ensure(6);
+                        buffer[position++] = '\\';
+                        buffer[position++] = 'u';
+                        buffer[position++] = '0';
+                        buffer[position++] = '0';
+                        buffer[position++] = HEX[c >> 4];
+                        buffer[position++] = HEX[c & 0xF];
+                    } else {
+                        i = writeChar(value, i);
+                    }
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) throws IOException {
+        ensure(2);
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) c;
+    }
+
+    //ISO-8601 (yyyy-MM-dd) sin pasar por DateTimeFormatter
+    private void date(LocalDate date) throws IOException {
+        if (date == null) {
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeAscii(date.toString());
+            return;
+        }
+        ensure(10);
+        buffer[position++] = (byte) ('0' + year / 1000);
+        buffer[position++] = (byte) ('0' + year / 100 % 10);
+        buffer[position++] = (byte) ('0' + year / 10 % 10);
+        buffer[position++] = (byte) ('0' + year % 10);
+        buffer[position++] = '-';
+        buffer[position++] = (byte) ('0' + date.getMonthValue() / 10);
+        buffer[position++] = (byte) ('0' + date.getMonthValue() % 10);
+        buffer[position++] = '-';
+        buffer[position++] = (byte) ('0' + date.getDayOfMonth() / 10);
+        buffer[position++] = (byte) ('0' + date.getDayOfMonth() % 10);
+    }
+
+    private void newLine() throws IOException {
+        ensure(2);
+        buffer[position++] = '\r';
+        buffer[position++] = '\n';
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeChars(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            i = writeChar(value, i);
+        }
+    }
+
+    //Escribe el carácter en UTF-8 y devuelve el último índice consumido (los pares surrogate ocupan dos)
+    private int writeChar(String value, int index) throws IOException {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            writeByte(c);
+            return index;
+        }
+        ensure(4);
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            return index;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 1;
+        }
+        if (Character.isSurrogate(c)) {
+            buffer[position++] = '?'; // surrogate suelto, igual que hace String.getBytes
+            return index;
+        }
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        return index;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,18 @@
+package secret.key.project.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//Lector por eventos: entrega cada fila apenas la lee, sin cargar el archivo completo en memoria
+public interface CredentialRowReader {
+
+    int MAX_COLUMNAS = 64;
+
+    //La primera fila entregada es la cabecera; numero es la fila del archivo empezando en 1
+    void read(InputStream in, RowHandler handler) throws IOException;
+
+    @FunctionalInterface
+    interface RowHandler {
+        void row(long numero, String[] celdas);
+    }
+}
@@ -0,0 +1,106 @@
+package secret.key.project.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+//CSV RFC 4180 en UTF-8 leído por bloques: comillas dobles, "" escapado y saltos de línea dentro de comillas.
+//El separador (coma o punto y coma, como exporta Excel en español) se toma del primero que aparece en la cabecera
+public class CsvCredentialReader implements CredentialRowReader {
+
+    private static final int BUFFER = 8192;
+    private static final int MAX_CAMPO = 65536;
+
+    @Override
+    public void read(InputStream in, RowHandler handler) throws IOException {
+
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        char[] buffer = new char[BUFFER];
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        char separador = 0;
+        boolean enComillas = false;
+        boolean cerroComillas = false;
+        boolean inicio = true;
+        long numero = 1;
+
+        int leidos;
+        while ((leidos = reader.read(buffer)) != -1) {
+            for (int i = 0; i < leidos; i++) {
+                char c = buffer[i];
+
+                if (inicio) {
+                    inicio = false;
+                    if (c == '\uFEFF') {
+                        continue; // BOM de Excel
+                    }
+                }
+
+                if (enComillas) {
+                    if (c == '"') {
+                        enComillas = false;
+                        cerroComillas = true;
+                    } else {
+                        agregar(campo, c, numero);
+                    }
+                    continue;
+                }
+
+                if (c == '"') {
+                    if (cerroComillas) {
+                        agregar(campo, '"', numero);
+                        enComillas = true;
+                    } else if (campo.length() == 0) {
+                        enComillas = true;
+                    } else {
+                        agregar(campo, c, numero);
+                    }
+                } else if (c == separador || (separador == 0 && (c == ',' || c == ';'))) {
+                    separador = c;
+                    terminarCampo(campos, campo, numero);
+                } else if (c == '\n') {
+                    terminarCampo(campos, campo, numero);
+                    emitir(handler, numero++, campos);
+                } else if (c != '\r') {
+                    agregar(campo, c, numero);
+                }
+                cerroComillas = false;
+            }
+        }
+
+        if (enComillas) {
+            throw new IOException("Comillas sin cerrar en la fila " + numero);
+        }
+        if (campo.length() > 0 || !campos.isEmpty()) {
+            terminarCampo(campos, campo, numero);
+            emitir(handler, numero, campos);
+        }
+    }
+
+    private static void agregar(StringBuilder campo, char c, long numero) throws IOException {
+        if (campo.length() >= MAX_CAMPO) {
+            throw new IOException("Campo demasiado largo en la fila " + numero);
+        }
+        campo.append(c);
+    }
+
+    private static void terminarCampo(List<String> campos, StringBuilder campo, long numero) throws IOException {
+        if (campos.size() >= MAX_COLUMNAS) {
+            throw new IOException("Demasiadas columnas en la fila " + numero);
+        }
+        campos.add(campo.toString());
+        campo.setLength(0);
+    }
+
+    //Las líneas vacías no se entregan, pero sí cuentan para el número de fila
+    private static void emitir(RowHandler handler, long numero, List<String> campos) {
+        if (!(campos.size() == 1 && campos.get(0).isEmpty())) {
+            handler.row(numero, campos.toArray(new String[0]));
+        }
+        campos.clear();
+    }
+}
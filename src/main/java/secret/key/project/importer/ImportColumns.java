@@ -0,0 +1,66 @@
+package secret.key.project.importer;
+
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.PlatformCredentialDTO;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+//Ubica las columnas por el nombre de la cabecera: acepta las exportaciones propias y las de
+//KeePass, Bitwarden y navegadores. Las columnas desconocidas se ignoran
+public final class ImportColumns {
+
+    private static final Map<String, Set<String>> ALIAS = Map.of(
+            "name", Set.of("platform", "plataforma", "name", "nombre", "title", "titulo", "título", "account"),
+            "url", Set.of("url", "login_uri", "website", "web site", "sitio"),
+            "username", Set.of("username", "user name", "login name", "login_username", "usuario", "user", "login"),
+            "password", Set.of("password", "login_password", "contraseña", "contrasena", "clave"));
+
+    private final int name;
+    private final int url;
+    private final int username;
+    private final int password;
+
+    private ImportColumns(String[] cabecera) {
+        this.name = buscar(cabecera, "name");
+        this.url = buscar(cabecera, "url");
+        this.username = buscar(cabecera, "username");
+        this.password = buscar(cabecera, "password");
+    }
+
+    public static ImportColumns from(String[] cabecera) {
+        ImportColumns columns = new ImportColumns(cabecera);
+        if (columns.name < 0) {
+            throw new IllegalArgumentException("La cabecera no tiene una columna de nombre (Platform, Name o Title)!");
+        }
+        return columns;
+    }
+
+    public PlatformCredentialDTO toDTO(String[] celdas) {
+        PlatformCredentialDTO dto = new PlatformCredentialDTO();
+        dto.setName(valor(celdas, name));
+        dto.setUrl(valor(celdas, url));
+        dto.setUsername(valor(celdas, username));
+        dto.setPassword(SecretValue.of(valor(celdas, password)));
+        return dto;
+    }
+
+    private static int buscar(String[] cabecera, String campo) {
+        Set<String> alias = ALIAS.get(campo);
+        for (int i = 0; i < cabecera.length; i++) {
+            if (cabecera[i] != null && alias.contains(cabecera[i].trim().toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String valor(String[] celdas, int indice) {
+        if (indice < 0 || indice >= celdas.length || celdas[indice] == null) {
+            return null;
+        }
+        String valor = celdas[indice].trim();
+        return valor.isEmpty() ? null : valor;
+    }
+}
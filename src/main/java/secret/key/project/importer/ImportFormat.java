@@ -0,0 +1,35 @@
+package secret.key.project.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+
+    CSV("csv"),
+    XLSX("xlsx");
+
+    private final String extension;
+
+    ImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    //Sin formato explícito se deduce por la extensión del archivo subido
+    public static ImportFormat from(String format, String fileName) {
+        String valor = format;
+        if ((valor == null || valor.isBlank()) && fileName != null && fileName.lastIndexOf('.') >= 0) {
+            valor = fileName.substring(fileName.lastIndexOf('.') + 1);
+        }
+        if (valor != null) {
+            for (ImportFormat importFormat : values()) {
+                if (importFormat.extension.equals(valor.trim().toLowerCase(Locale.ROOT))) {
+                    return importFormat;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Formato de importación no soportado: " + (valor != null ? valor : fileName) + ", usa csv o xlsx!");
+    }
+}
@@ -0,0 +1,94 @@
+package secret.key.project.importer;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.crypt.temp.AesZipFileZipEntrySource;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+//Solo la primera hoja, leída con SAX (XSSFSheetXMLHandler) en lugar de un XSSFWorkbook en memoria.
+//El zip se copia a un temporal cifrado de POI (AesZipFileZipEntrySource) para no descomprimirlo en el heap;
+//la tabla de strings compartidos sí queda en memoria (las exportaciones SXSSF usan strings en línea)
+public class XlsxCredentialReader implements CredentialRowReader {
+
+    @Override
+    public void read(InputStream in, RowHandler handler) throws IOException {
+
+        AesZipFileZipEntrySource source = AesZipFileZipEntrySource.createZipEntrySource(in);
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(source);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            Iterator<InputStream> hojas = reader.getSheetsData();
+            if (!hojas.hasNext()) {
+                throw new IOException("El archivo XLSX no tiene hojas");
+            }
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), strings,
+                        new Filas(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(hoja));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | UnsupportedFileFormatException e) {
+            throw new IOException("El archivo no es un XLSX válido: " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert(); // solo lectura: cerrar sin guardar
+            }
+            source.close();
+        }
+    }
+
+    //Arma cada fila con las celdas en su columna; las celdas vacías no llegan como evento
+    private static final class Filas implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final String[] celdas = new String[MAX_COLUMNAS];
+        private int ultima = -1;
+        private int siguiente;
+
+        private Filas(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(celdas, 0, ultima + 1, null);
+            ultima = -1;
+            siguiente = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int columna = cellReference != null ? new CellReference(cellReference).getCol() : siguiente;
+            siguiente = columna + 1;
+            if (columna < MAX_COLUMNAS) {
+                celdas[columna] = formattedValue;
+                ultima = Math.max(ultima, columna);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (ultima >= 0) {
+                handler.row(rowNum + 1L, Arrays.copyOf(celdas, ultima + 1));
+            }
+        }
+    }
+}
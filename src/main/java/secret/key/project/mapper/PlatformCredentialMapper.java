@@ -1,6 +1,9 @@
 package secret.key.project.mapper;
 
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.SecretValue;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
 import secret.key.project.entity.PlatformCredential;
 
 import java.util.List;
@@ -19,28 +22,39 @@ public class PlatformCredentialMapper {
         entity.setName(dto.getName());
         entity.setUrl(dto.getUrl());
         entity.setUsername(dto.getUsername());
-        entity.setPassword(dto.getPassword());
+        entity.setPassword(dto.getPassword() != null ? dto.getPassword().toPlainString() : null);
         entity.setCreatedDate(dto.getCreatedDate());
         return entity;
     }
 
-    public static PlatformCredentialDTO toDTO (PlatformCredential entity){
+    //El password pasa cifrado al DTO y se descifra al serializar la respuesta
+    public static PlatformCredentialDTO toDTO (PlatformCredential entity, CredentialEncryptor credentialEncryptor){
         PlatformCredentialDTO dto = new PlatformCredentialDTO();
         dto.setId(entity.getId());
         dto.setName(entity.getName());
         dto.setUrl(entity.getUrl());
         dto.setUsername(entity.getUsername());
-        dto.setPassword(entity.getPassword());
+        dto.setPassword(SecretValue.sealed(entity.getPassword(), entity.getUserId(), credentialEncryptor));
         dto.setCreatedDate(entity.getCreatedDate());
         return dto;
     }
 
-    public static List<PlatformCredentialDTO> toDTOList(List<PlatformCredential> entities) {
+    public static PlatformCredentialSummaryDTO toSummaryDTO (PlatformCredential entity){
+        PlatformCredentialSummaryDTO dto = new PlatformCredentialSummaryDTO();
+        dto.setId(entity.getId());
+        dto.setName(entity.getName());
+        dto.setUrl(entity.getUrl());
+        dto.setUsername(entity.getUsername());
+        dto.setCreatedDate(entity.getCreatedDate());
+        return dto;
+    }
+
+    public static List<PlatformCredentialDTO> toDTOList(List<PlatformCredential> entities, CredentialEncryptor credentialEncryptor) {
         if (entities == null) {
             return List.of(); // o null si lo prefieres
         }
         return entities.stream()
-                .map(PlatformCredentialMapper::toDTO)
+                .map(entity -> toDTO(entity, credentialEncryptor))
                 .collect(Collectors.toList());
     }
 }
@@ -8,12 +8,16 @@ import secret.key.project.entity.PlatformCredential;
 import java.util.List;
 import java.util.Optional;
 
-public interface PlatformCredentialRepository extends MongoRepository<PlatformCredential, String> {
+public interface PlatformCredentialRepository extends MongoRepository<PlatformCredential, String>, PlatformCredentialRepositoryCustom {
 
     Page<PlatformCredential> findByUserId (Pageable pageable, String userId);
     Optional<PlatformCredential> findByNameAndUserId (String name, String userId);
     List<PlatformCredential> findByUserId (String userId);
     Optional<PlatformCredential> findByIdAndUserId (String id, String userId);
+    //Consulta previa solo mientras user_name_idx no esté confirmado (MongoIndexConfig)
     boolean existsByUserIdAndName (String userId, String name);
+    boolean existsByUserIdAndNameAndIdNot (String userId, String name, String id);
+    boolean existsByUserId (String userId);
+    long countByUserId (String userId);
 
 }
@@ -0,0 +1,60 @@
+package secret.key.project.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import secret.key.project.entity.PlatformCredential;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+//Consultas que necesitan MongoTemplate (cursores, agregaciones)
+public interface PlatformCredentialRepositoryCustom {
+
+    //Cursor sobre las credenciales del usuario; se debe cerrar el Stream (try-with-resources)
+    Stream<PlatformCredential> streamByUserId(String userId, int batchSize);
+
+    //Las consultas "Summary" solo leen id, userId, name, url, username y createdDate: el password no sale de Mongo
+    //(llega en null) y se ahorra decodificarlo en los listados
+
+    //Página con total (countDocuments), ordenada por nombre: el endpoint paginado por número de página
+    Page<PlatformCredential> findSummaryPageByUserId(String userId, Pageable pageable);
+
+    //Slice: pide size + 1 documentos para saber si hay página siguiente, sin countDocuments
+    Slice<PlatformCredential> findSummarySliceByUserId(String userId, Pageable pageable);
+
+    //Keyset: credenciales del usuario ordenadas por nombre después de lastName, sin skip ni count.
+    //lastName nulo devuelve la primera página
+    List<PlatformCredential> findSummariesByUserIdAfter(String userId, String lastName, int limit);
+
+    //Solo el id, el userId (aad del cifrado) y el password de una credencial del usuario, para el endpoint de revelar
+    Optional<PlatformCredential> findSecretByIdAndUserId(String id, String userId);
+
+    //Reemplaza los datos de la credencial del usuario en un solo findAndModify y devuelve el documento nuevo.
+    //Vacío si no existe; un nombre repetido lanza DuplicateKeyException por el índice user_name_idx
+    Optional<PlatformCredential> updateByIdAndUserId(String id, String userId, PlatformCredential credential);
+
+    //Operaciones por lote: una sola consulta $in para validar y bulkWrite desordenado para escribir
+
+    //name -> id de las credenciales del usuario cuyo nombre está en names
+    Map<String, String> findIdsByUserIdAndNameIn(String userId, Collection<String> names);
+
+    //Ids de ids que existen y pertenecen al usuario
+    Set<String> findExistingIdsByUserId(String userId, Collection<String> ids);
+
+    //Inserta en un bulkWrite desordenado; devuelve los errores por índice de la lista (vacío si todo se escribió)
+    Map<Integer, BulkWriteError> bulkInsert(List<PlatformCredential> credentials);
+
+    //Actualiza por (id, userId) en un bulkWrite desordenado; devuelve los errores por índice de la lista
+    Map<Integer, BulkWriteError> bulkUpdate(String userId, List<PlatformCredential> credentials);
+
+    long deleteByUserIdAndIdIn(String userId, Collection<String> ids);
+
+    //Longitud máxima de name, url, username y password del usuario, calculada en Mongo
+    Map<String, Integer> findMaxFieldLengthsByUserId(String userId);
+}
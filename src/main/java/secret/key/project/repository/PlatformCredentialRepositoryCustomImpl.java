@@ -0,0 +1,205 @@
+package secret.key.project.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.entity.PlatformCredential;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class PlatformCredentialRepositoryCustomImpl implements PlatformCredentialRepositoryCustom {
+
+    private static final List<String> CAMPOS_TEXTO = List.of("name", "url", "username", "password");
+    //userId va en las proyecciones porque es parte del aad de los campos cifrados
+    private static final String[] CAMPOS_RESUMEN = {"id", "userId", "name", "url", "username", "createdDate"};
+
+    private final MongoTemplate mongoTemplate;
+    private final CredentialEncryptor credentialEncryptor;
+
+    public PlatformCredentialRepositoryCustomImpl(MongoTemplate mongoTemplate, CredentialEncryptor credentialEncryptor) {
+        this.mongoTemplate = mongoTemplate;
+        this.credentialEncryptor = credentialEncryptor;
+    }
+
+    @Override
+    public Stream<PlatformCredential> streamByUserId(String userId, int batchSize) {
+        Query query = new Query(Criteria.where("userId").is(userId)).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, PlatformCredential.class);
+    }
+
+    @Override
+    public Page<PlatformCredential> findSummaryPageByUserId(String userId, Pageable pageable) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        query.fields().include(CAMPOS_RESUMEN);
+
+        List<PlatformCredential> content = mongoTemplate.find(query, PlatformCredential.class);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(new Query(criteria), PlatformCredential.class));
+    }
+
+    //Siempre por name (lo resuelve user_name_idx): skip/limit sin orden no garantiza el mismo orden entre
+    //páginas y puede repetir u omitir filas. El orden que traiga el Pageable se ignora
+    @Override
+    public Slice<PlatformCredential> findSummarySliceByUserId(String userId, Pageable pageable) {
+        Query query = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+        query.fields().include(CAMPOS_RESUMEN);
+
+        List<PlatformCredential> content = mongoTemplate.find(query, PlatformCredential.class);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    //El índice user_name_idx {user_id, name} es único, así que el nombre ya fija la posición: el rango
+    //name > lastName con orden por name se resuelve como un seek sobre el índice (sin SORT en memoria)
+    //y cada página lee solo limit entradas. Ordenar además por _id agregaría un SORT bloqueante.
+    //Sin hint: el planner elige el índice solo, y la página no falla si el índice todavía no existe (MongoIndexConfig)
+    @Override
+    public List<PlatformCredential> findSummariesByUserIdAfter(String userId, String lastName, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (lastName != null) {
+            criteria = criteria.and("name").gt(lastName);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .limit(limit);
+        query.fields().include(CAMPOS_RESUMEN);
+        return mongoTemplate.find(query, PlatformCredential.class);
+    }
+
+    @Override
+    public Optional<PlatformCredential> findSecretByIdAndUserId(String id, String userId) {
+        Query query = new Query(Criteria.where("id").is(id).and("userId").is(userId));
+        query.fields().include("id", "userId", "password");
+        return Optional.ofNullable(mongoTemplate.findOne(query, PlatformCredential.class));
+    }
+
+    @Override
+    public Optional<PlatformCredential> updateByIdAndUserId(String id, String userId, PlatformCredential credential) {
+        Query query = new Query(Criteria.where("id").is(id).and("userId").is(userId));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, reemplazo(userId, credential),
+                FindAndModifyOptions.options().returnNew(true), PlatformCredential.class));
+    }
+
+    //Solo name e _id: el filtro y el name salen de user_name_idx
+    @Override
+    public Map<String, String> findIdsByUserIdAndNameIn(String userId, Collection<String> names) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("name").in(names));
+        query.fields().include("id", "name");
+
+        Map<String, String> ids = new HashMap<>();
+        for (PlatformCredential credential : mongoTemplate.find(query, PlatformCredential.class)) {
+            ids.put(credential.getName(), credential.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> findExistingIdsByUserId(String userId, Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids).and("userId").is(userId));
+        query.fields().include("id");
+
+        Set<String> existentes = new HashSet<>();
+        for (PlatformCredential credential : mongoTemplate.find(query, PlatformCredential.class)) {
+            existentes.add(credential.getId());
+        }
+        return existentes;
+    }
+
+    @Override
+    public Map<Integer, BulkWriteError> bulkInsert(List<PlatformCredential> credentials) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlatformCredential.class);
+        bulk.insert(credentials);
+        return ejecutar(bulk);
+    }
+
+    @Override
+    public Map<Integer, BulkWriteError> bulkUpdate(String userId, List<PlatformCredential> credentials) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlatformCredential.class);
+        for (PlatformCredential credential : credentials) {
+            bulk.updateOne(new Query(Criteria.where("id").is(credential.getId()).and("userId").is(userId)),
+                    reemplazo(userId, credential));
+        }
+        return ejecutar(bulk);
+    }
+
+    //Los Update no pasan por los callbacks de conversión, por eso los campos sensibles se cifran aquí
+    private Update reemplazo(String userId, PlatformCredential credential) {
+        return new Update()
+                .set("name", credential.getName())
+                .set("url", credentialEncryptor.encrypt(userId, CredentialEncryptor.URL, credential.getUrl()))
+                .set("username", credentialEncryptor.encrypt(userId, CredentialEncryptor.USERNAME, credential.getUsername()))
+                .set("password", credentialEncryptor.encrypt(userId, CredentialEncryptor.PASSWORD, credential.getPassword()))
+                .set("createdDate", credential.getCreatedDate());
+    }
+
+    @Override
+    public long deleteByUserIdAndIdIn(String userId, Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids).and("userId").is(userId));
+        return mongoTemplate.remove(query, PlatformCredential.class).getDeletedCount();
+    }
+
+    //En modo desordenado Mongo sigue con el resto del lote aunque falle una operación
+    private static Map<Integer, BulkWriteError> ejecutar(BulkOperations bulk) {
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, BulkWriteError> errores = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errores.put(error.getIndex(), error);
+            }
+            return errores;
+        }
+    }
+
+    @Override
+    public Map<String, Integer> findMaxFieldLengthsByUserId(String userId) {
+        Document group = new Document("_id", null);
+        for (String campo : CAMPOS_TEXTO) {
+            group.append(campo, new Document("$max",
+                    new Document("$strLenCP", new Document("$ifNull", List.of("$" + campo, "")))));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                context -> new Document("$group", group));
+
+        Document result = mongoTemplate.aggregate(aggregation, PlatformCredential.class, Document.class).getUniqueMappedResult();
+
+        Map<String, Integer> longitudes = new HashMap<>();
+        for (String campo : CAMPOS_TEXTO) {
+            int longitud = result != null && result.get(campo) != null ? ((Number) result.get(campo)).intValue() : 0;
+            longitudes.put(campo, credentialEncryptor.plainLength(campo, longitud));
+        }
+        return longitudes;
+    }
+}
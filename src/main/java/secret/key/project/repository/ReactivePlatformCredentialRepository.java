@@ -0,0 +1,25 @@
+package secret.key.project.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import secret.key.project.entity.PlatformCredential;
+
+//Variante reactiva de PlatformCredentialRepository, sobre la misma colección y entidad. Solo existe con el perfil
+//reactive: en servlet se excluye la autoconfiguración de Mongo reactivo (spring.autoconfigure.exclude)
+//Los Flux piden documentos al cursor según la demanda del suscriptor (backpressure)
+public interface ReactivePlatformCredentialRepository extends ReactiveMongoRepository<PlatformCredential, String>,
+        ReactivePlatformCredentialRepositoryCustom {
+
+    //Listado sin el password, ordenado por nombre sobre user_name_idx
+    @Query(value = "{ 'userId': ?0 }", fields = "{ 'password': 0 }", sort = "{ 'name': 1 }")
+    Flux<PlatformCredential> findSummariesByUserId(String userId);
+
+    Mono<PlatformCredential> findByNameAndUserId(String name, String userId);
+    Mono<PlatformCredential> findByIdAndUserId(String id, String userId);
+    Mono<Boolean> existsByUserId(String userId);
+    //Consulta previa solo mientras user_name_idx no esté confirmado (MongoIndexConfig)
+    Mono<Boolean> existsByUserIdAndName(String userId, String name);
+    Mono<Boolean> existsByUserIdAndNameAndIdNot(String userId, String name, String id);
+}
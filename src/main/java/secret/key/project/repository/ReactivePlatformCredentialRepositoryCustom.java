@@ -0,0 +1,19 @@
+package secret.key.project.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import secret.key.project.entity.PlatformCredential;
+
+//Consultas que necesitan ReactiveMongoTemplate, equivalentes a las de PlatformCredentialRepositoryCustom
+public interface ReactivePlatformCredentialRepositoryCustom {
+
+    //Cursor completo de las credenciales del usuario, batchSize documentos por getMore
+    Flux<PlatformCredential> streamByUserId(String userId, int batchSize);
+
+    //Solo el id, el userId (aad del cifrado) y el password de una credencial del usuario
+    Mono<PlatformCredential> findSecretByIdAndUserId(String id, String userId);
+
+    //Reemplaza los datos de la credencial en un solo findAndModify y emite el documento nuevo.
+    //Vacío si no existe; un nombre repetido termina con DuplicateKeyException por user_name_idx
+    Mono<PlatformCredential> updateByIdAndUserId(String id, String userId, PlatformCredential credential);
+}
@@ -0,0 +1,58 @@
+package secret.key.project.repository;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.ReactiveCredentialEncryptor;
+import secret.key.project.entity.PlatformCredential;
+
+public class ReactivePlatformCredentialRepositoryCustomImpl implements ReactivePlatformCredentialRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CredentialEncryptor credentialEncryptor;
+    private final ReactiveCredentialEncryptor reactiveCredentialEncryptor;
+
+    public ReactivePlatformCredentialRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate,
+                                                          CredentialEncryptor credentialEncryptor,
+                                                          ReactiveCredentialEncryptor reactiveCredentialEncryptor) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.credentialEncryptor = credentialEncryptor;
+        this.reactiveCredentialEncryptor = reactiveCredentialEncryptor;
+    }
+
+    @Override
+    public Flux<PlatformCredential> streamByUserId(String userId, int batchSize) {
+        Query query = new Query(Criteria.where("userId").is(userId)).cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, PlatformCredential.class);
+    }
+
+    @Override
+    public Mono<PlatformCredential> findSecretByIdAndUserId(String id, String userId) {
+        Query query = new Query(Criteria.where("id").is(id).and("userId").is(userId));
+        query.fields().include("id", "userId", "password");
+        return reactiveMongoTemplate.findOne(query, PlatformCredential.class);
+    }
+
+    //El Update no pasa por los callbacks de conversión: se cifra aquí, con la clave ya cargada
+    @Override
+    public Mono<PlatformCredential> updateByIdAndUserId(String id, String userId, PlatformCredential credential) {
+        Query query = new Query(Criteria.where("id").is(id).and("userId").is(userId));
+        return reactiveCredentialEncryptor.conClave(userId, () -> reemplazo(userId, credential))
+                .flatMap(update -> reactiveMongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().returnNew(true), PlatformCredential.class));
+    }
+
+    private Update reemplazo(String userId, PlatformCredential credential) {
+        return new Update()
+                .set("name", credential.getName())
+                .set("url", credentialEncryptor.encrypt(userId, CredentialEncryptor.URL, credential.getUrl()))
+                .set("username", credentialEncryptor.encrypt(userId, CredentialEncryptor.USERNAME, credential.getUsername()))
+                .set("password", credentialEncryptor.encrypt(userId, CredentialEncryptor.PASSWORD, credential.getPassword()))
+                .set("createdDate", credential.getCreatedDate());
+    }
+}
@@ -0,0 +1,7 @@
+package secret.key.project.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import secret.key.project.entity.UserDataKey;
+
+public interface UserDataKeyRepository extends MongoRepository<UserDataKey, String> {
+}
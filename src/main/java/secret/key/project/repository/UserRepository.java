@@ -1,6 +1,8 @@
 package secret.key.project.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import secret.key.project.entity.User;
 
 import java.util.Optional;
@@ -9,4 +11,18 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Optional<User> findByUsername(String username);
     boolean existsByUsername (String username);
+
+    //Solo si el hash no cambió desde que se leyó; no pisa tokenVersion ni roles
+    @Query("{ 'username': ?0, 'password': ?1 }")
+    @Update("{ '$set': { 'password': ?2 } }")
+    long updatePassword(String username, String passwordActual, String passwordNuevo);
+
+    //$inc directo en Mongo: no reescribe el usuario cacheado (ni el hash de un rehash reciente)
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$inc': { 'tokenVersion': 1 } }")
+    long incrementTokenVersion(String id);
+
+    //Solo el id y tokenVersion, para TokenVersionService
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'tokenVersion': 1 }")
+    Optional<User> findTokenVersionById(String id);
 }
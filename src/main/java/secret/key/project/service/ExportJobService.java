@@ -0,0 +1,12 @@
+package secret.key.project.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.dto.ExportJobDTO;
+import secret.key.project.export.ExportFormat;
+
+public interface ExportJobService {
+
+    ExportJobDTO crearExportacion(ExportFormat formato);
+    ExportJobDTO obtenerExportacion(String id);
+    StreamingResponseBody descargarExportacion(String id);
+}
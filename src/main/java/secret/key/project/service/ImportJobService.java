@@ -0,0 +1,11 @@
+package secret.key.project.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import secret.key.project.dto.ImportJobDTO;
+import secret.key.project.importer.ImportFormat;
+
+public interface ImportJobService {
+
+    ImportJobDTO crearImportacion(MultipartFile archivo, ImportFormat formato);
+    ImportJobDTO obtenerImportacion(String id);
+}
@@ -1,35 +1,146 @@
 package secret.key.project.service;
 
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import io.jsonwebtoken.Claims;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.entity.User;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+//Keyring de firma: jwt.keys[] (kid + secret en base64) y jwt.active-kid, la clave que firma los tokens nuevos;
+//las demás solo validan. Sin jwt.keys se usa jwt.secret con el kid jwt.kid.
+//Con jwt.keys-file el keyring sale de ese yaml (misma estructura) y se relee cada jwt.keys-reload-interval-ms:
+//todas las instancias montan el mismo archivo, así una rotación llega a todas sin reiniciar y sobrevive a los
+//reinicios. Los tokens sin kid (anteriores al keyring) se validan con la clave jwt.kid mientras siga en el keyring
 @Service
+@Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    private final Environment environment;
+
+    //Snapshot inmutable del keyring; se reemplaza completo al recargar
+    private volatile KeyRing keyRing;
+
+    //El parser es thread-safe y resuelve la clave por kid, así que se construye una sola vez
+    private JwtParser jwtParser;
+
+    //auth.jwt.parse{outcome=valid|invalid}: parseo + verificación de firma y expiración, en buckets fijos
+    private static final Duration[] PARSE_BUCKETS = {
+            Duration.ofNanos(10_000), Duration.ofNanos(25_000), Duration.ofNanos(50_000),
+            Duration.ofNanos(100_000), Duration.ofNanos(250_000), Duration.ofMillis(1)};
+    private final Timer parseValidTimer;
+    private final Timer parseInvalidTimer;
+
+    public JwtService(MeterRegistry meterRegistry, Environment environment) {
+        this.environment = environment;
+        this.parseValidTimer = parseTimer(meterRegistry, "valid");
+        this.parseInvalidTimer = parseTimer(meterRegistry, "invalid");
+    }
+
+    //Un keyring inválido al arrancar detiene la aplicación; al recargar se conserva el anterior
+    @PostConstruct
+    void init() {
+        keyRing = cargarKeyRing();
+        log.info("Keyring JWT cargado, kid activo: {}, claves aceptadas: {}", keyRing.activeKeyId, keyRing.keys.keySet());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    @Scheduled(initialDelayString = "${jwt.keys-reload-interval-ms:60000}", fixedDelayString = "${jwt.keys-reload-interval-ms:60000}")
+    public void recargarClaves() {
+        Path archivo = archivoClaves();
+        if (archivo == null) {
+            return;
+        }
+        try {
+            KeyRing nuevo = cargarKeyRing();
+            if (!nuevo.mismasClaves(keyRing)) {
+                keyRing = nuevo;
+                log.info("Keyring JWT recargado de {}, kid activo: {}, claves aceptadas: {}", archivo, nuevo.activeKeyId, nuevo.keys.keySet());
+            }
+        } catch (RuntimeException e) {
+            log.error("No se pudo recargar el keyring JWT de {}, se mantiene el actual: {}", archivo, e.getMessage());
+        }
+    }
+
+    public String getActiveKeyId() {
+        return keyRing.activeKeyId;
+    }
+
+    //Parsea y valida el token una sola vez (firma + expiración)
+    public TokenClaims parseToken(String token) {
+        final long inicio = System.nanoTime();
+        final Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            parseInvalidTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        parseValidTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        final Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return new TokenClaims(claims.getSubject(),
+                claims.get(USER_ID_CLAIM, String.class),
+                claims.getExpiration(),
+                extractRoles(claims),
+                tokenVersion != null ? tokenVersion : 0);
+    }
+
     public String extractUsername(String token){
         return extractClaim(token, Claims::getSubject);
     }
 
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return extractClaim(token, claims -> claims.get(USER_ID_CLAIM, String.class));
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -39,7 +150,12 @@ public class JwtService {
 
     public String generateToken(UserDetails userDetails, String userId) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("userId", userId);
+        extraClaims.put(USER_ID_CLAIM, userId);
+        //Roles y versión firmados en el token para poder reconstruir el principal sin consultar Mongo
+        extraClaims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        if (userDetails instanceof User user) {
+            extraClaims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
         return generateToken(extraClaims, userDetails);
     }
 
@@ -48,36 +164,142 @@ public class JwtService {
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration){
+        final KeyRing ring = keyRing;
         return Jwts.builder().setClaims(extraClaims)
+                .setHeaderParam(JwsHeader.KEY_ID, ring.activeKeyId)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(ring.activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid (String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenValidExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private boolean isTokenValidExpired (String token){
-        return extractExpiration(token).before(new Date());
+    //Valida contra claims ya parseados, sin volver a verificar la firma
+    public boolean isTokenValid (TokenClaims tokenClaims, UserDetails userDetails){
+        if (userDetails instanceof User user && tokenClaims.getTokenVersion() < user.getTokenVersion()) {
+            return false;
+        }
+        return tokenClaims.getSubject() != null
+                && tokenClaims.getSubject().equals(userDetails.getUsername())
+                && !tokenClaims.isExpired();
     }
 
-    private Date extractExpiration (String token){
-        return extractClaim (token, Claims::getExpiration);
+    //Principal construido solo con los claims firmados (modo stateless, sin password)
+    public User toPrincipal(TokenClaims tokenClaims) {
+        User user = new User();
+        user.setId(tokenClaims.getUserId());
+        user.setUsername(tokenClaims.getSubject());
+        user.setRoles(tokenClaims.getRoles());
+        user.setTokenVersion(tokenClaims.getTokenVersion());
+        return user;
     }
 
     private Claims extractAllClaims (String token){
-        return Jwts.parserBuilder().setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    private Key resolveKey(String kid) {
+        final KeyRing ring = keyRing;
+        SecretKey key = ring.keys.get(kid != null ? kid : ring.legacyKeyId);
+        if (key == null) {
+            throw new SignatureException("Clave de firma JWT desconocida: " + kid);
+        }
+        return key;
     }
 
-    private SecretKey getSignInKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.parse")
+                .description("Parseo y verificación de firma del JWT")
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(PARSE_BUCKETS)
+                .register(meterRegistry);
+    }
+
+    private KeyRing cargarKeyRing() {
+        String legacyKeyId = environment.getProperty("jwt.kid", "default");
+        Path archivo = archivoClaves();
+        Binder binder = archivo != null ? binderDeArchivo(archivo) : Binder.get(environment);
+
+        List<SigningKey> claves = binder.bind("jwt.keys", Bindable.listOf(SigningKey.class)).orElse(List.of());
+        String activeKeyId = binder.bind("jwt.active-kid", String.class).orElse(null);
+        if (claves.isEmpty() && archivo == null) {
+            claves = List.of(new SigningKey(legacyKeyId, environment.getRequiredProperty("jwt.secret")));
+        }
+        return KeyRing.of(claves, activeKeyId, legacyKeyId);
+    }
+
+    private Path archivoClaves() {
+        String ruta = environment.getProperty("jwt.keys-file");
+        return ruta == null || ruta.isBlank() ? null : Path.of(ruta);
+    }
+
+    private static Binder binderDeArchivo(Path archivo) {
+        try {
+            List<PropertySource<?>> fuentes = new YamlPropertySourceLoader().load(archivo.toString(), new FileSystemResource(archivo));
+            return new Binder(ConfigurationPropertySources.from(fuentes));
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer el keyring JWT: " + archivo, e);
+        }
+    }
+
+    private static SecretKey decodeKey(String base64Secret){
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    //Entrada de jwt.keys
+    public record SigningKey(String kid, String secret) {
+    }
+
+    private static final class KeyRing {
+
+        private final String activeKeyId;
+        private final SecretKey activeKey;
+        private final String legacyKeyId;
+        private final Map<String, SecretKey> keys;
+
+        private KeyRing(String activeKeyId, String legacyKeyId, Map<String, SecretKey> keys) {
+            this.activeKeyId = activeKeyId;
+            this.activeKey = keys.get(activeKeyId);
+            this.legacyKeyId = legacyKeyId;
+            this.keys = Collections.unmodifiableMap(keys);
+        }
+
+        //Sin active-kid solo se admite una clave, que pasa a ser la activa
+        private static KeyRing of(List<SigningKey> claves, String activeKeyId, String legacyKeyId) {
+            if (claves.isEmpty()) {
+                throw new IllegalArgumentException("El keyring JWT no tiene claves!");
+            }
+            Map<String, SecretKey> keys = new LinkedHashMap<>();
+            for (SigningKey clave : claves) {
+                if (clave.kid() == null || clave.kid().isBlank() || clave.secret() == null || clave.secret().isBlank()) {
+                    throw new IllegalArgumentException("Cada clave JWT necesita kid y secret!");
+                }
+                if (keys.put(clave.kid(), decodeKey(clave.secret())) != null) {
+                    throw new IllegalArgumentException("Kid de clave JWT repetido: " + clave.kid());
+                }
+            }
+            String activa = activeKeyId != null ? activeKeyId : (keys.size() == 1 ? keys.keySet().iterator().next() : null);
+            if (activa == null || !keys.containsKey(activa)) {
+                throw new IllegalArgumentException("jwt.active-kid debe ser uno de los kid del keyring: " + keys.keySet());
+            }
+            return new KeyRing(activa, legacyKeyId, keys);
+        }
+
+        private boolean mismasClaves(KeyRing otro) {
+            return activeKeyId.equals(otro.activeKeyId) && keys.equals(otro.keys);
+        }
+    }
 }
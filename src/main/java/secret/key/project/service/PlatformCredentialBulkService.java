@@ -0,0 +1,13 @@
+package secret.key.project.service;
+
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+
+import java.util.List;
+
+public interface PlatformCredentialBulkService {
+
+    BulkResultDTO crearPlataformas(List<PlatformCredentialDTO> plataformas);
+    BulkResultDTO actualizarPlataformas(List<PlatformCredentialDTO> plataformas);
+    BulkResultDTO eliminarPlataformas(List<String> ids);
+}
@@ -2,19 +2,35 @@ package secret.key.project.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.dto.CursorPageDTO;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.dto.SlicePageDTO;
 import secret.key.project.entity.PlatformCredential;
+import secret.key.project.export.ExportFormat;
 
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 public interface PlatformCredentialService {
 
-    Page<PlatformCredentialDTO> getPlatformCredentialByPagination(Pageable pageable);
+    Page<PlatformCredentialSummaryDTO> getPlatformCredentialByPagination(Pageable pageable);
+    SlicePageDTO<PlatformCredentialSummaryDTO> getPlatformCredentialBySlice(Pageable pageable, boolean incluirTotal);
+    CursorPageDTO<PlatformCredentialSummaryDTO> getPlatformCredentialByCursor(String cursor, int size);
+    PlatformCredentialSecretDTO revelarPassword(String id);
     PlatformCredentialDTO createPlatformCredential(PlatformCredentialDTO platformCredentialDTO);
     PlatformCredentialDTO updatePlarformCredential(PlatformCredentialDTO platformCredentialDTO, String id);
     void deletePlatformCredential(String id);
     PlatformCredentialDTO getPlatformCredentialByName (String name);
-    List<PlatformCredentialDTO> getAllPlatformCredentials();
-    byte [] exportarPlataformasExcel ();
-    byte [] exportarPlataformasPDF();
+    List<PlatformCredentialSummaryDTO> buscarPlataformas(String query, int limit);
+    List<PlatformCredentialSummaryDTO> getAllPlatformCredentials();
+    StreamingResponseBody exportarPlataformasExcel ();
+    StreamingResponseBody exportarPlataformasPDF();
+    StreamingResponseBody exportarPlataformasCsv();
+    StreamingResponseBody exportarPlataformasNdjson();
+    long contarPlataformas();
+    void exportarPlataformas(ExportFormat formato, OutputStream outputStream, LongConsumer progreso);
 }
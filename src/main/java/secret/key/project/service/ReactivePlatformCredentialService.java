@@ -0,0 +1,23 @@
+package secret.key.project.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.export.ExportFormat;
+
+//Operaciones de PlatformCredentialService para el stack reactivo (perfil reactive)
+public interface ReactivePlatformCredentialService {
+
+    Flux<PlatformCredentialSummaryDTO> listarPlataformas();
+    Mono<PlatformCredentialDTO> getPlatformCredentialByName(String name);
+    Mono<PlatformCredentialSecretDTO> revelarPassword(String id);
+    Mono<PlatformCredentialDTO> createPlatformCredential(PlatformCredentialDTO platformCredentialDTO);
+    Mono<PlatformCredentialDTO> updatePlatformCredential(PlatformCredentialDTO platformCredentialDTO, String id);
+    Mono<Void> deletePlatformCredential(String id);
+    //El Mono valida antes de empezar (404 si no hay plataformas); el Flux interno emite un buffer por lote de filas
+    Mono<Flux<DataBuffer>> exportarPlataformas(ExportFormat formato, DataBufferFactory bufferFactory);
+}
@@ -0,0 +1,74 @@
+package secret.key.project.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import secret.key.project.config.CacheLoads;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.entity.User;
+import secret.key.project.error.UsuarioException;
+import secret.key.project.repository.UserRepository;
+
+import java.time.Duration;
+
+//Invalidación de tokens por versión. La versión mínima vigente es el tokenVersion del usuario en Mongo,
+//compartido por todas las instancias; cada una lo cachea auth.token-version.ttl para no consultar Mongo por
+//request, así una revocación hecha en otra instancia se aplica aquí en a lo sumo ese tiempo
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final AsyncCache<String, Integer> minimumVersions;
+    private final Cache<String, Integer> cache;
+
+    public TokenVersionService(UserRepository userRepository, UserCache userCache,
+                               @Value("${auth.token-version.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.cache = minimumVersions.synchronous();
+    }
+
+    public boolean isCurrent(TokenClaims tokenClaims) {
+        if (tokenClaims.getUserId() == null) {
+            return true;
+        }
+        return tokenClaims.getTokenVersion() >= CacheLoads.get(minimumVersions, tokenClaims.getUserId(), this::cargarVersion);
+    }
+
+    //Para el event loop: un hit se resuelve en el mismo hilo, un miss consulta Mongo en boundedElastic
+    public Mono<Boolean> isCurrentReactive(TokenClaims tokenClaims) {
+        if (tokenClaims.getUserId() == null || cache.getIfPresent(tokenClaims.getUserId()) != null) {
+            return Mono.just(isCurrent(tokenClaims));
+        }
+        return Mono.fromCallable(() -> isCurrent(tokenClaims)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    //Invalida todos los tokens emitidos hasta ahora para el usuario. Un $inc sobre tokenVersion: guardar el
+    //User completo podría devolver a Mongo un hash ya reemplazado por el rehash del login
+    public void revokeTokens(User user) {
+        if (userRepository.incrementTokenVersion(user.getId()) == 0) {
+            log.error("No se pudieron revocar los tokens, usuario no encontrado: {}", user.getUsername());
+            throw new UsuarioException("Usuario no encontrado");
+        }
+        cache.invalidate(user.getId());
+        userCache.removeUserFromCache(user.getUsername());
+        log.info("Tokens revocados para el usuario: {}", user.getUsername());
+    }
+
+    //Sin el usuario en Mongo se toma la versión inicial (0)
+    private Integer cargarVersion(String userId) {
+        return userRepository.findTokenVersionById(userId).map(User::getTokenVersion).orElse(0);
+    }
+}
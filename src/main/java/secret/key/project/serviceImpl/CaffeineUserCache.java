@@ -0,0 +1,60 @@
+package secret.key.project.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import secret.key.project.config.CacheLoads;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+//Caché acotada (W-TinyLFU + TTL) delante de loadUserByUsername.
+//Métricas: cache.gets{result=hit|miss}, cache.evictions, cache.load.duration con cache=users
+@Component
+@Slf4j
+public class CaffeineUserCache implements UserCache {
+
+    private final AsyncCache<String, UserDetails> users;
+    private final Cache<String, UserDetails> cache;
+
+    public CaffeineUserCache(MeterRegistry meterRegistry,
+                             @Value("${auth.user-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.cache = users.synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    //Si el loader retorna null (usuario inexistente) no se guarda nada en caché.
+    //La consulta corre fuera del lock del mapa (CacheLoads), así no fija hilos virtuales
+    public UserDetails getOrLoad(String username, Function<String, UserDetails> loader) {
+        return CacheLoads.get(users, username, loader);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+        log.debug("Usuario invalidado en caché: {}", username);
+    }
+}
@@ -0,0 +1,258 @@
+package secret.key.project.serviceImpl;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+//Índice de búsqueda de la bóveda de un usuario: trigramas de name, host de la url y username -> posiciones.
+//Una consulta de 3+ caracteres intersecta las listas de sus trigramas y verifica los candidatos con contains;
+//las más cortas recorren los campos normalizados (con cientos de filas son microsegundos).
+//Inmutable: se construye una vez por snapshot de la bóveda. Si los trigramas superan el presupuesto de
+//memoria se conservan solo los campos y toda consulta recorre la lista
+final class CredentialSearchIndex {
+
+    private static final int GRAMA = 3;
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    //Overhead aproximado por trigrama (nodo del HashMap, String de la clave, cabecera del int[])
+    private static final int BYTES_POR_TRIGRAMA = 96;
+    private static final int BYTES_POR_CAMPO = 48;
+
+    //Campos normalizados por posición: 0 name, 1 host, 2 username
+    private final String[][] campos;
+    //Posiciones ordenadas por nombre y el lugar de cada posición en ese orden: ordenar resultados no compara Strings
+    private final int[] ordenPorNombre;
+    private final int[] rangoPorNombre;
+    private final Map<String, int[]> trigramas;
+    private final long memoria;
+
+    private CredentialSearchIndex(String[][] campos, Map<String, int[]> trigramas, long memoria) {
+        this.campos = campos;
+        this.trigramas = trigramas;
+        this.ordenPorNombre = new int[campos.length];
+        this.rangoPorNombre = new int[campos.length];
+        Integer[] orden = new Integer[campos.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparing(i -> campos[i][0]));
+        for (int i = 0; i < orden.length; i++) {
+            ordenPorNombre[i] = orden[i];
+            rangoPorNombre[orden[i]] = i;
+        }
+        this.memoria = memoria + 8L * campos.length;
+    }
+
+    //documentos: {name, url, username} en el orden de la bóveda; las posiciones devueltas son ese orden
+    static CredentialSearchIndex build(List<String[]> documentos, long maxBytes) {
+        String[][] campos = new String[documentos.size()][];
+        long memoriaCampos = 0;
+        Map<String, IntList> listas = new HashMap<>();
+
+        for (int i = 0; i < campos.length; i++) {
+            String[] documento = documentos.get(i);
+            campos[i] = new String[]{normalizar(documento[0]), normalizar(host(documento[1])), normalizar(documento[2])};
+            for (String campo : campos[i]) {
+                memoriaCampos += BYTES_POR_CAMPO + campo.length();
+                for (int j = 0; j + GRAMA <= campo.length(); j++) {
+                    listas.computeIfAbsent(campo.substring(j, j + GRAMA), k -> new IntList()).addUnique(i);
+                }
+            }
+        }
+
+        long memoriaTrigramas = 0;
+        for (IntList lista : listas.values()) {
+            memoriaTrigramas += BYTES_POR_TRIGRAMA + 4L * lista.size;
+        }
+        if (memoriaCampos + memoriaTrigramas > maxBytes) {
+            return new CredentialSearchIndex(campos, null, memoriaCampos);
+        }
+
+        Map<String, int[]> trigramas = new HashMap<>(listas.size() * 4 / 3 + 1);
+        listas.forEach((grama, lista) -> trigramas.put(grama, lista.toArray()));
+        return new CredentialSearchIndex(campos, trigramas, memoriaCampos + memoriaTrigramas);
+    }
+
+    //Posiciones que coinciden, ordenadas por relevancia: prefijo del nombre, nombre, prefijo de host o
+    //username, resto; a igual relevancia por nombre
+    int[] search(String query, int limit) {
+        String q = normalizar(query);
+        if (q.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        int[] candidatos = candidatos(q);
+        //Con muchos candidatos conviene recorrer en orden de nombre y cortar antes que ordenar
+        return candidatos == null || candidatos.length > campos.length / 4
+                ? recorrerPorNombre(q, limit)
+                : ordenarCandidatos(q, candidatos, limit);
+    }
+
+    long memoria() {
+        return memoria;
+    }
+
+    boolean indexado() {
+        return trigramas != null;
+    }
+
+    //Un cupo de limit por relevancia; en orden de nombre, el primero lleno de relevancia 0 ya es el resultado
+    private int[] recorrerPorNombre(String q, int limit) {
+        IntList[] cupos = {new IntList(), new IntList(), new IntList(), new IntList()};
+        for (int posicion : ordenPorNombre) {
+            int puntaje = puntaje(campos[posicion], q);
+            if (puntaje >= 0 && cupos[puntaje].size < limit) {
+                cupos[puntaje].addUnique(posicion);
+                if (puntaje == 0 && cupos[0].size == limit) {
+                    break;
+                }
+            }
+        }
+
+        int[] resultado = new int[limit];
+        int n = 0;
+        for (IntList cupo : cupos) {
+            for (int i = 0; i < cupo.size && n < limit; i++) {
+                resultado[n++] = cupo.valores[i];
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    //Pocos candidatos: clave (relevancia, rango del nombre, posición) empaquetada en un long y un sort primitivo
+    private int[] ordenarCandidatos(String q, int[] candidatos, int limit) {
+        long[] claves = new long[candidatos.length];
+        int n = 0;
+        for (int posicion : candidatos) {
+            int puntaje = puntaje(campos[posicion], q);
+            if (puntaje >= 0) {
+                claves[n++] = ((long) puntaje << 58) | ((long) rangoPorNombre[posicion] << 29) | posicion;
+            }
+        }
+        Arrays.sort(claves, 0, n);
+
+        int[] resultado = new int[Math.min(limit, n)];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = (int) (claves[i] & ((1L << 29) - 1));
+        }
+        return resultado;
+    }
+
+    //null: hay que revisar todas las posiciones (consulta corta o sin trigramas)
+    private int[] candidatos(String q) {
+        if (trigramas == null || q.length() < GRAMA) {
+            return null;
+        }
+
+        //Se intersecta empezando por la lista más corta
+        List<int[]> listas = new ArrayList<>();
+        for (int j = 0; j + GRAMA <= q.length(); j++) {
+            int[] lista = trigramas.get(q.substring(j, j + GRAMA));
+            if (lista == null) {
+                return new int[0];
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.length));
+
+        int[] resultado = listas.get(0);
+        for (int k = 1; k < listas.size() && resultado.length > 0; k++) {
+            resultado = intersectar(resultado, listas.get(k));
+        }
+        return resultado;
+    }
+
+    private static int puntaje(String[] campos, String q) {
+        String name = campos[0];
+        if (name.startsWith(q)) {
+            return 0;
+        }
+        if (name.contains(q)) {
+            return 1;
+        }
+        if (campos[1].startsWith(q) || campos[2].startsWith(q)) {
+            return 2;
+        }
+        if (campos[1].contains(q) || campos[2].contains(q)) {
+            return 3;
+        }
+        return -1;
+    }
+
+    private static int[] intersectar(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    //Minúsculas y sin acentos, así "Contraseña" encuentra "contrasena"
+    static String normalizar(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return "";
+        }
+        String minusculas = valor.strip().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < minusculas.length(); i++) {
+            if (minusculas.charAt(i) > 0x7F) {
+                return DIACRITICOS.matcher(Normalizer.normalize(minusculas, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return minusculas;
+    }
+
+    //Solo el host de la url, sin esquema, credenciales, puerto, ruta ni "www."
+    static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+        String valor = url.strip();
+        int esquema = valor.indexOf("://");
+        if (esquema >= 0) {
+            valor = valor.substring(esquema + 3);
+        }
+        int fin = valor.length();
+        for (char separador : new char[]{'/', '?', '#'}) {
+            int posicion = valor.indexOf(separador);
+            if (posicion >= 0 && posicion < fin) {
+                fin = posicion;
+            }
+        }
+        valor = valor.substring(0, fin);
+        valor = valor.substring(valor.lastIndexOf('@') + 1);
+        int puerto = valor.lastIndexOf(':');
+        if (puerto >= 0) {
+            valor = valor.substring(0, puerto);
+        }
+        return valor.regionMatches(true, 0, "www.", 0, 4) ? valor.substring(4) : valor;
+    }
+
+    //Lista de enteros sin boxing; las posiciones llegan en orden, así basta mirar la última para no repetir
+    private static final class IntList {
+
+        private int[] valores = new int[4];
+        private int size;
+
+        private void addUnique(int valor) {
+            if (size > 0 && valores[size - 1] == valor) {
+                return;
+            }
+            if (size == valores.length) {
+                valores = Arrays.copyOf(valores, size * 2);
+            }
+            valores[size++] = valor;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(valores, size);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package secret.key.project.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.config.CurrentUser;
+import secret.key.project.dto.ExportJobDTO;
+import secret.key.project.error.ExportJobNoDisponibleException;
+import secret.key.project.error.ExportJobNoEncontradoException;
+import secret.key.project.error.ExportJobRechazadoException;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+import secret.key.project.export.EncryptedTempFile;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.service.ExportJobService;
+import secret.key.project.service.PlatformCredentialService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Exportaciones asíncronas: el trabajo corre en un pool acotado propio (no en un hilo de Tomcat)
+//y el resultado se guarda en un EncryptedTempFile (AES-CTR, clave efímera por trabajo).
+//Los trabajos viven en memoria; los resultados vencidos se borran periódicamente
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private final PlatformCredentialService platformCredentialService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final int maxActivosPorUsuario;
+    private final Duration resultTtl;
+    private final Path directorio;
+
+    public ExportJobServiceImpl(PlatformCredentialService platformCredentialService,
+                                @Value("${export.jobs.threads:2}") int threads,
+                                @Value("${export.jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${export.jobs.max-active-per-user:2}") int maxActivosPorUsuario,
+                                @Value("${export.jobs.result-ttl:15m}") Duration resultTtl,
+                                @Value("${export.jobs.directory:${java.io.tmpdir}}") Path directorio) {
+        this.platformCredentialService = platformCredentialService;
+        this.maxActivosPorUsuario = maxActivosPorUsuario;
+        this.resultTtl = resultTtl;
+        this.directorio = directorio;
+
+        //Sin bean propio: así no reemplaza al applicationTaskExecutor que usa Spring MVC
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("export-job-");
+        this.executor.initialize();
+    }
+
+    @Override
+    public ExportJobDTO crearExportacion(ExportFormat formato) {
+
+        if (formato == null) {
+            log.error("El formato de exportación no puede ser nulo");
+            throw new IllegalArgumentException("El formato de exportación no puede ser nulo!");
+        }
+
+        String userId = CurrentUser.getUserId();
+        long total = platformCredentialService.contarPlataformas();
+
+        if (total == 0) {
+            log.error("Error al crear la exportación {}, el usuario: {} no tiene plataformas", formato, userId);
+            throw new PlatformCredentialNoEncontradoException("El usuario no tiene plataformas registradas para generar el " + formato + "!");
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), userId, formato, total);
+
+        //El conteo de activos y el alta deben ser atómicos para respetar el límite por usuario
+        synchronized (jobs) {
+            long activos = jobs.values().stream()
+                    .filter(j -> j.userId.equals(userId) && j.isActivo())
+                    .count();
+            if (activos >= maxActivosPorUsuario) {
+                log.warn("El usuario: {} ya tiene {} exportaciones en curso", userId, activos);
+                throw new ExportJobRechazadoException("Ya tienes " + activos + " exportaciones en curso, espera a que terminen");
+            }
+            jobs.put(job.id, job);
+        }
+
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> ejecutar(job)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            log.warn("Cola de exportaciones llena, trabajo rechazado para el usuario: {}", userId);
+            throw new ExportJobRechazadoException("Hay demasiadas exportaciones en cola, intenta más tarde");
+        }
+
+        log.info("Exportación {} en cola: {} del usuario: {}", formato, job.id, userId);
+        return toDTO(job);
+    }
+
+    @Override
+    public ExportJobDTO obtenerExportacion(String id) {
+        return toDTO(buscar(id));
+    }
+
+    @Override
+    public StreamingResponseBody descargarExportacion(String id) {
+
+        ExportJob job = buscar(id);
+
+        if (job.status != ExportJobStatus.COMPLETED) {
+            log.error("La exportación: {} no está lista, estado: {}", id, job.status);
+            throw new ExportJobNoDisponibleException("La exportación aún no está lista, estado: " + job.status);
+        }
+
+        //La descarga se registra al empezar a escribir (no al armar la respuesta): si el cliente nunca la lee
+        //el trabajo no queda retenido
+        return outputStream -> {
+            if (!job.iniciarDescarga()) {
+                log.error("La exportación: {} venció antes de empezar la descarga", id);
+                throw new ExportJobNoDisponibleException("La exportación ya no está disponible, vuelve a generarla");
+            }
+            try (InputStream in = job.archivo.openInputStream()) {
+                in.transferTo(outputStream);
+            } finally {
+                job.terminarDescarga();
+            }
+        };
+    }
+
+    //Borra los trabajos vencidos (terminados o fallidos) junto con sus archivos.
+    //Los que se están descargando se saltan y se borran en una pasada posterior
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+    public void limpiarVencidos() {
+        Instant ahora = Instant.now();
+        jobs.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(ahora) || !job.marcarEliminado()) {
+                return false;
+            }
+            borrarArchivo(job);
+            log.info("Exportación vencida eliminada: {}", job.id);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+        jobs.values().forEach(this::borrarArchivo);
+        jobs.clear();
+    }
+
+    private void ejecutar(ExportJob job) {
+
+        job.status = ExportJobStatus.RUNNING;
+        try {
+            job.archivo = EncryptedTempFile.create(directorio, "export-");
+            try (OutputStream out = job.archivo.openOutputStream()) {
+                platformCredentialService.exportarPlataformas(job.formato, out, job.processed::set);
+            }
+            job.expiresAt = Instant.now().plus(resultTtl);
+            job.status = ExportJobStatus.COMPLETED;
+            log.info("Exportación completada: {} ({} filas)", job.id, job.processed.get());
+        } catch (IOException | RuntimeException e) {
+            log.error("Hubo un error en la exportación {}: {}", job.id, e.getMessage());
+            job.error = "Error al generar la exportación: " + e.getMessage();
+        } finally {
+            //También ante un Error (OutOfMemoryError en una exportación enorme): un trabajo que quedara RUNNING
+            //sin expiresAt ocuparía un lugar de max-active-per-user y limpiarVencidos nunca lo borraría
+            if (job.status != ExportJobStatus.COMPLETED) {
+                borrarArchivo(job);
+                if (job.error == null) {
+                    job.error = "Error al generar la exportación";
+                }
+                job.expiresAt = Instant.now().plus(resultTtl);
+                job.status = ExportJobStatus.FAILED;
+            }
+        }
+    }
+
+    private void borrarArchivo(ExportJob job) {
+        if (job.archivo != null) {
+            job.archivo.delete();
+        }
+    }
+
+    //Un trabajo de otro usuario se trata como inexistente
+    private ExportJob buscar(String id) {
+        String userId = CurrentUser.getUserId();
+        ExportJob job = id != null ? jobs.get(id) : null;
+        if (job == null || !job.userId.equals(userId)) {
+            log.error("Exportación no encontrada con el id: {} para el usuario: {}", id, userId);
+            throw new ExportJobNoEncontradoException("Exportación no encontrada con el id: " + id);
+        }
+        return job;
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        long processed = job.processed.get();
+        int progress = job.status == ExportJobStatus.COMPLETED ? 100
+                : (int) Math.min(99, processed * 100 / Math.max(1, job.total));
+        return new ExportJobDTO(job.id, job.formato.name().toLowerCase(), job.status.name(), processed, job.total,
+                progress, job.createdAt, job.expiresAt, job.error);
+    }
+
+    private enum ExportJobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final class ExportJob {
+
+        private final String id;
+        private final String userId;
+        private final ExportFormat formato;
+        private final long total;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong processed = new AtomicLong();
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile EncryptedTempFile archivo;
+        private volatile Instant expiresAt;
+        private volatile String error;
+        //Descargas en curso; -1 cuando limpiarVencidos ya lo eliminó y no admite más
+        private final AtomicInteger descargas = new AtomicInteger();
+
+        private ExportJob(String id, String userId, ExportFormat formato, long total) {
+            this.id = id;
+            this.userId = userId;
+            this.formato = formato;
+            this.total = total;
+        }
+
+        private boolean isActivo() {
+            return status == ExportJobStatus.QUEUED || status == ExportJobStatus.RUNNING;
+        }
+
+        private boolean iniciarDescarga() {
+            return descargas.updateAndGet(n -> n < 0 ? n : n + 1) > 0;
+        }
+
+        private void terminarDescarga() {
+            descargas.decrementAndGet();
+        }
+
+        private boolean marcarEliminado() {
+            return descargas.compareAndSet(0, -1);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package secret.key.project.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import secret.key.project.config.CurrentUser;
+import secret.key.project.dto.BulkItemResultDTO;
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.ImportJobDTO;
+import secret.key.project.dto.ImportRejectedRowDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.error.ImportJobNoEncontradoException;
+import secret.key.project.error.ImportJobRechazadoException;
+import secret.key.project.export.EncryptedTempFile;
+import secret.key.project.importer.CredentialRowReader;
+import secret.key.project.importer.CsvCredentialReader;
+import secret.key.project.importer.ImportColumns;
+import secret.key.project.importer.ImportFormat;
+import secret.key.project.importer.XlsxCredentialReader;
+import secret.key.project.service.ImportJobService;
+import secret.key.project.service.PlatformCredentialBulkService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Importaciones asíncronas de CSV/XLSX: el archivo subido se copia a un EncryptedTempFile y un hilo del pool
+//lo recorre fila por fila. Las filas se agrupan en lotes de batchSize que se escriben con el servicio por lote
+//mientras se lee el siguiente (a lo sumo un lote en escritura por importación), así la memoria no depende del archivo
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private final PlatformCredentialBulkService platformCredentialBulkService;
+    private final ThreadPoolTaskExecutor executor;
+    private final ThreadPoolTaskExecutor writer;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final int maxActivosPorUsuario;
+    private final Duration resultTtl;
+    private final Path directorio;
+    private final int batchSize;
+    private final int maxRechazos;
+
+    public ImportJobServiceImpl(PlatformCredentialBulkService platformCredentialBulkService,
+                                @Value("${import.jobs.threads:2}") int threads,
+                                @Value("${import.jobs.queue-capacity:10}") int queueCapacity,
+                                @Value("${import.jobs.max-active-per-user:1}") int maxActivosPorUsuario,
+                                @Value("${import.jobs.result-ttl:15m}") Duration resultTtl,
+                                @Value("${import.jobs.directory:${java.io.tmpdir}}") Path directorio,
+                                @Value("${import.batch-size:500}") int batchSize,
+                                @Value("${import.max-rejected-rows:1000}") int maxRechazos) {
+        this.platformCredentialBulkService = platformCredentialBulkService;
+        this.maxActivosPorUsuario = maxActivosPorUsuario;
+        this.resultTtl = resultTtl;
+        this.directorio = directorio;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRechazos = maxRechazos;
+
+        //Sin bean propio, igual que las exportaciones asíncronas
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("import-job-");
+        this.executor.initialize();
+
+        //Un hilo de escritura por importación en curso, cada una tiene a lo sumo un lote pendiente
+        this.writer = new ThreadPoolTaskExecutor();
+        this.writer.setCorePoolSize(threads);
+        this.writer.setMaxPoolSize(threads);
+        this.writer.setThreadNamePrefix("import-write-");
+        this.writer.initialize();
+    }
+
+    @Override
+    public ImportJobDTO crearImportacion(MultipartFile archivo, ImportFormat formato) {
+
+        if (archivo == null || archivo.isEmpty()) {
+            log.error("El archivo a importar no puede ser nulo o vacio");
+            throw new IllegalArgumentException("El archivo a importar no puede ser nulo o vacio!");
+        }
+        if (formato == null) {
+            log.error("El formato de importación no puede ser nulo");
+            throw new IllegalArgumentException("El formato de importación no puede ser nulo!");
+        }
+
+        String userId = CurrentUser.getUserId();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, formato);
+
+        //El conteo de activos y el alta deben ser atómicos para respetar el límite por usuario
+        synchronized (jobs) {
+            long activos = jobs.values().stream()
+                    .filter(j -> j.userId.equals(userId) && j.isActivo())
+                    .count();
+            if (activos >= maxActivosPorUsuario) {
+                log.warn("El usuario: {} ya tiene {} importaciones en curso", userId, activos);
+                throw new ImportJobRechazadoException("Ya tienes " + activos + " importaciones en curso, espera a que terminen");
+            }
+            jobs.put(job.id, job);
+        }
+
+        //El temporal del contenedor se borra al terminar la petición, por eso se copia antes de encolar
+        try {
+            job.archivo = EncryptedTempFile.create(directorio, "import-");
+            try (InputStream in = archivo.getInputStream(); OutputStream out = job.archivo.openOutputStream()) {
+                in.transferTo(out);
+            }
+            executor.execute(new DelegatingSecurityContextRunnable(() -> ejecutar(job)));
+        } catch (IOException e) {
+            descartar(job);
+            log.error("Hubo un error al recibir el archivo a importar: {}", e.getMessage());
+            throw new UncheckedIOException("Error al recibir el archivo a importar", e);
+        } catch (TaskRejectedException e) {
+            descartar(job);
+            log.warn("Cola de importaciones llena, trabajo rechazado para el usuario: {}", userId);
+            throw new ImportJobRechazadoException("Hay demasiadas importaciones en cola, intenta más tarde");
+        }
+
+        log.info("Importación {} en cola: {} del usuario: {} ({} bytes)", formato, job.id, userId, archivo.getSize());
+        return toDTO(job);
+    }
+
+    @Override
+    public ImportJobDTO obtenerImportacion(String id) {
+        String userId = CurrentUser.getUserId();
+        ImportJob job = id != null ? jobs.get(id) : null;
+        //Un trabajo de otro usuario se trata como inexistente
+        if (job == null || !job.userId.equals(userId)) {
+            log.error("Importación no encontrada con el id: {} para el usuario: {}", id, userId);
+            throw new ImportJobNoEncontradoException("Importación no encontrada con el id: " + id);
+        }
+        return toDTO(job);
+    }
+
+    //Borra de memoria el resumen de las importaciones vencidas
+    @Scheduled(fixedDelayString = "${import.jobs.cleanup-interval-ms:60000}")
+    public void limpiarVencidos() {
+        Instant ahora = Instant.now();
+        jobs.values().removeIf(job -> job.expiresAt != null && !job.expiresAt.isAfter(ahora));
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+        writer.shutdown();
+        jobs.values().forEach(this::borrarArchivo);
+        jobs.clear();
+    }
+
+    private void ejecutar(ImportJob job) {
+
+        job.status = ImportJobStatus.RUNNING;
+        Pipeline pipeline = new Pipeline(job);
+        try {
+            try (InputStream in = job.archivo.openInputStream()) {
+                lector(job.formato).read(in, pipeline::fila);
+            }
+            pipeline.terminar();
+            terminar(job, ImportJobStatus.COMPLETED, null);
+            log.info("Importación completada: {} ({} importadas, {} rechazadas)", job.id, job.imported.get(), job.rejected.get());
+        } catch (IOException | RuntimeException e) {
+            pipeline.esperarPendiente();
+            log.error("Hubo un error en la importación {}: {}", job.id, e.getMessage());
+            terminar(job, ImportJobStatus.FAILED, "Error al importar el archivo: " + e.getMessage());
+        }
+    }
+
+    //El estado se publica al final, cuando el temporal ya no existe y el resumen está completo
+    private void terminar(ImportJob job, ImportJobStatus status, String error) {
+        borrarArchivo(job);
+        job.error = error;
+        job.expiresAt = Instant.now().plus(resultTtl);
+        job.status = status;
+    }
+
+    private static CredentialRowReader lector(ImportFormat formato) {
+        return switch (formato) {
+            case CSV -> new CsvCredentialReader();
+            case XLSX -> new XlsxCredentialReader();
+        };
+    }
+
+    //Escribe un lote con el servicio por lote y pasa sus rechazos a número de fila del archivo
+    private void escribir(ImportJob job, Lote lote) {
+        BulkResultDTO result = platformCredentialBulkService.crearPlataformas(lote.plataformas);
+        for (BulkItemResultDTO item : result.getItems()) {
+            if (BulkItemResultDTO.CREATED.equals(item.getStatus())) {
+                job.imported.incrementAndGet();
+            } else {
+                job.rechazar(lote.filas.get(item.getIndex()), item.getName(), item.getMessage());
+            }
+        }
+    }
+
+    private void descartar(ImportJob job) {
+        jobs.remove(job.id);
+        borrarArchivo(job);
+    }
+
+    private void borrarArchivo(ImportJob job) {
+        if (job.archivo != null) {
+            job.archivo.delete();
+        }
+    }
+
+    private ImportJobDTO toDTO(ImportJob job) {
+        List<ImportRejectedRowDTO> rechazos;
+        synchronized (job.rejectedRows) {
+            rechazos = List.copyOf(job.rejectedRows);
+        }
+        return new ImportJobDTO(job.id, job.formato.name().toLowerCase(), job.status.name(), job.processed.get(),
+                job.imported.get(), job.rejected.get(), rechazos, job.createdAt, job.expiresAt, job.error);
+    }
+
+    private enum ImportJobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    //Estado de lectura de una importación: la cabecera, el lote que se está llenando y el que se está escribiendo
+    private final class Pipeline {
+
+        private final ImportJob job;
+        private ImportColumns columns;
+        private Lote lote;
+        private Future<?> pendiente;
+
+        private Pipeline(ImportJob job) {
+            this.job = job;
+            this.lote = new Lote(batchSize);
+        }
+
+        private void fila(long numero, String[] celdas) {
+            if (columns == null) {
+                columns = ImportColumns.from(celdas);
+                return;
+            }
+            PlatformCredentialDTO dto = columns.toDTO(celdas);
+            if (dto.getName() == null && dto.getUrl() == null && dto.getUsername() == null && dto.getPassword() == null) {
+                return; // fila sin datos
+            }
+            job.processed.incrementAndGet();
+            if (dto.getName() == null) {
+                job.rechazar(numero, null, "El nombre no puede ser nulo o vacio!");
+                return;
+            }
+            lote.agregar(numero, dto);
+            if (lote.filas.size() >= batchSize) {
+                enviar();
+            }
+        }
+
+        //Antes de enviar un lote se espera al anterior: así los nombres del lote previo ya están en Mongo
+        //para la validación $in del siguiente y nunca hay más de dos lotes en memoria
+        private void enviar() {
+            esperar();
+            Lote enviado = lote;
+            lote = new Lote(batchSize);
+            pendiente = writer.submit(new DelegatingSecurityContextRunnable(() -> escribir(job, enviado)));
+        }
+
+        private void terminar() {
+            if (columns == null) {
+                throw new IllegalArgumentException("El archivo no tiene cabecera!");
+            }
+            if (!lote.filas.isEmpty()) {
+                enviar();
+            }
+            esperar();
+        }
+
+        private void esperar() {
+            if (pendiente == null) {
+                return;
+            }
+            try {
+                pendiente.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Importación interrumpida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error al escribir un lote: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pendiente = null;
+            }
+        }
+
+        //Ante un error de lectura se deja terminar el lote en escritura para que el resumen sea exacto
+        private void esperarPendiente() {
+            try {
+                esperar();
+            } catch (RuntimeException e) {
+                log.warn("El último lote de la importación {} también falló: {}", job.id, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Lote {
+
+        private final List<Long> filas;
+        private final List<PlatformCredentialDTO> plataformas;
+
+        private Lote(int capacidad) {
+            this.filas = new ArrayList<>(capacidad);
+            this.plataformas = new ArrayList<>(capacidad);
+        }
+
+        private void agregar(long numero, PlatformCredentialDTO dto) {
+            filas.add(numero);
+            plataformas.add(dto);
+        }
+    }
+
+    private final class ImportJob {
+
+        private final String id;
+        private final String userId;
+        private final ImportFormat formato;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<ImportRejectedRowDTO> rejectedRows = new ArrayList<>();
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile EncryptedTempFile archivo;
+        private volatile Instant expiresAt;
+        private volatile String error;
+
+        private ImportJob(String id, String userId, ImportFormat formato) {
+            this.id = id;
+            this.userId = userId;
+            this.formato = formato;
+        }
+
+        private boolean isActivo() {
+            return status == ImportJobStatus.QUEUED || status == ImportJobStatus.RUNNING;
+        }
+
+        //Se cuentan todos los rechazos pero solo se guarda el detalle de los primeros maxRechazos
+        private void rechazar(long fila, String name, String motivo) {
+            rejected.incrementAndGet();
+            synchronized (rejectedRows) {
+                if (rejectedRows.size() < maxRechazos) {
+                    rejectedRows.add(new ImportRejectedRowDTO(fila, name, motivo));
+                }
+            }
+        }
+    }
+}
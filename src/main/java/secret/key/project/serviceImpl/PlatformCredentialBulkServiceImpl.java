@@ -0,0 +1,319 @@
+package secret.key.project.serviceImpl;
+
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import secret.key.project.config.CurrentUser;
+import secret.key.project.dto.BulkItemResultDTO;
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.mapper.PlatformCredentialMapper;
+import secret.key.project.repository.PlatformCredentialRepository;
+import secret.key.project.service.PlatformCredentialBulkService;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+//Altas, cambios y bajas por lote: las colisiones se validan con una sola consulta $in por operación
+//y las escrituras van en bulkWrite desordenados de batchSize elementos, hasta parallelism lotes a la vez.
+//Cada elemento devuelve su propio resultado; un error en uno no cancela el resto
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class PlatformCredentialBulkServiceImpl implements PlatformCredentialBulkService {
+
+    private static final int CODIGO_CLAVE_DUPLICADA = 11000;
+
+    private final PlatformCredentialRepository platformCredentialRepository;
+    private final PlatformCredentialCache platformCredentialCache;
+    private final ThreadPoolTaskExecutor executor;
+    private final int batchSize;
+    private final int maxItems;
+
+    public PlatformCredentialBulkServiceImpl(PlatformCredentialRepository platformCredentialRepository,
+                                             PlatformCredentialCache platformCredentialCache,
+                                             @Value("${bulk.batch-size:500}") int batchSize,
+                                             @Value("${bulk.parallelism:2}") int parallelism,
+                                             @Value("${bulk.max-items:5000}") int maxItems) {
+        this.platformCredentialRepository = platformCredentialRepository;
+        this.platformCredentialCache = platformCredentialCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxItems = maxItems;
+
+        //Sin bean propio, igual que las exportaciones asíncronas
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(Math.max(1, parallelism));
+        this.executor.setMaxPoolSize(Math.max(1, parallelism));
+        this.executor.setThreadNamePrefix("bulk-write-");
+        this.executor.initialize();
+    }
+
+    @Override
+    public BulkResultDTO crearPlataformas(List<PlatformCredentialDTO> plataformas) {
+
+        validarLote(plataformas);
+        String userId = CurrentUser.getUserId();
+        BulkItemResultDTO[] resultados = new BulkItemResultDTO[plataformas.size()];
+
+        //Nombres vacíos o repetidos dentro del mismo lote
+        Set<String> nombresLote = new HashSet<>();
+        for (int i = 0; i < plataformas.size(); i++) {
+            PlatformCredentialDTO dto = plataformas.get(i);
+            if (dto == null || dto.getName() == null || dto.getName().isBlank()) {
+                resultados[i] = resultado(i, null, null, BulkItemResultDTO.INVALID, "El nombre no puede ser nulo o vacio!");
+            } else if (!nombresLote.add(dto.getName())) {
+                resultados[i] = resultado(i, null, dto.getName(), BulkItemResultDTO.CONFLICT, "Nombre repetido en el lote: " + dto.getName());
+            }
+        }
+
+        Map<String, String> existentes = nombresLote.isEmpty() ? Map.of()
+                : platformCredentialRepository.findIdsByUserIdAndNameIn(userId, nombresLote);
+
+        List<Pendiente> pendientes = new ArrayList<>();
+        for (int i = 0; i < plataformas.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            PlatformCredentialDTO dto = plataformas.get(i);
+            if (existentes.containsKey(dto.getName())) {
+                resultados[i] = resultado(i, null, dto.getName(), BulkItemResultDTO.CONFLICT,
+                        "Ya existe una plataforma registrada con el nombre: " + dto.getName());
+                continue;
+            }
+            PlatformCredential entity = PlatformCredentialMapper.toEntity(dto);
+            entity.setId(new ObjectId().toHexString()); // el id se asigna antes para poder reportarlo por elemento
+            entity.setUserId(userId);
+            entity.setCreatedDate(LocalDate.now());
+            pendientes.add(new Pendiente(i, entity));
+        }
+
+        escribirEnLotes(pendientes, resultados, lote -> platformCredentialRepository.bulkInsert(entidades(lote)),
+                BulkItemResultDTO.CREATED);
+
+        platformCredentialCache.invalidate(userId);
+        return resumen("Alta", userId, resultados);
+    }
+
+    @Override
+    public BulkResultDTO actualizarPlataformas(List<PlatformCredentialDTO> plataformas) {
+
+        validarLote(plataformas);
+        String userId = CurrentUser.getUserId();
+        BulkItemResultDTO[] resultados = new BulkItemResultDTO[plataformas.size()];
+
+        Set<String> idsLote = new HashSet<>();
+        Set<String> nombresLote = new HashSet<>();
+        for (int i = 0; i < plataformas.size(); i++) {
+            PlatformCredentialDTO dto = plataformas.get(i);
+            if (dto == null || dto.getId() == null || dto.getName() == null || dto.getName().isBlank()) {
+                resultados[i] = resultado(i, dto != null ? dto.getId() : null, null, BulkItemResultDTO.INVALID,
+                        "El id y el nombre no pueden ser nulos o vacios!");
+            } else if (!idsLote.add(dto.getId())) {
+                resultados[i] = resultado(i, dto.getId(), dto.getName(), BulkItemResultDTO.CONFLICT, "Id repetido en el lote: " + dto.getId());
+            } else if (!nombresLote.add(dto.getName())) {
+                resultados[i] = resultado(i, dto.getId(), dto.getName(), BulkItemResultDTO.CONFLICT, "Nombre repetido en el lote: " + dto.getName());
+            }
+        }
+
+        Set<String> idsExistentes = idsLote.isEmpty() ? Set.of()
+                : platformCredentialRepository.findExistingIdsByUserId(userId, idsLote);
+        Map<String, String> duenosNombre = nombresLote.isEmpty() ? Map.of()
+                : platformCredentialRepository.findIdsByUserIdAndNameIn(userId, nombresLote);
+
+        List<Pendiente> pendientes = new ArrayList<>();
+        for (int i = 0; i < plataformas.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            PlatformCredentialDTO dto = plataformas.get(i);
+            String dueno = duenosNombre.get(dto.getName());
+            if (!idsExistentes.contains(dto.getId())) {
+                resultados[i] = resultado(i, dto.getId(), dto.getName(), BulkItemResultDTO.NOT_FOUND,
+                        "Plataforma no encontrada con el id: " + dto.getId());
+            } else if (dueno != null && !dueno.equals(dto.getId())) {
+                resultados[i] = resultado(i, dto.getId(), dto.getName(), BulkItemResultDTO.CONFLICT,
+                        "Ya existe una plataforma registrada con el nombre: " + dto.getName());
+            } else {
+                PlatformCredential entity = PlatformCredentialMapper.toEntity(dto);
+                entity.setUserId(userId);
+                entity.setCreatedDate(LocalDate.now());
+                pendientes.add(new Pendiente(i, entity));
+            }
+        }
+
+        escribirEnLotes(pendientes, resultados, lote -> platformCredentialRepository.bulkUpdate(userId, entidades(lote)),
+                BulkItemResultDTO.UPDATED);
+
+        platformCredentialCache.invalidate(userId);
+        return resumen("Actualización", userId, resultados);
+    }
+
+    @Override
+    public BulkResultDTO eliminarPlataformas(List<String> ids) {
+
+        validarLote(ids);
+        String userId = CurrentUser.getUserId();
+        BulkItemResultDTO[] resultados = new BulkItemResultDTO[ids.size()];
+
+        Set<String> idsLote = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            if (id == null || id.isBlank()) {
+                resultados[i] = resultado(i, id, null, BulkItemResultDTO.INVALID, "El id no puede ser nulo!!");
+            } else if (!idsLote.add(id)) {
+                resultados[i] = resultado(i, id, null, BulkItemResultDTO.CONFLICT, "Id repetido en el lote: " + id);
+            }
+        }
+
+        Set<String> idsExistentes = idsLote.isEmpty() ? Set.of()
+                : platformCredentialRepository.findExistingIdsByUserId(userId, idsLote);
+
+        List<Pendiente> pendientes = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            if (!idsExistentes.contains(ids.get(i))) {
+                resultados[i] = resultado(i, ids.get(i), null, BulkItemResultDTO.NOT_FOUND, "Plataforma no encontrada con el id: " + ids.get(i));
+            } else {
+                PlatformCredential entity = new PlatformCredential();
+                entity.setId(ids.get(i));
+                pendientes.add(new Pendiente(i, entity));
+            }
+        }
+
+        //Un deleteMany por lote; lo que ya no exista al borrar simplemente no cuenta
+        escribirEnLotes(pendientes, resultados, lote -> {
+            platformCredentialRepository.deleteByUserIdAndIdIn(userId, lote.stream().map(p -> p.entity.getId()).toList());
+            return Map.of();
+        }, BulkItemResultDTO.DELETED);
+
+        platformCredentialCache.invalidate(userId);
+        return resumen("Eliminación", userId, resultados);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+
+    private void validarLote(List<?> lote) {
+        if (lote == null || lote.isEmpty()) {
+            log.error("El lote de plataformas no puede ser nulo o vacio");
+            throw new IllegalArgumentException("El lote de plataformas no puede ser nulo o vacio!");
+        }
+        if (lote.size() > maxItems) {
+            log.error("El lote de plataformas supera el máximo: {} > {}", lote.size(), maxItems);
+            throw new IllegalArgumentException("El lote no puede tener más de " + maxItems + " plataformas!");
+        }
+    }
+
+    //Parte los pendientes en lotes de batchSize y los escribe en el pool; cada lote marca solo sus posiciones
+    private void escribirEnLotes(List<Pendiente> pendientes, BulkItemResultDTO[] resultados,
+                                 LoteWriter writer, String estadoOk) {
+
+        List<List<Pendiente>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < pendientes.size(); desde += batchSize) {
+            lotes.add(pendientes.subList(desde, Math.min(desde + batchSize, pendientes.size())));
+        }
+
+        Consumer<List<Pendiente>> tarea = lote -> {
+            Map<Integer, BulkWriteError> errores;
+            try {
+                errores = writer.escribir(lote);
+            } catch (DataAccessException e) {
+                log.error("Hubo un error al escribir un lote de {} plataformas: {}", lote.size(), e.getMessage());
+                errores = null;
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                Pendiente pendiente = lote.get(i);
+                BulkWriteError error = errores != null ? errores.get(i) : null;
+                if (errores == null) {
+                    resultados[pendiente.index] = resultado(pendiente, BulkItemResultDTO.FAILED, "Error al escribir el lote");
+                } else if (error == null) {
+                    resultados[pendiente.index] = resultado(pendiente, estadoOk, null);
+                } else if (error.getCode() == CODIGO_CLAVE_DUPLICADA) {
+                    resultados[pendiente.index] = resultado(pendiente, BulkItemResultDTO.CONFLICT,
+                            "Ya existe una plataforma registrada con el nombre: " + pendiente.entity.getName());
+                } else {
+                    resultados[pendiente.index] = resultado(pendiente, BulkItemResultDTO.FAILED, error.getMessage());
+                }
+            }
+        };
+
+        if (lotes.size() <= 1) {
+            lotes.forEach(tarea);
+            return;
+        }
+
+        List<Future<?>> futuros = new ArrayList<>(lotes.size());
+        for (List<Pendiente> lote : lotes) {
+            futuros.add(executor.submit(() -> tarea.accept(lote)));
+        }
+        for (Future<?> futuro : futuros) {
+            try {
+                futuro.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Operación por lote interrumpida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error en la operación por lote: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private BulkResultDTO resumen(String operacion, String userId, BulkItemResultDTO[] resultados) {
+        int ok = 0;
+        for (BulkItemResultDTO resultado : resultados) {
+            if (BulkItemResultDTO.CREATED.equals(resultado.getStatus()) || BulkItemResultDTO.UPDATED.equals(resultado.getStatus())
+                    || BulkItemResultDTO.DELETED.equals(resultado.getStatus())) {
+                ok++;
+            }
+        }
+        log.info("{} por lote del usuario: {}, correctas: {}, fallidas: {}", operacion, userId, ok, resultados.length - ok);
+        return new BulkResultDTO(resultados.length, ok, resultados.length - ok, Arrays.asList(resultados));
+    }
+
+    private static List<PlatformCredential> entidades(List<Pendiente> lote) {
+        List<PlatformCredential> entidades = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            entidades.add(pendiente.entity);
+        }
+        return entidades;
+    }
+
+    private static BulkItemResultDTO resultado(int index, String id, String name, String status, String mensaje) {
+        return new BulkItemResultDTO(index, id, name, status, mensaje);
+    }
+
+    private static BulkItemResultDTO resultado(Pendiente pendiente, String status, String mensaje) {
+        return new BulkItemResultDTO(pendiente.index, pendiente.entity.getId(), pendiente.entity.getName(), status, mensaje);
+    }
+
+    @FunctionalInterface
+    private interface LoteWriter {
+        Map<Integer, BulkWriteError> escribir(List<Pendiente> lote);
+    }
+
+    //Elemento válido listo para escribir, con su posición en la petición
+    private static final class Pendiente {
+
+        private final int index;
+        private final PlatformCredential entity;
+
+        private Pendiente(int index, PlatformCredential entity) {
+            this.index = index;
+            this.entity = entity;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package secret.key.project.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import secret.key.project.config.CacheLoads;
+import secret.key.project.entity.PlatformCredential;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+//Caché read-through por userId de la bóveda de credenciales (lista + índice por nombre).
+//Las escrituras del servicio la actualizan write-through. Cada bóveda vence a los ttl de haberse cargado de Mongo,
+//aunque se siga leyendo o escribiendo: acota lo que tarda en verse un cambio hecho desde otra instancia.
+//Los passwords se guardan tal como salen de Mongo, cifrados con la clave de datos del usuario
+//(CredentialEncryptor): la caché no descifra ni vuelve a cifrar.
+//La bóveda también sirve la búsqueda: el índice de trigramas se arma en la primera búsqueda sobre cada
+//snapshot y su tamaño entra en el peso de la entrada, así cuenta para max-memory.
+//Métricas: cache.gets{result=hit|miss}, cache.evictions, cache.size con cache=platform-credentials y
+//credential.search (p50/p99 de la búsqueda en memoria)
+@Component
+@Slf4j
+public class PlatformCredentialCache {
+
+    //Overhead aproximado por credencial (objetos, cabeceras, referencias del índice)
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    //Asíncronas solo para cargar los miss fuera del lock (CacheLoads); el resto usa la vista síncrona
+    private final AsyncCache<String, UserVault> vaults;
+    private final Cache<String, UserVault> cache;
+    //Total de credenciales por usuario cuando la bóveda no está cargada; se invalida en cada escritura
+    private final AsyncCache<String, Long> asyncCounts;
+    private final Cache<String, Long> counts;
+    private final Timer searchTimer;
+
+    //Presupuesto del índice de búsqueda por usuario; por encima se busca recorriendo la bóveda
+    @Value("${credential-cache.search.max-index-memory-per-user:2MB}")
+    private DataSize maxIndexMemoryPerUser = DataSize.ofMegabytes(2);
+
+    public PlatformCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${credential-cache.max-memory:64MB}") DataSize maxMemory,
+                                   @Value("${credential-cache.ttl:10m}") Duration ttl) {
+        this.vaults = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String userId, UserVault vault) -> vault.weight)
+                //Como expireAfterWrite, pero el write-through y el índice de búsqueda no reinician el plazo
+                .expireAfter(Expiry.creating((String userId, UserVault vault) -> ttl))
+                .recordStats()
+                .buildAsync();
+        this.cache = vaults.synchronous();
+        this.asyncCounts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.counts = asyncCounts.synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, vaults, "platform-credentials");
+        this.searchTimer = Timer.builder("credential.search")
+                .description("Búsqueda de credenciales en la bóveda en memoria")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    //Lista completa del usuario; en un miss se carga con el loader y se guarda en caché
+    public List<PlatformCredential> getAll(String userId, Supplier<List<PlatformCredential>> loader) {
+        UserVault vault = CacheLoads.get(vaults, userId, key -> new UserVault(toCachedAll(loader.get())));
+        return toEntities(vault.byId.values());
+    }
+
+    //Búsqueda por prefijo o subcadena en name, host de la url y username; carga la bóveda como getAll
+    public List<PlatformCredential> search(String userId, String query, int limit, Supplier<List<PlatformCredential>> loader) {
+        UserVault vault = CacheLoads.get(vaults, userId, key -> new UserVault(toCachedAll(loader.get())));
+        return searchTimer.record(() -> {
+            UserVault indexada = vault.index != null ? vault : indexar(userId, vault);
+            int[] posiciones = indexada.index.search(query, limit);
+            List<PlatformCredential> result = new ArrayList<>(posiciones.length);
+            for (int posicion : posiciones) {
+                result.add(toEntity(indexada.ordered[posicion]));
+            }
+            return result;
+        });
+    }
+
+    //Si otra escritura reemplazó la bóveda mientras tanto, el índice sirve igual para esta consulta
+    private UserVault indexar(String userId, UserVault vault) {
+        UserVault indexada = vault.withIndex(maxIndexMemoryPerUser.toBytes());
+        cache.asMap().replace(userId, vault, indexada);
+        if (!indexada.index.indexado()) {
+            log.warn("El índice de búsqueda del usuario {} supera {}, se busca recorriendo la bóveda", userId, maxIndexMemoryPerUser);
+        }
+        return indexada;
+    }
+
+    //Lista del usuario solo si ya está en caché (no consulta Mongo ni puebla la caché)
+    public Optional<List<PlatformCredential>> peekAll(String userId) {
+        UserVault vault = cache.getIfPresent(userId);
+        return vault != null ? Optional.of(toEntities(vault.byId.values())) : Optional.empty();
+    }
+
+    //Búsqueda por nombre: si la bóveda está en caché es autoritativa, si no se usa el loader sin poblarla
+    public Optional<PlatformCredential> findByName(String userId, String name, Supplier<Optional<PlatformCredential>> loader) {
+        UserVault vault = cache.getIfPresent(userId);
+        if (vault == null) {
+            return loader.get();
+        }
+        CachedCredential cached = vault.byName.get(name);
+        return cached != null ? Optional.of(toEntity(cached)) : Optional.empty();
+    }
+
+    //Total del usuario: el tamaño de la bóveda si está en caché, si no el loader (un count) cacheado aparte
+    public long count(String userId, LongSupplier loader) {
+        UserVault vault = cache.getIfPresent(userId);
+        if (vault != null) {
+            return vault.byId.size();
+        }
+        return CacheLoads.get(asyncCounts, userId, key -> loader.getAsLong());
+    }
+
+    //Write-through tras crear o actualizar; solo actúa si la bóveda del usuario ya está en caché
+    public void put(String userId, PlatformCredential credential) {
+        CachedCredential cached = toCached(credential);
+        cache.asMap().computeIfPresent(userId, (key, vault) -> vault.with(cached));
+        counts.invalidate(userId);
+    }
+
+    public void remove(String userId, String credentialId) {
+        cache.asMap().computeIfPresent(userId, (key, vault) -> vault.without(credentialId));
+        counts.invalidate(userId);
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+        counts.invalidate(userId);
+    }
+
+    private List<CachedCredential> toCachedAll(List<PlatformCredential> credentials) {
+        List<CachedCredential> result = new ArrayList<>(credentials.size());
+        for (PlatformCredential credential : credentials) {
+            result.add(toCached(credential));
+        }
+        return result;
+    }
+
+    private List<PlatformCredential> toEntities(Collection<CachedCredential> cachedCredentials) {
+        List<PlatformCredential> result = new ArrayList<>(cachedCredentials.size());
+        for (CachedCredential cached : cachedCredentials) {
+            result.add(toEntity(cached));
+        }
+        return result;
+    }
+
+    private static CachedCredential toCached(PlatformCredential credential) {
+        return new CachedCredential(credential.getId(), credential.getUserId(), credential.getName(),
+                credential.getUrl(), credential.getUsername(), credential.getPassword(), credential.getCreatedDate());
+    }
+
+    //Copia nueva por lectura: quien la recibe puede modificarla sin tocar la caché
+    private static PlatformCredential toEntity(CachedCredential cached) {
+        return new PlatformCredential(cached.id, cached.userId, cached.name, cached.url, cached.username, cached.password, cached.createdDate);
+    }
+
+    private static final class CachedCredential {
+
+        private final String id;
+        private final String userId;
+        private final String name;
+        private final String url;
+        private final String username;
+        private final String password;
+        private final LocalDate createdDate;
+        private final int weight;
+
+        private CachedCredential(String id, String userId, String name, String url, String username,
+                                 String password, LocalDate createdDate) {
+            this.id = id;
+            this.userId = userId;
+            this.name = name;
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.createdDate = createdDate;
+            this.weight = ENTRY_OVERHEAD_BYTES
+                    + 2 * (length(id) + length(userId) + length(name) + length(url) + length(username) + length(password));
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+
+    //Snapshot inmutable: cada escritura crea una copia, así las lecturas no necesitan locks
+    private static final class UserVault {
+
+        private final Map<String, CachedCredential> byId;
+        private final Map<String, CachedCredential> byName;
+        //Mismo orden que byId: las posiciones del índice de búsqueda apuntan aquí
+        private final CachedCredential[] ordered;
+        //null hasta la primera búsqueda sobre este snapshot
+        private final CredentialSearchIndex index;
+        private final int weight;
+
+        private UserVault(Collection<CachedCredential> credentials) {
+            Map<String, CachedCredential> ids = new LinkedHashMap<>();
+            Map<String, CachedCredential> names = new HashMap<>();
+            int total = ENTRY_OVERHEAD_BYTES;
+            for (CachedCredential credential : credentials) {
+                ids.put(credential.id, credential);
+                names.put(credential.name, credential);
+                total += credential.weight;
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.ordered = ids.values().toArray(new CachedCredential[0]);
+            this.index = null;
+            this.weight = total;
+        }
+
+        private UserVault(UserVault vault, CredentialSearchIndex index) {
+            this.byId = vault.byId;
+            this.byName = vault.byName;
+            this.ordered = vault.ordered;
+            this.index = index;
+            this.weight = (int) Math.min(Integer.MAX_VALUE, vault.weight + index.memoria());
+        }
+
+        private UserVault withIndex(long maxBytes) {
+            List<String[]> documentos = new ArrayList<>(ordered.length);
+            for (CachedCredential credential : ordered) {
+                documentos.add(new String[]{credential.name, credential.url, credential.username});
+            }
+            return new UserVault(this, CredentialSearchIndex.build(documentos, maxBytes));
+        }
+
+        private UserVault with(CachedCredential credential) {
+            Map<String, CachedCredential> copy = new LinkedHashMap<>(byId);
+            copy.put(credential.id, credential);
+            return new UserVault(copy.values());
+        }
+
+        private UserVault without(String credentialId) {
+            if (!byId.containsKey(credentialId)) {
+                return this;
+            }
+            Map<String, CachedCredential> copy = new LinkedHashMap<>(byId);
+            copy.remove(credentialId);
+            return new UserVault(copy.values());
+        }
+    }
+}
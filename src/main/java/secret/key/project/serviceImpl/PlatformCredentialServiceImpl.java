@@ -1,105 +1,213 @@
 package secret.key.project.serviceImpl;
 
-import java.awt.Color;
-
 import com.lowagie.text.*;
-import com.lowagie.text.Font;
-import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.poifs.crypt.temp.SXSSFWorkbookWithCustomZipEntrySource;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.cglib.core.Local;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.config.CurrentUser;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.FieldCipher;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.CursorPageDTO;
+import secret.key.project.dto.KeysetCursor;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.dto.SlicePageDTO;
 import secret.key.project.entity.PlatformCredential;
-import secret.key.project.entity.User;
 import secret.key.project.error.PlatformCredentialExporException;
 import secret.key.project.error.PlatformCredentialNoEncontradoException;
-import secret.key.project.error.UsuarioException;
 import secret.key.project.error.UsuarioExceptionNoContentException;
+import secret.key.project.export.CountingOutputStream;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.export.ExportMetrics;
+import secret.key.project.export.PdfExportTheme;
+import secret.key.project.export.StreamingRowEncoder;
 import secret.key.project.mapper.PlatformCredentialMapper;
 import secret.key.project.repository.PlatformCredentialRepository;
 import secret.key.project.service.PlatformCredentialService;
 
 import javax.swing.*;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class PlatformCredentialServiceImpl implements PlatformCredentialService {
 
-    private final PlatformCredentialRepository platformCredentialRepository;
+    private static final String[] COLUMNAS_EXCEL = {"Platform", "URL", "Username", "Password", "Date created"};
+    private static final DateTimeFormatter FORMATO_FECHA_EXCEL = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    //Tamaño máximo de página en la paginación por cursor
+    private static final int MAX_TAMANIO_PAGINA = 100;
+    //Límite de ancho de columna en Excel (255 caracteres); se acota antes para no generar columnas enormes
+    private static final int MAX_CARACTERES_COLUMNA = 100;
 
-    public PlatformCredentialServiceImpl(PlatformCredentialRepository platformCredentialRepository) {
+    private final PlatformCredentialRepository platformCredentialRepository;
+    private final PlatformCredentialCache platformCredentialCache;
+    private final CredentialEncryptor credentialEncryptor;
+    private final ExportMetrics exportMetrics;
+    private final MongoIndexConfig mongoIndexConfig;
+
+    //Filas que SXSSF mantiene en memoria al generar el Excel
+    @Value("${export.excel.row-window:100}")
+    private int excelRowWindow = 100;
+
+    //Filas de la tabla PDF que se acumulan antes de escribirlas al stream
+    @Value("${export.pdf.flush-rows:200}")
+    private int pdfFlushRows = 200;
+
+    //Documentos por lote del cursor de Mongo en las exportaciones
+    @Value("${export.cursor-batch-size:500}")
+    private int exportBatchSize = 500;
+
+    public PlatformCredentialServiceImpl(PlatformCredentialRepository platformCredentialRepository,
+                                         PlatformCredentialCache platformCredentialCache,
+                                         CredentialEncryptor credentialEncryptor,
+                                         ExportMetrics exportMetrics,
+                                         MongoIndexConfig mongoIndexConfig) {
         this.platformCredentialRepository = platformCredentialRepository;
+        this.platformCredentialCache = platformCredentialCache;
+        this.credentialEncryptor = credentialEncryptor;
+        this.exportMetrics = exportMetrics;
+        this.mongoIndexConfig = mongoIndexConfig;
     }
 
     //Seguridad
     private String getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return CurrentUser.getUserId();
+    }
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new UsuarioException("Usuario no autenticado");
+    //Consulta previa del nombre solo mientras user_name_idx no esté confirmado en Mongo; con el índice la
+    //escritura sola basta y no hay carrera entre la consulta y el guardado
+    private void verificarNombreLibre(String userId, String name, String id) {
+        if (mongoIndexConfig.isNombreUnicoConfirmado()) {
+            return;
+        }
+        boolean existe = id == null
+                ? platformCredentialRepository.existsByUserIdAndName(userId, name)
+                : platformCredentialRepository.existsByUserIdAndNameAndIdNot(userId, name, id);
+        if (existe) {
+            log.error("La plataforma: {} ya existe!", name);
+            throw new DuplicateKeyException(MongoIndexConfig.INDICE_USUARIO_NOMBRE + ": ya existe una plataforma registrada con el nombre: " + name);
         }
-        //User user = (User) authentication.getPrincipal();
-        //return user.getId();
+    }
 
-        Object principal = authentication.getPrincipal();
+    //Resúmenes sin password, igual que slice y cursor: el password se pide con revelarPassword
+    @Override
+    public Page<PlatformCredentialSummaryDTO> getPlatformCredentialByPagination(Pageable pageable) {
 
-        // En producción: principal es secret.key.project.entity.User
-        if (principal instanceof User) {
-            return ((User) principal).getId();
+        if (pageable.getPageNumber() < 0 || pageable.getPageSize() <= 0) {
+            log.error("Paginación inválida: página {} , tamaño {}", pageable.getPageNumber(), pageable.getPageSize());
+            throw new IllegalArgumentException("Los parámetros de paginación no pueden ser nulos o menores o iguales a cero!");
         }
 
-        // En tests con @WithMockUser: principal es org.springframework.security.core.userdetails.User
-        if (principal instanceof org.springframework.security.core.userdetails.User) {
-            // Retorna el username como ID para tests
-            return ((org.springframework.security.core.userdetails.User) principal).getUsername();
-        }
+        String userId = getCurrentUserId();
+        Page<PlatformCredential> credentialPage = platformCredentialRepository.findSummaryPageByUserId(userId, pageable);
 
-        // Fallback: si principal es un String (username)
-        if (principal instanceof String) {
-            return (String) principal;
+
+        if (credentialPage.isEmpty()) {
+            log.error("El usuario no tiene plataformas registradas: {}", userId);
+            throw new UsuarioExceptionNoContentException("El usuario no tiene plataformas registradas!");
         }
 
-        throw new UsuarioException("Usuario no autenticado correctamente");
+        log.info("Listado con paginación de las platformas OK! del usuario: {}", userId);
+        return credentialPage.map(PlatformCredentialMapper::toSummaryDTO);
     }
 
+    //Slice: sin countDocuments por página; el total solo se calcula si se pide y sale de la caché cuando se puede
     @Override
-    public Page<PlatformCredentialDTO> getPlatformCredentialByPagination(Pageable pageable) {
+    public SlicePageDTO<PlatformCredentialSummaryDTO> getPlatformCredentialBySlice(Pageable pageable, boolean incluirTotal) {
 
         if (pageable.getPageNumber() < 0 || pageable.getPageSize() <= 0) {
             log.error("Paginación inválida: página {} , tamaño {}", pageable.getPageNumber(), pageable.getPageSize());
             throw new IllegalArgumentException("Los parámetros de paginación no pueden ser nulos o menores o iguales a cero!");
         }
 
+        if (pageable.getPageSize() > MAX_TAMANIO_PAGINA) {
+            log.error("Tamaño de página inválido: {}", pageable.getPageSize());
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_TAMANIO_PAGINA + "!");
+        }
+
         String userId = getCurrentUserId();
-        Page<PlatformCredential> credentialPage = platformCredentialRepository.findByUserId(pageable, userId);
+        Slice<PlatformCredential> slice = platformCredentialRepository.findSummarySliceByUserId(userId, pageable);
 
+        if (slice.isEmpty() && pageable.getPageNumber() == 0) {
+            log.error("El usuario no tiene plataformas registradas: {}", userId);
+            throw new UsuarioExceptionNoContentException("El usuario no tiene plataformas registradas!");
+        }
 
-        if (credentialPage.isEmpty()) {
+        Long total = incluirTotal ? contarPlataformas() : null;
+
+        log.info("Listado por slice de las platformas OK! del usuario: {}", userId);
+        return new SlicePageDTO<>(slice.map(PlatformCredentialMapper::toSummaryDTO).getContent(),
+                slice.getNumber(), slice.getSize(), slice.hasNext(), total);
+    }
+
+    //Paginación keyset: cada página es un seek sobre user_name_idx, sin skip ni count, así el costo
+    //no crece con la profundidad. Se pide una fila extra para saber si hay página siguiente
+    @Override
+    public CursorPageDTO<PlatformCredentialSummaryDTO> getPlatformCredentialByCursor(String cursor, int size) {
+
+        if (size <= 0 || size > MAX_TAMANIO_PAGINA) {
+            log.error("Tamaño de página inválido: {}", size);
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_TAMANIO_PAGINA + "!");
+        }
+
+        String userId = getCurrentUserId();
+        String lastName = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor posicion = KeysetCursor.decode(cursor);
+            if (!posicion.getUserId().equals(userId)) {
+                log.error("Cursor de paginación de otro usuario, usuario actual: {}", userId);
+                throw new IllegalArgumentException("El cursor de paginación no es válido!");
+            }
+            lastName = posicion.getName();
+        }
+
+        List<PlatformCredential> filas = platformCredentialRepository.findSummariesByUserIdAfter(userId, lastName, size + 1);
+
+        if (filas.isEmpty() && lastName == null) {
             log.error("El usuario no tiene plataformas registradas: {}", userId);
             throw new UsuarioExceptionNoContentException("El usuario no tiene plataformas registradas!");
         }
 
-        log.info("Listado con paginación de las platformas OK! del usuario: {}", userId);
-        return credentialPage.map(PlatformCredentialMapper::toDTO);
+        String nextCursor = null;
+        if (filas.size() > size) {
+            filas = filas.subList(0, size);
+            PlatformCredential ultima = filas.get(size - 1);
+            nextCursor = new KeysetCursor(userId, ultima.getName()).encode();
+        }
+
+        log.info("Listado por cursor de las platformas OK! del usuario: {}", userId);
+        return new CursorPageDTO<>(filas.stream().map(PlatformCredentialMapper::toSummaryDTO).toList(), filas.size(), nextCursor);
     }
 
     @Override
@@ -112,19 +220,18 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
 
         String userId = getCurrentUserId();
 
-        if (platformCredentialRepository.existsByUserIdAndName(userId, platformCredentialDTO.getName())) {
-            log.error("La plataforma : {} ya existe!", platformCredentialDTO.getName());
-            throw new PlatformCredentialExporException(("Ya existe una plataforma registrada con el nombre: " + platformCredentialDTO.getName()));
-        }
-
+        //Un nombre repetido lo rechaza el índice único user_name_idx (DuplicateKeyException -> 409)
+        verificarNombreLibre(userId, platformCredentialDTO.getName(), null);
         PlatformCredential entity = PlatformCredentialMapper.toEntity(platformCredentialDTO);
+        destruirPassword(platformCredentialDTO);
 
         entity.setUserId(userId);
         entity.setCreatedDate(LocalDate.now());
         PlatformCredential saved = platformCredentialRepository.save(entity);
+        platformCredentialCache.put(userId, saved);
 
         log.info("Plataforma registrada: {}, del usuario: {}", saved, userId);
-        return PlatformCredentialMapper.toDTO(saved);
+        return toDTO(saved);
     }
 
     @Override
@@ -137,30 +244,21 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
 
         String userId = getCurrentUserId();
 
-        PlatformCredential existing = platformCredentialRepository.findByIdAndUserId(id, userId).orElseThrow(() -> {
+        verificarNombreLibre(userId, platformCredentialDTO.getName(), id);
+        PlatformCredential cambios = PlatformCredentialMapper.toEntity(platformCredentialDTO);
+        destruirPassword(platformCredentialDTO);
+        cambios.setCreatedDate(LocalDate.now());
+
+        //Un solo findAndModify por (id, userId); el índice único rechaza un nombre de otra plataforma
+        PlatformCredential saved = platformCredentialRepository.updateByIdAndUserId(id, userId, cambios).orElseThrow(() -> {
             log.error("Error al actualizar, plataforma no encontrada con el id: {}", id);
             return new UsuarioExceptionNoContentException("Plataforma no encontrada con el id: " + id + " para el usuario: " + userId);
 
         });
-
-        if (!existing.getName().equals(platformCredentialDTO.getName())) {
-            if (platformCredentialRepository.existsByUserIdAndName(userId, platformCredentialDTO.getName())) {
-                log.error("La plataforma: {} ya existe ", platformCredentialDTO.getName());
-                throw new IllegalArgumentException("Ya existe una plataforma registrada con el nombre: " + platformCredentialDTO.getName());
-            }
-        }
-
-
-        existing.setName(platformCredentialDTO.getName());
-        existing.setUrl(platformCredentialDTO.getUrl());
-        existing.setUsername(platformCredentialDTO.getUsername());
-        existing.setPassword(platformCredentialDTO.getPassword());
-        existing.setCreatedDate(LocalDate.now());
-
-        PlatformCredential saved = platformCredentialRepository.save(existing);
+        platformCredentialCache.put(userId, saved);
 
         log.info("Plataforma actualizada: {}", saved);
-        return PlatformCredentialMapper.toDTO(saved);
+        return toDTO(saved);
     }
 
     @Override
@@ -180,6 +278,7 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
         });
 
         platformCredentialRepository.delete(existing);
+        platformCredentialCache.remove(userId, existing.getId());
         log.info("Plataforma eliminada!");
     }
 
@@ -193,20 +292,64 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
             throw new IllegalArgumentException("El nombre no puede ser nulo o vacio!!");
         }
 
-        PlatformCredential entity = platformCredentialRepository.findByNameAndUserId(name, userId).orElseThrow(() -> {
+        PlatformCredential entity = platformCredentialCache.findByName(userId, name,
+                () -> platformCredentialRepository.findByNameAndUserId(name, userId)).orElseThrow(() -> {
             log.error("Plataforma no encontrada con el nombre: {}", name);
             return new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el nombre: " + name);
         });
 
         log.info("Plataforma encontrada: {}", entity);
-        return PlatformCredentialMapper.toDTO(entity);
+        return toDTO(entity);
+    }
+
+    //Búsqueda mientras se escribe: índice en memoria de la bóveda del usuario (ver PlatformCredentialCache),
+    //sin consultas a Mongo salvo la carga inicial. Devuelve resúmenes, sin password
+    @Override
+    public List<PlatformCredentialSummaryDTO> buscarPlataformas(String query, int limit) {
+
+        if (query == null || query.isBlank()) {
+            log.error("El texto de búsqueda no puede ser nulo o vacío");
+            throw new IllegalArgumentException("El texto de búsqueda no puede ser nulo o vacio!!");
+        }
+
+        if (limit <= 0 || limit > MAX_TAMANIO_PAGINA) {
+            log.error("Límite de búsqueda inválido: {}", limit);
+            throw new IllegalArgumentException("El límite de la búsqueda debe estar entre 1 y " + MAX_TAMANIO_PAGINA + "!");
+        }
+
+        String userId = getCurrentUserId();
+        List<PlatformCredential> encontradas = platformCredentialCache.search(userId, query, limit,
+                () -> platformCredentialRepository.findByUserId(userId));
+
+        log.info("Búsqueda de plataformas OK! {} resultados para el usuario: {}", encontradas.size(), userId);
+        return encontradas.stream().map(PlatformCredentialMapper::toSummaryDTO).toList();
+    }
+
+    //Revelar: una sola credencial y solo su password, los listados ya no lo traen
+    @Override
+    public PlatformCredentialSecretDTO revelarPassword(String id) {
+
+        String userId = getCurrentUserId();
+
+        if (id == null || id.isBlank()) {
+            log.error("El id de la plataforma no puede ser nulo");
+            throw new IllegalArgumentException("El id no puede ser nulo!!");
+        }
+
+        PlatformCredential secreto = platformCredentialRepository.findSecretByIdAndUserId(id, userId).orElseThrow(() -> {
+            log.error("Plataforma no encontrada con el id: {} para revelar el password", id);
+            return new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el id: " + id);
+        });
+
+        log.info("Password revelado de la plataforma: {} del usuario: {}", id, userId);
+        return new PlatformCredentialSecretDTO(secreto.getId(), SecretValue.sealed(secreto.getPassword(), userId, credentialEncryptor));
     }
 
     @Override
-    public List<PlatformCredentialDTO> getAllPlatformCredentials() {
+    public List<PlatformCredentialSummaryDTO> getAllPlatformCredentials() {
 
         String userId = getCurrentUserId();
-        List<PlatformCredential> list = platformCredentialRepository.findByUserId(userId);
+        List<PlatformCredential> list = platformCredentialCache.getAll(userId, () -> platformCredentialRepository.findByUserId(userId));
 
         if (list.isEmpty()) {
             log.error("La lista de plataformas esta vacia para el usuario: {}", userId);
@@ -214,53 +357,128 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
         }
 
         log.info("Listado de las plataformas OK!");
-        return list.stream().map(PlatformCredentialMapper::toDTO).toList();
+        return list.stream().map(PlatformCredentialMapper::toSummaryDTO).toList();
     }
 
     @Override
-    public byte[] exportarPlataformasExcel() {
+    public StreamingResponseBody exportarPlataformasExcel() {
+        return exportarPlataformas(ExportFormat.XLSX);
+    }
 
-        String userId = getCurrentUserId();
-        List<PlatformCredential> list = platformCredentialRepository.findByUserId(userId);
+    @Override
+    public StreamingResponseBody exportarPlataformasPDF() {
+        return exportarPlataformas(ExportFormat.PDF);
+    }
 
-        if (list.isEmpty()) {
-            log.error("Error al generar Excel, la lista de plataformas para el usuario: {} esta vacia", userId);
-            throw new PlatformCredentialNoEncontradoException("El usuario no tiene plataformas registradas para generar el Excel!");
-        }
+    @Override
+    public StreamingResponseBody exportarPlataformasCsv() {
+        return exportarPlataformas(ExportFormat.CSV);
+    }
 
-        return generarExcel(list);
+    @Override
+    public StreamingResponseBody exportarPlataformasNdjson() {
+        return exportarPlataformas(ExportFormat.NDJSON);
     }
 
     @Override
-    public byte[] exportarPlataformasPDF() {
+    public long contarPlataformas() {
 
         String userId = getCurrentUserId();
-        List<PlatformCredential> list = platformCredentialRepository.findByUserId(userId);
+        return platformCredentialCache.count(userId, () -> platformCredentialRepository.countByUserId(userId));
+    }
 
-        if (list.isEmpty()) {
-            log.error("Error al generar PDF, La lista de plataformas para el usuario: {} esta vacia", userId);
-            throw new PlatformCredentialNoEncontradoException("El usuario no tiene plataformas registradas para generar el PDF!");
+    //Exportación completa al stream; progreso recibe el número de filas escritas hasta el momento
+    @Override
+    public void exportarPlataformas(ExportFormat formato, OutputStream outputStream, LongConsumer progreso) {
+
+        String userId = getCurrentUserId();
+        Optional<List<PlatformCredential>> cached = platformCredentialCache.peekAll(userId);
+        validarExportacion(userId, cached, formato);
+        escribirExportacion(userId, cached, formato, outputStream, progreso);
+    }
+
+    private StreamingResponseBody exportarPlataformas(ExportFormat formato) {
+
+        String userId = getCurrentUserId();
+        Optional<List<PlatformCredential>> cached = platformCredentialCache.peekAll(userId);
+        validarExportacion(userId, cached, formato);
+
+        return outputStream -> escribirExportacion(userId, cached, formato, outputStream, filas -> { });
+    }
+
+    private void validarExportacion(String userId, Optional<List<PlatformCredential>> cached, ExportFormat formato) {
+        if (!tienePlataformas(userId, cached)) {
+            log.error("Error al generar {}, la lista de plataformas para el usuario: {} esta vacia", formato, userId);
+            throw new PlatformCredentialNoEncontradoException("El usuario no tiene plataformas registradas para generar el " + formato + "!");
         }
+    }
+
+    private void escribirExportacion(String userId, Optional<List<PlatformCredential>> cached, ExportFormat formato,
+                                     OutputStream outputStream, LongConsumer progreso) {
 
-        return generarPDF(list);
+        long inicio = System.nanoTime();
+        long[] filas = {0};
+        CountingOutputStream salida = new CountingOutputStream(outputStream);
+        boolean exito = false;
+        try {
+            int[] anchos = formato == ExportFormat.XLSX
+                    ? cached.map(this::calcularAnchoColumnas)
+                        .orElseGet(() -> calcularAnchoColumnas(platformCredentialRepository.findMaxFieldLengthsByUserId(userId)))
+                    : null;
+
+            try (Stream<PlatformCredential> datos = abrirExportacion(userId, cached)
+                    .peek(dato -> progreso.accept(++filas[0]))) {
+                switch (formato) {
+                    case XLSX -> generarExcel(datos, anchos, salida);
+                    case PDF -> generarPDF(datos, salida);
+                    case CSV -> generarCsv(datos, salida);
+                    case NDJSON -> generarNdjson(datos, salida);
+                }
+            }
+            exito = true;
+        } finally {
+            exportMetrics.registrar(formato, System.nanoTime() - inicio, filas[0], salida.getCount(), exito);
+        }
+    }
+
+    //Si la bóveda está en caché se usa; si no, basta un exists por índice antes de abrir el cursor
+    private boolean tienePlataformas(String userId, Optional<List<PlatformCredential>> cached) {
+        return cached.map(list -> !list.isEmpty())
+                .orElseGet(() -> platformCredentialRepository.existsByUserId(userId));
+    }
+
+    //Fuente de datos de las exportaciones: la caché si ya está cargada, si no un cursor de Mongo por lotes.
+    //La exportación sí escribe todos los passwords, se descifran fila por fila al recorrerla
+    private Stream<PlatformCredential> abrirExportacion(String userId, Optional<List<PlatformCredential>> cached) {
+        return cached.map(List::stream)
+                .orElseGet(() -> platformCredentialRepository.streamByUserId(userId, exportBatchSize))
+                .map(credentialEncryptor::decrypt);
+    }
+
+    private PlatformCredentialDTO toDTO(PlatformCredential entity) {
+        return PlatformCredentialMapper.toDTO(entity, credentialEncryptor);
+    }
+
+    //El texto plano del body ya pasó a la entidad, no hace falta conservarlo en el DTO
+    private static void destruirPassword(PlatformCredentialDTO dto) {
+        if (dto.getPassword() != null) {
+            dto.getPassword().destroy();
+        }
     }
 
     //PDF
-    private byte[] generarPDF(List<PlatformCredential> datos) {
+    //La tabla se marca incompleta y se agrega al documento cada pdfFlushRows filas: OpenPDF escribe
+    //esas filas al stream y las libera, así la memoria no depende del tamaño de la bóveda
+    private void generarPDF(Stream<PlatformCredential> datos, OutputStream outputStream) {
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Document document = new Document();
 
         try {
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false); // el stream de la respuesta lo cierra Spring
             document.open();
 
-            //Titulos y encabezados
-            Font titleFont = new Font(Font.HELVETICA, 20, Font.BOLD, Color.WHITE);
-            Font infoFont = new Font(Font.HELVETICA, 12, Font.NORMAL, Color.DARK_GRAY);
-            Font headerFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE);
-            Font contentFont = new Font(Font.HELVETICA, 10, Font.NORMAL, Color.BLACK);
-
+            PdfExportTheme.CellFactory cells = PdfExportTheme.newCellFactory();
 
             //Encabezado
             PdfPTable tableEncabezado = new PdfPTable(2);
@@ -269,17 +487,11 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
             tableEncabezado.setWidths(new float[]{50, 50});
 
             // Título centrado que ocupa las dos columnas
-            PdfPCell header0 = new PdfPCell(new Paragraph("MY CREDENTIALS", titleFont));
-            header0.setColspan(2); // Ocupa las dos columnas
-            header0.setBackgroundColor(new Color(41, 128, 185)); // 26, 188, 156 Verde turquesa
-            header0.setHorizontalAlignment(Element.ALIGN_CENTER);
-            header0.setVerticalAlignment(Element.ALIGN_MIDDLE);
-            header0.setPadding(15f);
-            tableEncabezado.addCell(header0);
+            tableEncabezado.addCell(cells.title("MY CREDENTIALS"));
             document.add(tableEncabezado);
 
             //Subtitulo del documento
-            document.add(new Paragraph("Report date: " + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), infoFont));
+            document.add(cells.info("Report date: " + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))));
             document.add(Chunk.NEWLINE);
 
             //Tabla y sus columnas
@@ -287,82 +499,102 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
             table.setWidthPercentage(100);
             table.setSpacingBefore(10f);
             table.setSpacingAfter(10f);
+            table.setHeaderRows(1); // el header se repite en cada página
+            table.setComplete(false);
 
             // Headers
-            table.addCell(createHeaderCell("Platform", headerFont));
-            table.addCell(createHeaderCell("URL", headerFont));
-            table.addCell(createHeaderCell("Username", headerFont));
-            table.addCell(createHeaderCell("Password", headerFont));
-            table.addCell(createHeaderCell("Date created", headerFont));
+            table.addCell(cells.header("Platform"));
+            table.addCell(cells.header("URL"));
+            table.addCell(cells.header("Username"));
+            table.addCell(cells.header("Password"));
+            table.addCell(cells.header("Date created"));
 
             //Datos
-            for (PlatformCredential dato : datos) {
-                table.addCell(createDataCell(dato.getName(), contentFont));
-                table.addCell(createDataCell(dato.getUrl(), contentFont));
-                table.addCell(createDataCell(dato.getUsername(), contentFont));
-                table.addCell(createDataCell(dato.getPassword(), contentFont));
-                table.addCell(createDataCell(dato.getCreatedDate().toString(), contentFont));
+            int filas = 0;
+            for (PlatformCredential dato : (Iterable<PlatformCredential>) datos::iterator) {
+                table.addCell(cells.data(dato.getName()));
+                table.addCell(cells.data(dato.getUrl()));
+                table.addCell(cells.data(dato.getUsername()));
+                table.addCell(cells.data(dato.getPassword()));
+                table.addCell(cells.data(dato.getCreatedDate().toString()));
+
+                if (++filas % pdfFlushRows == 0) {
+                    document.add(table);
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
             document.add(Chunk.NEWLINE);
             document.close();
         } catch (DocumentException e) {
             log.error("Hubo un error al generar el PDF de las plataformas: {}", e.getMessage());
-            throw new IllegalArgumentException("Error al generar el PDF de las plataformas: " + e.getMessage());
+            throw new PlatformCredentialExporException("Error al generar el PDF de las plataformas: " + e.getMessage());
         }
 
         log.info("PDF generado exitosamente!");
-        return baos.toByteArray();
-    }
-
-    // Método helper para el header
-    private PdfPCell createHeaderCell(String text, Font font) {
-        PdfPCell cell = new PdfPCell(new Paragraph(text, font));
-        cell.setBackgroundColor(new Color(41, 128, 185));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        cell.setVerticalAlignment(Element.ALIGN_CENTER);
-        cell.setPadding(10f);
-        cell.setBorder(Rectangle.NO_BORDER);
-        cell.setBorderWidthBottom(1f);
-        cell.setBorderColorBottom(new Color(200, 200, 200));
-        return cell;
-    }
-
-    // Método helper para los datos
-    private PdfPCell createDataCell(String text, Font font) {
-        PdfPCell cell = new PdfPCell(new Paragraph(text != null ? text : "", font));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        cell.setPadding(10f);
-        cell.setBorder(Rectangle.NO_BORDER);
-        cell.setBorderWidthBottom(0.5f);
-        cell.setBorderColorBottom(new Color(220, 220, 220));
-        return cell;
+    }
+
+    //CSV (RFC 4180) y NDJSON: sin librerías de documentos, el encoder escribe bytes directo al stream
+    //reutilizando un solo buffer, así el costo por fila es constante y la memoria no crece con la bóveda
+    private void generarCsv(Stream<PlatformCredential> datos, OutputStream outputStream) {
+
+        StreamingRowEncoder encoder = new StreamingRowEncoder(outputStream);
+        try {
+            encoder.csvHeader(COLUMNAS_EXCEL);
+            for (PlatformCredential dato : (Iterable<PlatformCredential>) datos::iterator) {
+                encoder.csvRow(dato);
+            }
+            encoder.flush(); // el stream lo cierra quien lo abrió
+            log.info("CSV de las plataformas generado exitosamente!");
+        } catch (IOException e) {
+            log.error("Hubo un error al generar el CSV de las plataformas: {}", e.getMessage());
+            throw new PlatformCredentialExporException("Error al generar el CSV de las plataformas: " + e.getMessage());
+        }
+    }
+
+    private void generarNdjson(Stream<PlatformCredential> datos, OutputStream outputStream) {
+
+        StreamingRowEncoder encoder = new StreamingRowEncoder(outputStream);
+        try {
+            for (PlatformCredential dato : (Iterable<PlatformCredential>) datos::iterator) {
+                encoder.ndjsonRow(dato);
+            }
+            encoder.flush();
+            log.info("NDJSON de las plataformas generado exitosamente!");
+        } catch (IOException e) {
+            log.error("Hubo un error al generar el NDJSON de las plataformas: {}", e.getMessage());
+            throw new PlatformCredentialExporException("Error al generar el NDJSON de las plataformas: " + e.getMessage());
+        }
     }
 
     //EXCEL
-    private byte[] generarExcel(List<PlatformCredential> datos) {
+    //SXSSF mantiene en memoria solo una ventana fija de filas; el resto se vuelca a un temporal cifrado
+    private void generarExcel(Stream<PlatformCredential> datos, int[] anchos, OutputStream outputStream) {
 
+        SXSSFWorkbook workbook = new SXSSFWorkbookWithCustomZipEntrySource();
         try {
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("Lista de credenciales de plataformas");
+            SXSSFSheet sheet = workbook.createSheet("Lista de credenciales de plataformas");
+            sheet.setRandomAccessWindowSize(excelRowWindow);
 
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
 
+            //Con SXSSF no se puede usar autoSizeColumn sobre filas ya volcadas, el ancho se calcula antes
+            for (int i = 0; i < COLUMNAS_EXCEL.length; i++) {
+                sheet.setColumnWidth(i, anchos[i]);
+            }
+
             Row headerRow = sheet.createRow(0);
-            String[] columnas = {"Platform", "URL", "Username", "Password", "Date created"};
 
-            for (int i = 0; i < columnas.length; i++) {
+            for (int i = 0; i < COLUMNAS_EXCEL.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columnas[i]);
+                cell.setCellValue(COLUMNAS_EXCEL[i]);
                 cell.setCellStyle(headerStyle);
             }
 
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
             int rowNum = 1;
-            for (PlatformCredential entity : datos) {
+            for (PlatformCredential entity : (Iterable<PlatformCredential>) datos::iterator) {
                 Row row = sheet.createRow(rowNum++);
 
                 Cell cell0 = row.createCell(0);
@@ -382,31 +614,65 @@ public class PlatformCredentialServiceImpl implements PlatformCredentialService
                 cell3.setCellStyle(dataStyle);
 
                 Cell cell4 = row.createCell(4);
-                cell4.setCellValue(entity.getCreatedDate().format(formatter));
+                cell4.setCellValue(entity.getCreatedDate().format(FORMATO_FECHA_EXCEL));
                 cell4.setCellStyle(dataStyle);
 
                 row.setHeightInPoints(25);
 
             }
 
-            for (int i = 0; i < columnas.length; i++) {
-                sheet.autoSizeColumn(i);
-                sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1024);
-            }
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            workbook.close();
-
             log.info("Excel de las plaformas generado exitosamente!");
-            return outputStream.toByteArray();
 
         } catch (IOException e) {
             log.error("Hubo un error al generar el excel de las plataformas: {}", e.getMessage());
             throw new PlatformCredentialExporException("Error al generar el excel de las plataformas: " + e.getMessage());
+        } finally {
+            workbook.dispose();
         }
     }
 
+    private int[] calcularAnchoColumnas(List<PlatformCredential> datos) {
+        int[] maxCaracteres = new int[COLUMNAS_EXCEL.length];
+        for (PlatformCredential entity : datos) {
+            maxCaracteres[0] = Math.max(maxCaracteres[0], longitud(entity.getName()));
+            maxCaracteres[1] = Math.max(maxCaracteres[1], longitud(entity.getUrl()));
+            maxCaracteres[2] = Math.max(maxCaracteres[2], longitud(entity.getUsername()));
+            maxCaracteres[3] = Math.max(maxCaracteres[3], longitudPassword(entity.getPassword()));
+        }
+        return calcularAnchoColumnas(maxCaracteres);
+    }
+
+    //Longitudes calculadas en Mongo, para no recorrer el cursor dos veces
+    private int[] calcularAnchoColumnas(Map<String, Integer> longitudes) {
+        return calcularAnchoColumnas(new int[]{
+                longitudes.getOrDefault("name", 0),
+                longitudes.getOrDefault("url", 0),
+                longitudes.getOrDefault("username", 0),
+                longitudes.getOrDefault("password", 0),
+                0});
+    }
+
+    //Ancho aproximado al de autoSizeColumn (1/256 de carácter) más el margen que ya se agregaba
+    private int[] calcularAnchoColumnas(int[] maxCaracteres) {
+        maxCaracteres[4] = Math.max(maxCaracteres[4], FORMATO_FECHA_EXCEL.format(LocalDate.now()).length());
+        int[] anchos = new int[COLUMNAS_EXCEL.length];
+        for (int i = 0; i < anchos.length; i++) {
+            int caracteres = Math.max(maxCaracteres[i], COLUMNAS_EXCEL[i].length());
+            anchos[i] = Math.min(caracteres, MAX_CARACTERES_COLUMNA) * 256 + 1024;
+        }
+        return anchos;
+    }
+
+    private static int longitud(String valor) {
+        return valor != null ? valor.length() : 0;
+    }
+
+    //En caché el password sigue cifrado: se estima el largo del texto plano sin descifrarlo
+    private static int longitudPassword(String valor) {
+        return FieldCipher.isSealed(valor) ? FieldCipher.plainLength(valor.length()) : longitud(valor);
+    }
+
     //Estilo para el header
     private CellStyle createHeaderStyle(Workbook workbook) {
 
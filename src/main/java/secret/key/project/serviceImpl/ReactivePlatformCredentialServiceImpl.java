@@ -0,0 +1,294 @@
+package secret.key.project.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import secret.key.project.config.CurrentUser;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.FieldCipher;
+import secret.key.project.crypto.ReactiveCredentialEncryptor;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.error.PlatformCredentialExporException;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+import secret.key.project.error.UsuarioExceptionNoContentException;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.export.ExportMetrics;
+import secret.key.project.export.StreamingRowEncoder;
+import secret.key.project.mapper.PlatformCredentialMapper;
+import secret.key.project.repository.ReactivePlatformCredentialRepository;
+import secret.key.project.service.ReactivePlatformCredentialService;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+//Misma lógica y mensajes que PlatformCredentialServiceImpl sin bloquear el event loop. No usa la caché de
+//bóvedas (PlatformCredentialCache): cada lectura es una consulta reactiva a Mongo
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactivePlatformCredentialServiceImpl implements ReactivePlatformCredentialService {
+
+    private static final String[] COLUMNAS_CSV = {"Platform", "URL", "Username", "Password", "Date created"};
+
+    private final ReactivePlatformCredentialRepository reactivePlatformCredentialRepository;
+    private final CredentialEncryptor credentialEncryptor;
+    private final ReactiveCredentialEncryptor reactiveCredentialEncryptor;
+    private final ExportMetrics exportMetrics;
+    private final MongoIndexConfig mongoIndexConfig;
+
+    //Documentos por lote del cursor de Mongo y filas por buffer en las exportaciones
+    @Value("${export.cursor-batch-size:500}")
+    private int exportBatchSize = 500;
+
+    public ReactivePlatformCredentialServiceImpl(ReactivePlatformCredentialRepository reactivePlatformCredentialRepository,
+                                                 CredentialEncryptor credentialEncryptor,
+                                                 ReactiveCredentialEncryptor reactiveCredentialEncryptor,
+                                                 ExportMetrics exportMetrics,
+                                                 MongoIndexConfig mongoIndexConfig) {
+        this.reactivePlatformCredentialRepository = reactivePlatformCredentialRepository;
+        this.credentialEncryptor = credentialEncryptor;
+        this.reactiveCredentialEncryptor = reactiveCredentialEncryptor;
+        this.exportMetrics = exportMetrics;
+        this.mongoIndexConfig = mongoIndexConfig;
+    }
+
+    //Listado completo sin password: el cursor avanza según lo que el cliente consume
+    @Override
+    public Flux<PlatformCredentialSummaryDTO> listarPlataformas() {
+        return CurrentUser.getReactiveUserId().flatMapMany(userId -> reactivePlatformCredentialRepository.findSummariesByUserId(userId)
+                .map(PlatformCredentialMapper::toSummaryDTO)
+                .switchIfEmpty(Flux.error(() -> {
+                    log.error("El usuario no tiene plataformas registradas: {}", userId);
+                    return new UsuarioExceptionNoContentException("El usuario no tiene plataformas registradas!");
+                }))
+                .doOnComplete(() -> log.info("Listado reactivo de las platformas OK! del usuario: {}", userId)));
+    }
+
+    @Override
+    public Mono<PlatformCredentialDTO> getPlatformCredentialByName(String name) {
+
+        if (name == null || name.isEmpty()) {
+            log.error("La plataforma no puede ser nula o vacia");
+            return Mono.error(new IllegalArgumentException("El nombre no puede ser nulo o vacio!!"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> reactivePlatformCredentialRepository.findByNameAndUserId(name, userId)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Plataforma no encontrada con el nombre: {}", name);
+                    return new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el nombre: " + name);
+                }))
+                .doOnNext(entity -> log.info("Plataforma encontrada: {}", entity))
+                .flatMap(this::toDTO));
+    }
+
+    @Override
+    public Mono<PlatformCredentialSecretDTO> revelarPassword(String id) {
+
+        if (id == null || id.isBlank()) {
+            log.error("El id de la plataforma no puede ser nulo");
+            return Mono.error(new IllegalArgumentException("El id no puede ser nulo!!"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> reactivePlatformCredentialRepository.findSecretByIdAndUserId(id, userId)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Plataforma no encontrada con el id: {} para revelar el password", id);
+                    return new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el id: " + id);
+                }))
+                .flatMap(secreto -> conClaveSiCifrado(secreto, () -> {
+                    log.info("Password revelado de la plataforma: {} del usuario: {}", id, userId);
+                    return new PlatformCredentialSecretDTO(secreto.getId(),
+                            SecretValue.opened(secreto.getPassword(), userId, credentialEncryptor));
+                })));
+    }
+
+    @Override
+    public Mono<PlatformCredentialDTO> createPlatformCredential(PlatformCredentialDTO platformCredentialDTO) {
+
+        if (platformCredentialDTO == null) {
+            log.error("La plataforma no puede ser nula!");
+            return Mono.error(new IllegalArgumentException("La plataforma no puede ser nula!"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> {
+            //Un nombre repetido lo rechaza el índice único user_name_idx (DuplicateKeyException -> 409)
+            PlatformCredential entity = PlatformCredentialMapper.toEntity(platformCredentialDTO);
+            destruirPassword(platformCredentialDTO);
+            entity.setUserId(userId);
+            entity.setCreatedDate(LocalDate.now());
+
+            return verificarNombreLibre(userId, entity.getName(), null)
+                    .then(Mono.defer(() -> reactivePlatformCredentialRepository.save(entity)))
+                    .doOnNext(saved -> log.info("Plataforma registrada: {}, del usuario: {}", saved, userId))
+                    .flatMap(this::toDTO);
+        });
+    }
+
+    @Override
+    public Mono<PlatformCredentialDTO> updatePlatformCredential(PlatformCredentialDTO platformCredentialDTO, String id) {
+
+        if (id == null || platformCredentialDTO == null) {
+            log.error("La plataforma y/o id no puede ser nulo");
+            return Mono.error(new IllegalArgumentException("El id y/o plataforma no puede ser nulo!!"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> {
+            PlatformCredential cambios = PlatformCredentialMapper.toEntity(platformCredentialDTO);
+            destruirPassword(platformCredentialDTO);
+            cambios.setCreatedDate(LocalDate.now());
+
+            //Un solo findAndModify por (id, userId); el índice único rechaza un nombre de otra plataforma
+            return verificarNombreLibre(userId, cambios.getName(), id)
+                    .then(Mono.defer(() -> reactivePlatformCredentialRepository.updateByIdAndUserId(id, userId, cambios)))
+                    .switchIfEmpty(Mono.error(() -> {
+                        log.error("Error al actualizar, plataforma no encontrada con el id: {}", id);
+                        return new UsuarioExceptionNoContentException("Plataforma no encontrada con el id: " + id + " para el usuario: " + userId);
+                    }))
+                    .doOnNext(saved -> log.info("Plataforma actualizada: {}", saved))
+                    .flatMap(this::toDTO);
+        });
+    }
+
+    @Override
+    public Mono<Void> deletePlatformCredential(String id) {
+
+        if (id == null) {
+            log.error("El id de la plataforma no puede ser nulo");
+            return Mono.error(new IllegalArgumentException("El id no puede ser nulo!!"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> reactivePlatformCredentialRepository.findByIdAndUserId(id, userId)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Error al eliminar, la plataforma no encontrada con el id: {}", id);
+                    return new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el id: " + id + " para el usuario: " + userId);
+                }))
+                .flatMap(reactivePlatformCredentialRepository::delete)
+                .doOnSuccess(vacio -> log.info("Plataforma eliminada!")));
+    }
+
+    //CSV y NDJSON con el mismo encoder que la exportación servlet. El cursor se lee de a exportBatchSize
+    //documentos y cada lote se codifica en un DataBuffer: sin demanda del cliente no se piden más lotes a Mongo,
+    //y si el cliente corta la descarga se cancela el cursor. XLSX y PDF arman el documento con librerías
+    //bloqueantes, en este stack no están disponibles
+    @Override
+    public Mono<Flux<DataBuffer>> exportarPlataformas(ExportFormat formato, DataBufferFactory bufferFactory) {
+
+        if (formato != ExportFormat.CSV && formato != ExportFormat.NDJSON) {
+            log.error("Formato de exportación no soportado en el stack reactivo: {}", formato);
+            return Mono.error(new IllegalArgumentException("Formato de exportación no soportado: " + formato + " (csv, ndjson)"));
+        }
+
+        return CurrentUser.getReactiveUserId().flatMap(userId -> reactivePlatformCredentialRepository.existsByUserId(userId)
+                .flatMap(existe -> {
+                    if (!existe) {
+                        log.error("Error al generar {}, la lista de plataformas para el usuario: {} esta vacia", formato, userId);
+                        return Mono.error(new PlatformCredentialNoEncontradoException("El usuario no tiene plataformas registradas para generar el " + formato + "!"));
+                    }
+
+                    //Contadores por suscripción: la medición empieza cuando el cliente empieza a leer
+                    Flux<DataBuffer> cuerpo = Flux.defer(() -> {
+                        long inicio = System.nanoTime();
+                        long[] filas = {0};
+                        long[] bytes = {0};
+
+                        Flux<DataBuffer> lotes = reactivePlatformCredentialRepository.streamByUserId(userId, exportBatchSize)
+                                .concatMap(reactiveCredentialEncryptor::decrypt)
+                                .doOnNext(dato -> filas[0]++)
+                                .buffer(exportBatchSize)
+                                .map(lote -> codificar(bufferFactory, formato, null, lote));
+                        Flux<DataBuffer> completo = formato == ExportFormat.CSV
+                                ? Flux.concat(Mono.fromSupplier(() -> codificar(bufferFactory, formato, COLUMNAS_CSV, List.of())), lotes)
+                                : lotes;
+
+                        return completo
+                                .doOnNext(buffer -> bytes[0] += buffer.readableByteCount())
+                                .doOnComplete(() -> log.info("{} de las plataformas generado exitosamente!", formato))
+                                .doFinally(signal -> exportMetrics.registrar(formato, System.nanoTime() - inicio,
+                                        filas[0], bytes[0], signal == SignalType.ON_COMPLETE));
+                    });
+
+                    //Buffers ya armados que no llegan a escribirse si el cliente corta la descarga
+                    return Mono.just(cuerpo.doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+                }));
+    }
+
+    //Un lote de filas (y el encabezado CSV si se pasa) a un solo DataBuffer
+    private static DataBuffer codificar(DataBufferFactory bufferFactory, ExportFormat formato,
+                                        String[] encabezado, List<PlatformCredential> lote) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(StreamingRowEncoder.DEFAULT_BUFFER_SIZE);
+        StreamingRowEncoder encoder = new StreamingRowEncoder(buffer.asOutputStream());
+        try {
+            if (encabezado != null) {
+                encoder.csvHeader(encabezado);
+            }
+            for (PlatformCredential dato : lote) {
+                if (formato == ExportFormat.CSV) {
+                    encoder.csvRow(dato);
+                } else {
+                    encoder.ndjsonRow(dato);
+                }
+            }
+            encoder.flush();
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            log.error("Hubo un error al generar el {} de las plataformas: {}", formato, e.getMessage());
+            throw new PlatformCredentialExporException("Error al generar el " + formato + " de las plataformas: " + e.getMessage());
+        }
+    }
+
+    //El password se descifra dentro de conClave (boundedElastic si hay que traer la clave de Mongo): la
+    //serialización corre en el event loop y la clave puede salir de la caché de DataKeyService antes de eso
+    private Mono<PlatformCredentialDTO> toDTO(PlatformCredential entity) {
+        return conClaveSiCifrado(entity, () -> {
+            PlatformCredentialDTO dto = PlatformCredentialMapper.toDTO(entity, credentialEncryptor);
+            dto.setPassword(SecretValue.opened(entity.getPassword(), entity.getUserId(), credentialEncryptor));
+            return dto;
+        });
+    }
+
+    private <T> Mono<T> conClaveSiCifrado(PlatformCredential entity, Supplier<T> operacion) {
+        return FieldCipher.isSealed(entity.getPassword())
+                ? reactiveCredentialEncryptor.conClave(entity.getUserId(), operacion)
+                : Mono.fromSupplier(operacion);
+    }
+
+    //Consulta previa del nombre solo mientras user_name_idx no esté confirmado en Mongo (ver PlatformCredentialServiceImpl)
+    private Mono<Void> verificarNombreLibre(String userId, String name, String id) {
+        if (mongoIndexConfig.isNombreUnicoConfirmado()) {
+            return Mono.empty();
+        }
+        Mono<Boolean> existe = id == null
+                ? reactivePlatformCredentialRepository.existsByUserIdAndName(userId, name)
+                : reactivePlatformCredentialRepository.existsByUserIdAndNameAndIdNot(userId, name, id);
+        return existe.flatMap(repetido -> {
+            if (!repetido) {
+                return Mono.empty();
+            }
+            log.error("La plataforma: {} ya existe!", name);
+            return Mono.error(new DuplicateKeyException(MongoIndexConfig.INDICE_USUARIO_NOMBRE
+                    + ": ya existe una plataforma registrada con el nombre: " + name));
+        });
+    }
+
+    //El texto plano del body ya pasó a la entidad, no hace falta conservarlo en el DTO
+    private static void destruirPassword(PlatformCredentialDTO dto) {
+        if (dto.getPassword() != null) {
+            dto.getPassword().destroy();
+        }
+    }
+}
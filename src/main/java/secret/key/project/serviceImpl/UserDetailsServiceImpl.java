@@ -1,21 +1,75 @@
 package secret.key.project.serviceImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import lombok.RequiredArgsConstructor;
+import secret.key.project.entity.User;
 import secret.key.project.repository.UserRepository;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final CaffeineUserCache userCache;
+    //auth.user.load{result=found|not_found}: incluye los aciertos de caché (los hit/miss están en cache.gets)
+    private static final Duration[] LOAD_BUCKETS = {
+            Duration.ofNanos(10_000), Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(5),
+            Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100)};
+    private final Timer foundTimer;
+    private final Timer notFoundTimer;
+
+    public UserDetailsServiceImpl(UserRepository userRepository, CaffeineUserCache userCache, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.foundTimer = loadTimer(meterRegistry, "found");
+        this.notFoundTimer = loadTimer(meterRegistry, "not_found");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username).orElseThrow(() ->
-            new UsernameNotFoundException("Usuario no encontrado: " + username));
+        long inicio = System.nanoTime();
+        UserDetails user = userCache.getOrLoad(username, key -> userRepository.findByUsername(key).orElse(null));
+        if (user == null) {
+            notFoundTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        foundTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return user;
+    }
+
+    //DaoAuthenticationProvider lo llama tras un login exitoso si el hash guardado está desactualizado.
+    //Se devuelve una copia: el User en caché lo comparten otros hilos
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        long actualizados = userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword);
+        userCache.removeUserFromCache(user.getUsername());
+
+        if (actualizados == 0) {
+            log.warn("No se actualizó el hash del usuario: {}, cambió desde que se leyó", user.getUsername());
+            return user;
+        }
+        log.info("Hash del password actualizado para el usuario: {}", user.getUsername());
+
+        if (user instanceof User entidad) {
+            return new User(entidad.getId(), entidad.getUsername(), newPassword, entidad.getRoles(), entidad.getTokenVersion());
+        }
+        return user;
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.user.load")
+                .description("Carga del usuario por username (caché o Mongo)")
+                .tag("result", result)
+                .serviceLevelObjectives(LOAD_BUCKETS)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,66 @@
+package secret.key.project.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.serviceImpl.PlatformCredentialCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Latencia de la búsqueda en la bóveda en memoria (SampleTime da p99): índice de trigramas frente a
+//recorrer la bóveda (índice por encima del presupuesto) con una bóveda grande
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredentialSearchBenchmark {
+
+    private static final String USER_ID = "user-123";
+    private static final String[] DOMINIOS = {"github", "gitlab", "netflix", "amazon", "interbank", "spotify", "google", "slack"};
+
+    @Param({"5000"})
+    public int rows;
+
+    @Param({"gi", "git", "platform 42", "mail.com"})
+    public String query;
+
+    private PlatformCredentialCache indexada;
+    private PlatformCredentialCache sinIndice;
+
+    @Setup
+    public void setUp() {
+        List<PlatformCredential> credentials = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String dominio = DOMINIOS[i % DOMINIOS.length];
+            credentials.add(new PlatformCredential("id-" + i, USER_ID, "Platform " + i + " " + dominio,
+                    "https://www." + dominio + i + ".com/login", "user" + i + "@mail.com", "enc:v1:AAAA", LocalDate.of(2024, 1, 1)));
+        }
+
+        indexada = new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(256), Duration.ofHours(1));
+        sinIndice = new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(256), Duration.ofHours(1));
+        ReflectionTestUtils.setField(indexada, "maxIndexMemoryPerUser", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(sinIndice, "maxIndexMemoryPerUser", DataSize.ofBytes(1));
+
+        //Primera búsqueda: carga la bóveda y arma el índice fuera de la medición
+        indexada.search(USER_ID, "warmup", 20, () -> credentials);
+        sinIndice.search(USER_ID, "warmup", 20, () -> credentials);
+    }
+
+    @Benchmark
+    public List<PlatformCredential> trigramIndex() {
+        return indexada.search(USER_ID, query, 20, List::of);
+    }
+
+    @Benchmark
+    public List<PlatformCredential> linearScan() {
+        return sinIndice.search(USER_ID, query, 20, List::of);
+    }
+}
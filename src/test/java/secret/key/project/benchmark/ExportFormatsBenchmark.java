@@ -0,0 +1,93 @@
+package secret.key.project.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.DataKeyService;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.entity.User;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.export.ExportMetrics;
+import secret.key.project.repository.PlatformCredentialRepository;
+import secret.key.project.serviceImpl.PlatformCredentialCache;
+import secret.key.project.serviceImpl.PlatformCredentialServiceImpl;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+//Filas exportadas por segundo con el servicio real (cursor simulado, caché vacía): Excel (SXSSF) vs. CSV y NDJSON
+//con el encoder de bytes. Medir también asignación con -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportFormatsBenchmark {
+
+    private static final int ROWS = 5000;
+    private static final String USER_ID = "user-bench";
+
+    private PlatformCredentialServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        List<PlatformCredential> credentials = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            credentials.add(new PlatformCredential("id-" + i, USER_ID, "Platform " + i, "https://platform" + i + ".com",
+                    "user" + i + "@mail.com", "S3cr3t,\"pass\"-" + i, LocalDate.of(2024, 1, 1).plusDays(i % 365)));
+        }
+
+        PlatformCredentialRepository repository = Mockito.mock(PlatformCredentialRepository.class);
+        when(repository.existsByUserId(anyString())).thenReturn(true);
+        when(repository.streamByUserId(anyString(), anyInt())).thenAnswer(invocation -> credentials.stream());
+        when(repository.findMaxFieldLengthsByUserId(anyString())).thenReturn(Map.of("name", 14, "url", 28, "username", 22, "password", 20));
+
+        service = new PlatformCredentialServiceImpl(repository,
+                new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+                new CredentialEncryptor(Mockito.mock(DataKeyService.class), false, false),
+                new ExportMetrics(new SimpleMeterRegistry()), Mockito.mock(MongoIndexConfig.class));
+
+        //El setup de un State por hilo corre en el mismo hilo del benchmark
+        User user = new User();
+        user.setId(USER_ID);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void excel() {
+        service.exportarPlataformas(ExportFormat.XLSX, OutputStream.nullOutputStream(), filas -> { });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csv() {
+        service.exportarPlataformas(ExportFormat.CSV, OutputStream.nullOutputStream(), filas -> { });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void ndjson() {
+        service.exportarPlataformas(ExportFormat.NDJSON, OutputStream.nullOutputStream(), filas -> { });
+    }
+}
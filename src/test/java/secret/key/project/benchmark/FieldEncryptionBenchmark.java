@@ -0,0 +1,89 @@
+package secret.key.project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import secret.key.project.crypto.FieldCipher;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+//Cifrado de campos por fila: Cipher por hilo + clave de datos en caché (ahora) frente a getInstance por
+//operación y frente a desenvolver la clave de datos en cada fila. descifrar10k mide un listado completo
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldEncryptionBenchmark {
+
+    private static final int FILAS = 10_000;
+    private static final byte[] AAD = ("user-123" + '\0' + "password").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AAD_DEK = "dek:user-123".getBytes(StandardCharsets.UTF_8);
+
+    private SecretKey masterKey;
+    private SecretKey dataKey;
+    private byte[] wrappedKey;
+    private String plain;
+    private String sealed;
+    private String[] filas;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        masterKey = keyGenerator.generateKey();
+        dataKey = keyGenerator.generateKey();
+        wrappedKey = FieldCipher.seal(masterKey, AAD_DEK, dataKey.getEncoded());
+        plain = "Sup3r-S3cr3t-Passw0rd!";
+        sealed = FieldCipher.sealToString(dataKey, AAD, plain);
+        filas = new String[FILAS];
+        for (int i = 0; i < FILAS; i++) {
+            filas[i] = FieldCipher.sealToString(dataKey, AAD, plain + i);
+        }
+    }
+
+    @Benchmark
+    public String cifrar() throws GeneralSecurityException {
+        return FieldCipher.sealToString(dataKey, AAD, plain);
+    }
+
+    @Benchmark
+    public String descifrar() throws GeneralSecurityException {
+        return FieldCipher.openToString(dataKey, AAD, sealed);
+    }
+
+    //Sin reutilizar el Cipher: getInstance busca el proveedor en cada operación
+    @Benchmark
+    public byte[] descifrarCipherPorOperacion() throws GeneralSecurityException {
+        byte[] bytes = Base64.getDecoder().decode(sealed.substring(FieldCipher.PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, dataKey, new GCMParameterSpec(128, bytes, 0, 12));
+        cipher.updateAAD(AAD);
+        return cipher.doFinal(bytes, 12, bytes.length - 12);
+    }
+
+    //Sin caché de claves de datos: se desenvuelve con la clave maestra antes de cada fila
+    @Benchmark
+    public String descifrarDesenvolviendoPorFila() throws GeneralSecurityException {
+        SecretKey key = new SecretKeySpec(FieldCipher.open(masterKey, AAD_DEK, wrappedKey), "AES");
+        return FieldCipher.openToString(key, AAD, sealed);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int descifrar10k() throws GeneralSecurityException {
+        int total = 0;
+        for (String fila : filas) {
+            total += FieldCipher.openToString(dataKey, AAD, fila).length();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,98 @@
+package secret.key.project.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Prueba de carga de lazo cerrado contra una instancia en ejecución: N clientes concurrentes, cada uno
+//envía la siguiente petición al recibir la respuesta. Reporta throughput y p50/p99 por nivel.
+//Para comparar se corre dos veces con los mismos datos, con SPRING_PROFILES_ACTIVE=prod y con
+//prod,virtual-threads (Java 21). Con 10k conexiones subir antes el límite de descriptores (ulimit -n).
+//Uso: mvn test-compile -Ploadtest -Dloadtest.token=<jwt> [-Dloadtest.concurrency=1000,10000 -Dloadtest.duration=30s]
+public class HttpLoadTest {
+
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args[0]);
+        String token = args.length > 1 ? args[1] : "";
+        String[] niveles = (args.length > 2 ? args[2] : "1000,10000").split(",");
+        Duration duracion = args.length > 3 ? Duration.parse("PT" + args[3].toUpperCase()) : Duration.ofSeconds(30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (!token.isBlank()) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        System.out.printf("%-12s %10s %10s %10s %10s %8s%n", "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (String nivel : niveles) {
+            ejecutar(client, request.build(), Integer.parseInt(nivel.strip()), duracion);
+        }
+    }
+
+    private static void ejecutar(HttpClient client, HttpRequest request, int concurrencia, Duration duracion) throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer latencia = Timer.builder("loadtest.latency")
+                .publishPercentiles(0.5, 0.99)
+                //Una sola ventana que cubre toda la corrida, sin rotar a mitad de la medición
+                .distributionStatisticExpiry(duracion.plus(CALENTAMIENTO).multipliedBy(2))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+        LongAdder errores = new LongAdder();
+
+        long inicioMedicion = System.nanoTime() + CALENTAMIENTO.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+        CountDownLatch terminados = new CountDownLatch(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            enviar(client, request, inicioMedicion, fin, latencia, errores, terminados);
+        }
+        terminados.await(duracion.toSeconds() + CALENTAMIENTO.toSeconds() + 60, TimeUnit.SECONDS);
+
+        long total = latencia.count();
+        double p50 = 0;
+        double p99 = 0;
+        for (ValueAtPercentile percentil : latencia.takeSnapshot().percentileValues()) {
+            if (percentil.percentile() == 0.5) {
+                p50 = percentil.value(TimeUnit.MILLISECONDS);
+            } else if (percentil.percentile() == 0.99) {
+                p99 = percentil.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        System.out.printf("%-12d %10d %10.0f %10.1f %10.1f %8d%n", concurrencia, total,
+                total / (double) duracion.toSeconds(), p50, p99, errores.sum());
+    }
+
+    //Cada cliente encadena su siguiente petición en el callback: no hace falta un hilo por conexión
+    private static void enviar(HttpClient client, HttpRequest request, long inicioMedicion, long fin,
+                               Timer latencia, LongAdder errores, CountDownLatch terminados) {
+        long inicio = System.nanoTime();
+        if (inicio >= fin) {
+            terminados.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                //Async: un error inmediato (conexión rechazada) no encadena llamadas en la misma pila
+                .whenCompleteAsync((response, error) -> {
+                    if (inicio >= inicioMedicion) {
+                        if (error != null || response.statusCode() >= 400) {
+                            errores.increment();
+                        } else {
+                            latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                    enviar(client, request, inicioMedicion, fin, latencia, errores, terminados);
+                });
+    }
+}
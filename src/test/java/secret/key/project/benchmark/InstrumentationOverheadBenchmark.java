@@ -0,0 +1,107 @@
+package secret.key.project.benchmark;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.DataKeyService;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.entity.User;
+import secret.key.project.export.ExportMetrics;
+import secret.key.project.repository.PlatformCredentialRepository;
+import secret.key.project.service.PlatformCredentialService;
+import secret.key.project.serviceImpl.PlatformCredentialCache;
+import secret.key.project.serviceImpl.PlatformCredentialServiceImpl;
+import secret.key.project.serviceImpl.TimedPlatformCredentialService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+//Costo de las métricas sobre el camino más corto del servicio (contar con la bóveda en caché, sin Mongo ni logs),
+//con el registry de Prometheus: la llamada directa vs. TimedPlatformCredentialService, y un Timer.record solo con
+//buckets fijos (credential.service, auth.jwt.parse, auth.user.load) o con percentiles en el cliente (credential.export)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+    private static final int ROWS = 200;
+    private static final String USER_ID = "user-bench";
+
+    private PlatformCredentialService directo;
+    private PlatformCredentialService decorador;
+    private Timer buckets;
+    private Timer percentiles;
+
+    @Setup
+    public void setUp() {
+        List<PlatformCredential> credentials = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            credentials.add(new PlatformCredential("id-" + i, USER_ID, "Platform " + i, "https://platform" + i + ".com",
+                    "user" + i + "@mail.com", "S3cr3t-" + i, LocalDate.of(2024, 1, 1)));
+        }
+
+        PlatformCredentialRepository repository = Mockito.mock(PlatformCredentialRepository.class);
+        when(repository.findByUserId(anyString())).thenReturn(credentials);
+
+        PlatformCredentialServiceImpl service = new PlatformCredentialServiceImpl(repository,
+                new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+                new CredentialEncryptor(Mockito.mock(DataKeyService.class), false, false),
+                new ExportMetrics(new SimpleMeterRegistry()), Mockito.mock(MongoIndexConfig.class));
+
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        directo = service;
+        decorador = new TimedPlatformCredentialService(service, registry);
+        buckets = Timer.builder("benchmark.buckets")
+                .serviceLevelObjectives(Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(100))
+                .register(registry);
+        percentiles = Timer.builder("benchmark.percentiles").publishPercentiles(0.5, 0.99).register(registry);
+
+        //El setup de un State por hilo corre en el mismo hilo del benchmark
+        User user = new User();
+        user.setId(USER_ID);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        directo.getAllPlatformCredentials();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public long directo() {
+        return directo.contarPlataformas();
+    }
+
+    @Benchmark
+    public long decorador() {
+        return decorador.contarPlataformas();
+    }
+
+    @Benchmark
+    public void timerBuckets() {
+        buckets.record(1_000, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void timerPercentiles() {
+        percentiles.record(1_000, TimeUnit.NANOSECONDS);
+    }
+}
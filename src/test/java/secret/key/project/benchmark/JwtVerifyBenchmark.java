@@ -0,0 +1,56 @@
+package secret.key.project.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.entity.User;
+import secret.key.project.service.JwtService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Tokens verificados por segundo: clave + parser por llamada (antes) vs. keyring + parser cacheado (ahora)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "DHoEyF2VTNrYGafkeIP9LipcGfVkOt8SeBC9SjViYR8=";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), new MockEnvironment().withProperty("jwt.secret", SECRET));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        User user = new User("user-123", "testuser", "password", List.of("ROLE_USER"), 0);
+        token = jwtService.generateToken(user, user.getId());
+    }
+
+    //Ruta anterior: decodifica la clave y construye un parser nuevo por cada verificación
+    @Benchmark
+    public Claims perCallKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public TokenClaims cachedKeyRingParser() {
+        return jwtService.parseToken(token);
+    }
+}
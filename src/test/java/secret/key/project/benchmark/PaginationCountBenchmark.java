@@ -0,0 +1,102 @@
+package secret.key.project.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Latencia por página: Page (find skip/limit + countDocuments) vs. Slice (find skip/limit + 1, sin count),
+//que es lo que hace Spring Data con cada tipo de retorno. Necesita un MongoDB real (variables de entorno,
+//así llegan también al JVM del fork):
+//  BENCHMARK_MONGO_URI=mongodb://localhost:27017 mvn test-compile -Pbenchmark -Djmh.include=PaginationCountBenchmark
+//La primera corrida siembra BENCHMARK_DOCS credenciales para un usuario (por defecto 2 millones)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationCountBenchmark {
+
+    private static final String USER_ID = "user-bench";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "50"})
+    public int page;
+
+    private MongoClient client;
+    private MongoCollection<Document> collection;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getenv("BENCHMARK_MONGO_URI");
+        if (uri == null) {
+            throw new IllegalStateException("Falta BENCHMARK_MONGO_URI con la URI de un MongoDB de pruebas");
+        }
+        String docsEnv = System.getenv("BENCHMARK_DOCS");
+        long docs = docsEnv != null ? Long.parseLong(docsEnv) : 2_000_000L;
+
+        client = MongoClients.create(uri);
+        collection = client.getDatabase("secretkey_benchmark").getCollection("platform_credentials");
+        collection.createIndex(Indexes.ascending("user_id", "name"), new IndexOptions().name("user_name_idx").unique(true));
+        collection.createIndex(Indexes.ascending("user_id"));
+
+        long existentes = collection.countDocuments(Filters.eq("user_id", USER_ID));
+        List<Document> lote = new ArrayList<>(10_000);
+        for (long i = existentes; i < docs; i++) {
+            lote.add(new Document("user_id", USER_ID)
+                    .append("name", String.format("Platform %09d", i))
+                    .append("url", "https://platform" + i + ".com")
+                    .append("username", "user" + i)
+                    .append("password", "pass" + i));
+            if (lote.size() == 10_000) {
+                collection.insertMany(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            collection.insertMany(lote);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public void pageWithCount(Blackhole blackhole) {
+        List<Document> content = collection.find(Filters.eq("user_id", USER_ID))
+                .skip(page * PAGE_SIZE).limit(PAGE_SIZE).into(new ArrayList<>());
+        blackhole.consume(content);
+        blackhole.consume(collection.countDocuments(Filters.eq("user_id", USER_ID)));
+    }
+
+    @Benchmark
+    public void sliceWithoutCount(Blackhole blackhole) {
+        List<Document> content = collection.find(Filters.eq("user_id", USER_ID))
+                .skip(page * PAGE_SIZE).limit(PAGE_SIZE + 1).into(new ArrayList<>());
+        blackhole.consume(content.size() > PAGE_SIZE);
+        blackhole.consume(content);
+    }
+
+    //Referencia: seek por user_name_idx (endpoint /cursor), el costo no depende de la página
+    @Benchmark
+    public void keysetSeek(Blackhole blackhole) {
+        String lastName = page == 0 ? null : String.format("Platform %09d", (long) page * PAGE_SIZE - 1);
+        List<Document> content = collection.find(lastName == null ? Filters.eq("user_id", USER_ID)
+                        : Filters.and(Filters.eq("user_id", USER_ID), Filters.gt("name", lastName)))
+                .sort(Sorts.ascending("name")).limit(PAGE_SIZE + 1).into(new ArrayList<>());
+        blackhole.consume(content);
+    }
+}
@@ -0,0 +1,110 @@
+package secret.key.project.benchmark;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.*;
+import secret.key.project.export.PdfExportTheme;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+//Filas de PDF renderizadas por segundo: celdas configuradas desde cero (antes) vs. tema + plantillas (ahora)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfRowsBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int FLUSH_ROWS = 200;
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perCellFontsAndColors() throws Exception {
+        Document document = new Document();
+        PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+        document.open();
+
+        Font headerFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE);
+        Font contentFont = new Font(Font.HELVETICA, 10, Font.NORMAL, Color.BLACK);
+
+        PdfPTable table = newTable();
+        for (String header : new String[]{"Platform", "URL", "Username", "Password", "Date created"}) {
+            PdfPCell cell = new PdfPCell(new Paragraph(header, headerFont));
+            cell.setBackgroundColor(new Color(41, 128, 185));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setVerticalAlignment(Element.ALIGN_CENTER);
+            cell.setPadding(10f);
+            cell.setBorder(Rectangle.NO_BORDER);
+            cell.setBorderWidthBottom(1f);
+            cell.setBorderColorBottom(new Color(200, 200, 200));
+            table.addCell(cell);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            for (String value : row(i)) {
+                PdfPCell cell = new PdfPCell(new Paragraph(value, contentFont));
+                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+                cell.setPadding(10f);
+                cell.setBorder(Rectangle.NO_BORDER);
+                cell.setBorderWidthBottom(0.5f);
+                cell.setBorderColorBottom(new Color(220, 220, 220));
+                table.addCell(cell);
+            }
+            flush(document, table, i);
+        }
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void themedCellTemplates() throws Exception {
+        Document document = new Document();
+        PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+        document.open();
+
+        PdfExportTheme.CellFactory cells = PdfExportTheme.newCellFactory();
+        PdfPTable table = newTable();
+        for (String header : new String[]{"Platform", "URL", "Username", "Password", "Date created"}) {
+            table.addCell(cells.header(header));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            for (String value : row(i)) {
+                table.addCell(cells.data(value));
+            }
+            flush(document, table, i);
+        }
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+    }
+
+    private static PdfPTable newTable() {
+        PdfPTable table = new PdfPTable(5);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        return table;
+    }
+
+    private static void flush(Document document, PdfPTable table, int row) throws Exception {
+        if ((row + 1) % FLUSH_ROWS == 0) {
+            document.add(table);
+        }
+    }
+
+    private static String[] row(int i) {
+        return new String[]{"Platform " + i, "https://platform" + i + ".com", "user" + i, "pass" + i, "2025-01-01"};
+    }
+}
@@ -0,0 +1,110 @@
+package secret.key.project.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CacheLoads Test")
+@Slf4j
+public class CacheLoadsTest {
+
+    private AsyncCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder().maximumSize(100).buildAsync();
+    }
+
+    @Nested
+    @DisplayName("Test para get")
+    class getTests {
+
+        @Test
+        @DisplayName("Debe ejecutar el loader una sola vez aunque lleguen varios miss a la vez")
+        void shouldLoadOnceForConcurrentMisses() throws Exception {
+
+            AtomicInteger cargas = new AtomicInteger();
+            CountDownLatch cargando = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+
+            CompletableFuture<String> primero = CompletableFuture.supplyAsync(() -> CacheLoads.get(cache, "user-1", key -> {
+                cargas.incrementAndGet();
+                cargando.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "valor";
+            }));
+            assertTrue(cargando.await(5, TimeUnit.SECONDS));
+
+            //El loader corre fuera del lock: el mapa sigue atendiendo otras claves mientras tanto
+            assertEquals("otro", CacheLoads.get(cache, "user-2", key -> "otro"));
+            CompletableFuture<String> segundo = CompletableFuture.supplyAsync(() -> CacheLoads.get(cache, "user-1", key -> {
+                cargas.incrementAndGet();
+                return "duplicado";
+            }));
+
+            liberar.countDown();
+            assertEquals("valor", primero.get(5, TimeUnit.SECONDS));
+            assertEquals("valor", segundo.get(5, TimeUnit.SECONDS));
+            assertEquals(1, cargas.get());
+            log.info("Prueba de carga única pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe propagar el error del loader y no guardar errores ni nulos")
+        void shouldNotCacheFailuresOrNulls() {
+
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> CacheLoads.get(cache, "user-1", key -> {
+                        throw new IllegalStateException("Mongo no disponible");
+                    }));
+            assertEquals("Mongo no disponible", error.getMessage());
+            assertNull(CacheLoads.get(cache, "user-1", key -> null));
+            assertNull(cache.getIfPresent("user-1"));
+
+            assertEquals("valor", CacheLoads.get(cache, "user-1", key -> "valor"));
+            assertEquals("valor", CacheLoads.get(cache, "user-1", key -> "otro"));
+            log.info("Prueba de errores en la carga pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe reintentar la carga en los hilos que esperaban si la del primero falla")
+        void shouldRetryWaitersWhenLeaderFails() throws Exception {
+
+            CountDownLatch cargando = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+
+            CompletableFuture<String> primero = CompletableFuture.supplyAsync(() -> CacheLoads.get(cache, "user-1", key -> {
+                cargando.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Mongo no disponible");
+            }));
+            assertTrue(cargando.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> segundo = CompletableFuture.supplyAsync(() -> CacheLoads.get(cache, "user-1", key -> "valor"));
+
+            liberar.countDown();
+            Exception error = assertThrows(Exception.class, () -> primero.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertEquals("valor", segundo.get(5, TimeUnit.SECONDS));
+            log.info("Prueba de reintento tras una carga fallida pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package secret.key.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import secret.key.project.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CurrentUser Test")
+@Slf4j
+public class CurrentUserTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    //El build sigue en Java 17: el executor de hilos virtuales se obtiene por reflexión
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("Debe resolver el usuario de cada petición en hilos virtuales que se bloquean")
+    void shouldKeepSecurityContextPerVirtualThread() throws Exception {
+
+        ExecutorService executor = (ExecutorService) java.util.concurrent.Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String userId = "user-" + i;
+                resultados.add(executor.submit(() -> {
+                    User user = new User(userId, "u" + userId, "hash", List.of("ROLE_USER"), 0);
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+                    try {
+                        //Simula la consulta bloqueante: el hilo se desmonta y vuelve, quizás en otro carrier
+                        Thread.sleep(10);
+                        return CurrentUser.getUserId();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < resultados.size(); i++) {
+                assertEquals("user-" + i, resultados.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Prueba de SecurityContext en hilos virtuales pasada correctamente.");
+    }
+}
@@ -17,15 +17,23 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.CursorPageDTO;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.dto.SlicePageDTO;
 import secret.key.project.service.PlatformCredentialService;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.*;
@@ -43,6 +51,7 @@ public class PlatformCredentialControllerTest {
     private PlatformCredentialController platformCredentialController;
 
     private PlatformCredentialDTO platformCredentialDTO;
+    private PlatformCredentialSummaryDTO summaryDTO;
 
     @BeforeEach
     void setUp() {
@@ -53,9 +62,16 @@ public class PlatformCredentialControllerTest {
         platformCredentialDTO.setName("Netflix");
         platformCredentialDTO.setUrl("https://netflix.com");
         platformCredentialDTO.setUsername("testuser");
-        platformCredentialDTO.setPassword("testpassword");
+        platformCredentialDTO.setPassword(SecretValue.of("testpassword"));
         platformCredentialDTO.setCreatedDate(LocalDate.now());
 
+        summaryDTO = new PlatformCredentialSummaryDTO();
+        summaryDTO.setId(platformCredentialDTO.getId());
+        summaryDTO.setName("Netflix");
+        summaryDTO.setUrl("https://netflix.com");
+        summaryDTO.setUsername("testuser");
+        summaryDTO.setCreatedDate(LocalDate.now());
+
     }
 
     @Nested
@@ -66,12 +82,12 @@ public class PlatformCredentialControllerTest {
         void testFindPlatformCredentialsPagination(){
 
             Pageable pageable = PageRequest.of(0, 10);
-            List<PlatformCredentialDTO> platforms = Arrays.asList(platformCredentialDTO);
-            Page<PlatformCredentialDTO> mockPage = new PageImpl<>(platforms, pageable, platforms.size());
+            List<PlatformCredentialSummaryDTO> platforms = Arrays.asList(summaryDTO);
+            Page<PlatformCredentialSummaryDTO> mockPage = new PageImpl<>(platforms, pageable, platforms.size());
 
             when(platformCredentialService.getPlatformCredentialByPagination(pageable)).thenReturn(mockPage);
 
-            ResponseEntity<Page<PlatformCredentialDTO>> result = platformCredentialController.findPlatformCredentialsPagination(0, 10);
+            ResponseEntity<Page<PlatformCredentialSummaryDTO>> result = platformCredentialController.findPlatformCredentialsPagination(0, 10);
 
             assertNotNull(result);
             assertNotNull(result.getBody());
@@ -85,6 +101,51 @@ public class PlatformCredentialControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test GET /slice - Debe retornar paginación sin total exitosamente")
+    class FindPlatformCredentialsSlice{
+
+        @Test
+        void testFindPlatformCredentialsSlice(){
+
+            Pageable pageable = PageRequest.of(0, 10);
+            SlicePageDTO<PlatformCredentialSummaryDTO> mockSlice = new SlicePageDTO<>(List.of(summaryDTO), 0, 10, false, null);
+
+            when(platformCredentialService.getPlatformCredentialBySlice(pageable, false)).thenReturn(mockSlice);
+
+            ResponseEntity<SlicePageDTO<PlatformCredentialSummaryDTO>> result = platformCredentialController.findPlatformCredentialsSlice(0, 10, false);
+
+            assertNotNull(result);
+            assertEquals(HttpStatus.OK, result.getStatusCode());
+            assertEquals("Netflix", result.getBody().getContent().get(0).getName());
+            assertEquals(null, result.getBody().getTotalElements());
+            verify(platformCredentialService, times(1)).getPlatformCredentialBySlice(pageable, false);
+            log.info("Prueba de petición HTTP GET paginación por slice exitosa.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test GET /cursor - Debe retornar paginación por cursor exitosamente")
+    class FindPlatformCredentialsByCursor{
+
+        @Test
+        void testFindPlatformCredentialsByCursor(){
+
+            CursorPageDTO<PlatformCredentialSummaryDTO> mockPage = new CursorPageDTO<>(List.of(summaryDTO), 1, "siguiente");
+
+            when(platformCredentialService.getPlatformCredentialByCursor(null, 20)).thenReturn(mockPage);
+
+            ResponseEntity<CursorPageDTO<PlatformCredentialSummaryDTO>> result = platformCredentialController.findPlatformCredentialsByCursor(null, 20);
+
+            assertNotNull(result);
+            assertEquals(HttpStatus.OK, result.getStatusCode());
+            assertEquals("Netflix", result.getBody().getContent().get(0).getName());
+            assertEquals("siguiente", result.getBody().getNextCursor());
+            verify(platformCredentialService, times(1)).getPlatformCredentialByCursor(null, 20);
+            log.info("Prueba de petición HTTP GET paginación por cursor exitosa.");
+        }
+    }
+
     @Nested
     @DisplayName("Test GET /name - Debe retornar plataforma por nombre exitosamente")
     class FindPlatformCredentialsName{
@@ -106,6 +167,27 @@ public class PlatformCredentialControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test GET /{id}/password - Debe revelar el password sin cachear la respuesta")
+    class RevealPlatformCredentialPassword{
+
+        @Test
+        void testRevealPlatformCredentialPassword(){
+
+            String id = platformCredentialDTO.getId();
+            when(platformCredentialService.revelarPassword(id)).thenReturn(new PlatformCredentialSecretDTO(id, SecretValue.of("testpassword")));
+
+            ResponseEntity<PlatformCredentialSecretDTO> result = platformCredentialController.revealPlatformCredentialPassword(id);
+
+            assertNotNull(result);
+            assertEquals(HttpStatus.OK, result.getStatusCode());
+            assertEquals("testpassword", result.getBody().getPassword().toPlainString());
+            assertEquals("no-store", result.getHeaders().getCacheControl());
+            verify(platformCredentialService, times(1)).revelarPassword(id);
+            log.info("Prueba de petición HTTP GET revelar password exitosa.");
+        }
+    }
+
     @Nested
     @DisplayName("Test POST / - Debe crear plataforma exitosamente")
     class createPlatformCredential{
@@ -139,7 +221,7 @@ public class PlatformCredentialControllerTest {
             updatePlatformCredential.setName("Netflix");
             updatePlatformCredential.setUrl("https://netflix.com");
             updatePlatformCredential.setUsername("testuser");
-            updatePlatformCredential.setPassword("newtestpassword");
+            updatePlatformCredential.setPassword(SecretValue.of("newtestpassword"));
             updatePlatformCredential.setCreatedDate(LocalDate.now());
 
             when(platformCredentialService.updatePlarformCredential(updatePlatformCredential, platformCredentialDTO.getId())).thenReturn(updatePlatformCredential);
@@ -150,7 +232,7 @@ public class PlatformCredentialControllerTest {
             assertNotNull(result.getBody());
             assertEquals(HttpStatus.OK, result.getStatusCode());
             assertEquals("Netflix", result.getBody().getName());
-            assertEquals("newtestpassword", result.getBody().getPassword());
+            assertEquals("newtestpassword", result.getBody().getPassword().toPlainString());
             verify(platformCredentialService, times(1)).updatePlarformCredential(updatePlatformCredential, platformCredentialDTO.getId());
             log.info("Prueba de petición HTTP PUT actualizar plataforma exitosa.");
         }
@@ -180,17 +262,20 @@ public class PlatformCredentialControllerTest {
     class exportPlatformCredentialExcel{
 
         @Test
-        void testExportPlatformCredentialExcel(){
+        void testExportPlatformCredentialExcel() throws Exception {
 
             byte[] mockExcel = new byte[]{0x50, 0x4B, 0x03, 0x04}; // Simulación de archivo Excel en bytes
+            StreamingResponseBody mockBody = outputStream -> outputStream.write(mockExcel);
 
-            when(platformCredentialService.exportarPlataformasExcel()).thenReturn(mockExcel);
+            when(platformCredentialService.exportarPlataformasExcel()).thenReturn(mockBody);
 
-            ResponseEntity<byte[]> result = platformCredentialController.exportPlatformCredentialExcel();
+            ResponseEntity<StreamingResponseBody> result = platformCredentialController.exportPlatformCredentialExcel();
 
             assertNotNull(result);
             assertEquals(HttpStatus.OK, result.getStatusCode());
-            assertEquals(mockExcel, result.getBody());
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            result.getBody().writeTo(written);
+            assertArrayEquals(mockExcel, written.toByteArray());
             verify(platformCredentialService, times(1)).exportarPlataformasExcel();
             log.info("Prueba de petición HTTP GET exportar plataformas a Excel exitosa.");
         }
@@ -201,19 +286,47 @@ public class PlatformCredentialControllerTest {
     class exportPlatformCredentialPdf{
 
         @Test
-        void testExportPlatformCredentialPdf(){
+        void testExportPlatformCredentialPdf() throws Exception {
 
             byte[] mockPdf = new byte[]{0x25, 0x50, 0x44, 0x46}; // Simulación de archivo PDF en bytes
+            StreamingResponseBody mockBody = outputStream -> outputStream.write(mockPdf);
 
-            when(platformCredentialService.exportarPlataformasPDF()).thenReturn(mockPdf);
+            when(platformCredentialService.exportarPlataformasPDF()).thenReturn(mockBody);
 
-            ResponseEntity<byte[]> result = platformCredentialController.exportPlatformCredentialPdf();
+            ResponseEntity<StreamingResponseBody> result = platformCredentialController.exportPlatformCredentialPdf();
 
             assertNotNull(result);
             assertEquals(HttpStatus.OK, result.getStatusCode());
-            assertEquals(mockPdf, result.getBody());
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            result.getBody().writeTo(written);
+            assertArrayEquals(mockPdf, written.toByteArray());
             verify(platformCredentialService, times(1)).exportarPlataformasPDF();
             log.info("Prueba de petición HTTP GET exportar plataformas a PDF exitosa.");
         }
     }
+
+    @Nested
+    @DisplayName("Test GET /export/ndjson - Debe exportar plataformas a NDJSON exitosamente")
+    class exportPlatformCredentialNdjson{
+
+        @Test
+        void testExportPlatformCredentialNdjson() throws Exception {
+
+            byte[] mockNdjson = "{\"name\":\"Netflix\"}\n".getBytes();
+            StreamingResponseBody mockBody = outputStream -> outputStream.write(mockNdjson);
+
+            when(platformCredentialService.exportarPlataformasNdjson()).thenReturn(mockBody);
+
+            ResponseEntity<StreamingResponseBody> result = platformCredentialController.exportPlatformCredentialNdjson();
+
+            assertNotNull(result);
+            assertEquals(HttpStatus.OK, result.getStatusCode());
+            assertEquals("application/x-ndjson;charset=UTF-8", result.getHeaders().getContentType().toString());
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            result.getBody().writeTo(written);
+            assertArrayEquals(mockNdjson, written.toByteArray());
+            verify(platformCredentialService, times(1)).exportarPlataformasNdjson();
+            log.info("Prueba de petición HTTP GET exportar plataformas a NDJSON exitosa.");
+        }
+    }
 }
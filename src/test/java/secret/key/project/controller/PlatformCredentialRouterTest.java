@@ -0,0 +1,133 @@
+package secret.key.project.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+import secret.key.project.error.ReactiveExceptionHandler;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.service.ReactivePlatformCredentialService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlatformCredentialRouterTest")
+@Slf4j
+public class PlatformCredentialRouterTest {
+
+    @Mock
+    private ReactivePlatformCredentialService reactivePlatformCredentialService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        PlatformCredentialHandler handler = new PlatformCredentialHandler(reactivePlatformCredentialService);
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new PlatformCredentialRouter().platformCredentialRoutes(handler))
+                .handlerStrategies(HandlerStrategies.builder()
+                        .exceptionHandler(new ReactiveExceptionHandler(ServerCodecConfigurer.create()))
+                        .build())
+                .build();
+    }
+
+    private static PlatformCredentialSummaryDTO resumen(String name) {
+        PlatformCredentialSummaryDTO summary = new PlatformCredentialSummaryDTO();
+        summary.setName(name);
+        return summary;
+    }
+
+    @Nested
+    @DisplayName("Test GET /stream y /{id}/password")
+    class lecturaTests {
+
+        @Test
+        @DisplayName("Debe emitir una línea JSON por credencial con Accept NDJSON")
+        void shouldStreamNdjson() {
+
+            when(reactivePlatformCredentialService.listarPlataformas()).thenReturn(Flux.just(resumen("github"), resumen("netflix")));
+
+            webTestClient.get().uri("/v1/secret-key/platform/stream")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    .expectBodyList(PlatformCredentialSummaryDTO.class).hasSize(2);
+            log.info("Prueba de GET /stream pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe revelar el password sin permitir caché")
+        void shouldRevealPasswordWithNoStore() {
+
+            when(reactivePlatformCredentialService.revelarPassword("42"))
+                    .thenReturn(Mono.just(new PlatformCredentialSecretDTO("42", SecretValue.of("s3cr3t"))));
+
+            webTestClient.get().uri("/v1/secret-key/platform/42/password")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().cacheControl(CacheControl.noStore())
+                    .expectBody().jsonPath("$.password").isEqualTo("s3cr3t");
+            log.info("Prueba de GET /{id}/password pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe responder 404 con el JSON de error si la plataforma no existe")
+        void shouldMapNotFound() {
+
+            when(reactivePlatformCredentialService.revelarPassword("99"))
+                    .thenReturn(Mono.error(new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el id: 99")));
+
+            webTestClient.get().uri("/v1/secret-key/platform/99/password")
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo(404)
+                    .jsonPath("$.message").isEqualTo("Plataforma no encontrada con el id: 99");
+            log.info("Prueba de GET /{id}/password 404 pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test GET /export/csv")
+    class exportTests {
+
+        @Test
+        @DisplayName("Debe descargar el CSV como adjunto")
+        void shouldExportCsvAsAttachment() {
+
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap("Platform\r\n".getBytes(StandardCharsets.UTF_8));
+            when(reactivePlatformCredentialService.exportarPlataformas(eq(ExportFormat.CSV), any()))
+                    .thenReturn(Mono.just(Flux.just(buffer)));
+
+            webTestClient.get().uri("/v1/secret-key/platform/export/csv")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(ExportFormat.CSV.getMediaType())
+                    .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"lista-plataformas.csv\"")
+                    .expectBody(String.class).isEqualTo("Platform\r\n");
+            log.info("Prueba de GET /export/csv pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package secret.key.project.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import secret.key.project.error.PasswordHashNoDisponibleException;
+import secret.key.project.error.PasswordHashRechazadoException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedPasswordEncoder Test")
+@Slf4j
+public class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CountDownLatch iniciado;
+    private CountDownLatch liberar;
+    private BoundedPasswordEncoder bloqueado;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        iniciado = new CountDownLatch(1);
+        liberar = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (bloqueado != null) {
+            bloqueado.cerrar();
+        }
+    }
+
+    //Un hilo y una cola de un lugar con un hash que no termina hasta que el test lo libera
+    private BoundedPasswordEncoder crearBloqueado(Duration timeout) {
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                iniciado.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        bloqueado = new BoundedPasswordEncoder(lento, meterRegistry, 1, 1, timeout);
+        return bloqueado;
+    }
+
+    @Nested
+    @DisplayName("Test para hashear en el pool acotado")
+    class hashingTests {
+
+        @Test
+        @DisplayName("Debe hashear y verificar con BCrypt registrando la latencia")
+        void shouldHashAndMatchRecordingLatency() {
+
+            BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4),
+                    meterRegistry, 2, 10, Duration.ofSeconds(5));
+            try {
+                String hash = encoder.encode("s3cr3t");
+
+                assertTrue(hash.startsWith("$2a$04$"));
+                assertTrue(encoder.matches("s3cr3t", hash));
+                assertFalse(encoder.matches("otro", hash));
+                assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+                assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+                assertEquals(0.0, meterRegistry.get("auth.password.hash.queue").gauge().value());
+            } finally {
+                encoder.cerrar();
+            }
+            log.info("Prueba de hashing en el pool pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe responder 429 al instante con la cola llena")
+        void shouldRejectWhenQueueIsFull() throws Exception {
+
+            BoundedPasswordEncoder encoder = crearBloqueado(Duration.ofSeconds(5));
+
+            CompletableFuture<String> enCurso = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> enCola = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (meterRegistry.get("auth.password.hash.queue").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(PasswordHashRechazadoException.class, () -> encoder.encode("c"));
+            assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+            liberar.countDown();
+            assertEquals("hash", enCurso.get(5, TimeUnit.SECONDS));
+            assertEquals("hash", enCola.get(5, TimeUnit.SECONDS));
+            log.info("Prueba de cola de hashing llena pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe responder 503 si el hash supera el tiempo máximo")
+        void shouldFailWhenHashTimesOut() {
+
+            BoundedPasswordEncoder encoder = crearBloqueado(Duration.ofMillis(50));
+
+            assertThrows(PasswordHashNoDisponibleException.class, () -> encoder.encode("a"));
+            log.info("Prueba de tiempo máximo de hashing pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para calibrar el costo de BCrypt")
+    class calibracionTests {
+
+        @Test
+        @DisplayName("Debe elegir el mayor costo que no supere el tiempo objetivo")
+        void shouldPickHighestStrengthWithinTarget() {
+
+            long ms = 1_000_000L;
+
+            assertEquals(12, BCryptStrengthCalibrator.costoPara(60 * ms, 250 * ms, 10, 14));
+            assertEquals(10, BCryptStrengthCalibrator.costoPara(300 * ms, 250 * ms, 10, 14));
+            assertEquals(14, BCryptStrengthCalibrator.costoPara(ms, 250 * ms, 10, 14));
+            assertEquals(4, BCryptStrengthCalibrator.calibrar(Duration.ofMillis(1), 4, 6));
+            log.info("Prueba de calibración de BCrypt pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package secret.key.project.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.entity.UserDataKey;
+import secret.key.project.error.PlatformCredentialExporException;
+import secret.key.project.repository.UserDataKeyRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("CredentialEncryptor Test")
+@Slf4j
+public class CredentialEncryptorTest {
+
+    private static final String PASSWORD_KEYSTORE = "test-keystore-password";
+
+    @Mock
+    private UserDataKeyRepository userDataKeyRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private MasterKeyProvider masterKeyProvider;
+    private CredentialEncryptor credentialEncryptor;
+
+    @BeforeEach
+    void setUp() {
+        masterKeyProvider = new MasterKeyProvider(tempDir.resolve("master.p12"), PASSWORD_KEYSTORE, true, "master-key");
+        credentialEncryptor = crearEncryptor(false, false);
+        when(userDataKeyRepository.findById(any())).thenReturn(Optional.empty());
+        when(userDataKeyRepository.insert(any(UserDataKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private CredentialEncryptor crearEncryptor(boolean cifrarUsername, boolean cifrarUrl) {
+        DataKeyService dataKeyService = new DataKeyService(userDataKeyRepository, masterKeyProvider,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        return new CredentialEncryptor(dataKeyService, cifrarUsername, cifrarUrl);
+    }
+
+    private static PlatformCredential credencial(String userId) {
+        return new PlatformCredential("id-1", userId, "Github", "https://github.com", "luis", "s3cr3t", LocalDate.now());
+    }
+
+    @Nested
+    @DisplayName("Test para cifrar y descifrar credenciales")
+    class cifradoTests {
+
+        @Test
+        @DisplayName("Debe cifrar el password en una copia y recuperarlo al descifrar")
+        void shouldEncryptCopyAndDecryptBack() {
+
+            PlatformCredential original = credencial("user-1");
+
+            PlatformCredential cifrada = credentialEncryptor.encrypt(original);
+
+            assertEquals("s3cr3t", original.getPassword());
+            assertTrue(FieldCipher.isSealed(cifrada.getPassword()));
+            assertEquals("luis", cifrada.getUsername());
+            assertEquals("https://github.com", cifrada.getUrl());
+            assertEquals("Github", cifrada.getName());
+
+            credentialEncryptor.decrypt(cifrada);
+            assertEquals("s3cr3t", cifrada.getPassword());
+            log.info("Prueba de cifrado y descifrado pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe cifrar username y url cuando se configuran")
+        void shouldEncryptOptionalFieldsWhenConfigured() {
+
+            CredentialEncryptor completo = crearEncryptor(true, true);
+
+            PlatformCredential cifrada = completo.encrypt(credencial("user-1"));
+
+            assertTrue(FieldCipher.isSealed(cifrada.getUsername()));
+            assertTrue(FieldCipher.isSealed(cifrada.getUrl()));
+            assertEquals("luis", completo.decrypt(cifrada).getUsername());
+            assertEquals("https://github.com", cifrada.getUrl());
+            log.info("Prueba de cifrado de campos opcionales pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un valor cifrado copiado a otro campo o a otro usuario")
+        void shouldRejectValueMovedToAnotherFieldOrUser() {
+
+            String sellado = credentialEncryptor.encrypt("user-1", CredentialEncryptor.PASSWORD, "s3cr3t");
+
+            assertThrows(PlatformCredentialExporException.class,
+                    () -> credentialEncryptor.decrypt("user-1", CredentialEncryptor.USERNAME, sellado));
+            assertThrows(PlatformCredentialExporException.class,
+                    () -> credentialEncryptor.decrypt("user-2", CredentialEncryptor.PASSWORD, sellado));
+            log.info("Prueba de aad por usuario y campo pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe devolver tal cual los valores guardados antes del cifrado")
+        void shouldPassThroughLegacyPlaintext() {
+
+            PlatformCredential legado = credencial("user-1");
+
+            credentialEncryptor.decrypt(legado);
+
+            assertEquals("s3cr3t", legado.getPassword());
+            verifyNoInteractions(userDataKeyRepository);
+            log.info("Prueba de valores sin cifrar pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para las claves de datos")
+    class clavesDeDatosTests {
+
+        @Test
+        @DisplayName("Debe crear la clave envuelta una vez y reutilizarla desde la caché")
+        void shouldCreateWrappedKeyOnceAndCacheIt() {
+
+            for (int i = 0; i < 50; i++) {
+                credentialEncryptor.decrypt(credentialEncryptor.encrypt(credencial("user-1")));
+            }
+
+            ArgumentCaptor<UserDataKey> captor = ArgumentCaptor.forClass(UserDataKey.class);
+            verify(userDataKeyRepository, times(1)).findById("user-1");
+            verify(userDataKeyRepository, times(1)).insert(captor.capture());
+            assertEquals("user-1", captor.getValue().getUserId());
+            assertEquals("master-key", captor.getValue().getMasterKeyAlias());
+            assertEquals(12 + 32 + 16, captor.getValue().getWrappedKey().length);
+            log.info("Prueba de caché de claves de datos pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe usar la clave guardada por otra instancia si el insert choca")
+        void shouldReuseStoredKeyOnDuplicateInsert() {
+
+            //Otra instancia cifra primero y guarda su clave envuelta
+            UserDataKeyRepository otroRepositorio = mock(UserDataKeyRepository.class);
+            ArgumentCaptor<UserDataKey> captor = ArgumentCaptor.forClass(UserDataKey.class);
+            when(otroRepositorio.findById(any())).thenReturn(Optional.empty());
+            CredentialEncryptor otraInstancia = new CredentialEncryptor(new DataKeyService(otroRepositorio, masterKeyProvider,
+                    new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)), false, false);
+            String sellado = otraInstancia.encrypt("user-1", CredentialEncryptor.PASSWORD, "s3cr3t");
+            verify(otroRepositorio).insert(captor.capture());
+
+            when(userDataKeyRepository.findById("user-1")).thenReturn(Optional.empty(), Optional.of(captor.getValue()));
+            when(userDataKeyRepository.insert(any(UserDataKey.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+            assertEquals("s3cr3t", credentialEncryptor.decrypt("user-1", CredentialEncryptor.PASSWORD,
+                    credentialEncryptor.encrypt("user-1", CredentialEncryptor.PASSWORD, "s3cr3t")));
+            assertEquals("s3cr3t", credentialEncryptor.decrypt("user-1", CredentialEncryptor.PASSWORD, sellado));
+            log.info("Prueba de carrera al crear la clave de datos pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe recuperar la misma clave maestra al reabrir el keystore")
+        void shouldReloadSameMasterKey() {
+
+            MasterKeyProvider reabierto = new MasterKeyProvider(tempDir.resolve("master.p12"), PASSWORD_KEYSTORE, false, "master-key");
+
+            assertArrayEquals(masterKeyProvider.getMasterKey().getEncoded(), reabierto.getMasterKey().getEncoded());
+            assertThrows(IllegalStateException.class,
+                    () -> new MasterKeyProvider(tempDir.resolve("otro.p12"), PASSWORD_KEYSTORE, false, "master-key"));
+            assertThrows(IllegalStateException.class,
+                    () -> new MasterKeyProvider(tempDir.resolve("master.p12"), "", false, "master-key"));
+            log.info("Prueba del keystore de la clave maestra pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package secret.key.project.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import secret.key.project.entity.PlatformCredential;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("StreamingRowEncoder Test")
+@Slf4j
+public class StreamingRowEncoderTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2024, 3, 7);
+
+    private static String encode(int bufferSize, RowWriter writer) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamingRowEncoder encoder = new StreamingRowEncoder(outputStream, bufferSize);
+        writer.write(encoder);
+        encoder.flush();
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private interface RowWriter {
+        void write(StreamingRowEncoder encoder) throws IOException;
+    }
+
+    @Nested
+    @DisplayName("Test de filas CSV")
+    class csvTests {
+
+        @Test
+        @DisplayName("Debe escapar comas, comillas y saltos de línea según RFC 4180")
+        void shouldQuoteCsvFieldsWhenNeeded() throws IOException {
+
+            PlatformCredential credential = new PlatformCredential("1", "user-1", "Git,hub",
+                    "https://github.com", "say \"hi\"", "línea\nnueva", FECHA);
+
+            String csv = encode(StreamingRowEncoder.DEFAULT_BUFFER_SIZE, encoder -> {
+                encoder.csvHeader(new String[]{"Platform", "URL", "Username", "Password", "Date created"});
+                encoder.csvRow(credential);
+            });
+
+            assertEquals("Platform,URL,Username,Password,Date created\r\n"
+                    + "\"Git,hub\",https://github.com,\"say \"\"hi\"\"\",\"línea\nnueva\",2024-03-07\r\n", csv);
+            log.info("Prueba de escape CSV pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe dejar vacíos los campos nulos")
+        void shouldWriteEmptyCsvFieldsForNulls() throws IOException {
+
+            PlatformCredential credential = new PlatformCredential("1", "user-1", "Github", null, null, null, null);
+
+            assertEquals("Github,,,,\r\n", encode(64, encoder -> encoder.csvRow(credential)));
+            log.info("Prueba de campos CSV nulos pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test de filas NDJSON")
+    class ndjsonTests {
+
+        @Test
+        @DisplayName("Debe escapar caracteres especiales y de control en JSON")
+        void shouldEscapeJsonStrings() throws IOException {
+
+            PlatformCredential credential = new PlatformCredential("1", "user-1", "a\"b\\c",
+                    "https://x.com", "tab\tuser", "\u0001", FECHA);
+
+            assertEquals("{\"id\":\"1\",\"name\":\"a\\\"b\\\\c\",\"url\":\"https://x.com\",\"username\":\"tab\\tuser\","
+                            + "\"password\":\"\\u0001\",\"createdDate\":\"2024-03-07\"}\n",
+                    encode(64, encoder -> encoder.ndjsonRow(credential)));
+            log.info("Prueba de escape NDJSON pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe escribir null para campos nulos")
+        void shouldWriteJsonNulls() throws IOException {
+
+            PlatformCredential credential = new PlatformCredential(null, "user-1", "Github", null, null, null, null);
+
+            assertEquals("{\"id\":null,\"name\":\"Github\",\"url\":null,\"username\":null,\"password\":null,\"createdDate\":null}\n",
+                    encode(64, encoder -> encoder.ndjsonRow(credential)));
+            log.info("Prueba de nulos NDJSON pasada correctamente.");
+        }
+    }
+
+    @Test
+    @DisplayName("Debe codificar UTF-8 igual que String.getBytes aunque el buffer se vacíe a mitad de fila")
+    void shouldEncodeUtf8AcrossBufferBoundaries() throws IOException {
+
+        String texto = "ñandú €uro 😀 日本";
+        PlatformCredential credential = new PlatformCredential("1", "user-1", texto, texto, texto, texto, FECHA);
+
+        String conBufferChico = encode(16, encoder -> {
+            for (int i = 0; i < 50; i++) {
+                encoder.ndjsonRow(credential);
+            }
+        });
+        String conBufferGrande = encode(StreamingRowEncoder.DEFAULT_BUFFER_SIZE, encoder -> {
+            for (int i = 0; i < 50; i++) {
+                encoder.ndjsonRow(credential);
+            }
+        });
+
+        assertEquals(conBufferGrande, conBufferChico);
+        assertEquals(50, conBufferChico.split("\n").length);
+        assertEquals("{\"id\":\"1\",\"name\":\"" + texto + "\"", conBufferChico.substring(0, conBufferChico.indexOf(",\"url\"")));
+        log.info("Prueba de UTF-8 entre vaciados del buffer pasada correctamente.");
+    }
+}
@@ -0,0 +1,166 @@
+package secret.key.project.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import secret.key.project.dto.PlatformCredentialDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CredentialRowReader Test")
+@Slf4j
+public class CredentialRowReaderTest {
+
+    private static List<String> leer(CredentialRowReader reader, byte[] contenido) throws IOException {
+        List<String> filas = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(contenido), (numero, celdas) -> filas.add(numero + ":" + String.join("|", celdas)));
+        return filas;
+    }
+
+    private static byte[] excel(Workbook workbook) throws IOException {
+        try (workbook) {
+            Sheet sheet = workbook.createSheet("Plataformas");
+            String[][] datos = {{"Platform", "URL", "Username", "Password"}, {"Github", "https://github.com", "luis", "pass,1"}};
+            for (int i = 0; i < datos.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < datos[i].length; j++) {
+                    row.createCell(j).setCellValue(datos[i][j]);
+                }
+            }
+            //Fila con una celda vacía intermedia y un usuario numérico
+            Row row = sheet.createRow(3);
+            row.createCell(0).setCellValue("Netflix");
+            row.createCell(2).setCellValue(12345);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test del lector CSV")
+    class csvTests {
+
+        @Test
+        @DisplayName("Debe leer comillas, comillas escapadas y saltos de línea dentro de un campo")
+        void shouldParseQuotedFields() throws IOException {
+
+            String csv = "\uFEFFPlatform,URL,Username,Password\r\n"
+                    + "Github,https://github.com,luis,\"pa,ss\"\r\n"
+                    + "\r\n"
+                    + "\"Mi \"\"banco\"\"\",,ana,\"linea1\nlinea2\"\r\n"
+                    + "Netflix,https://netflix.com,luis,sin-salto";
+
+            List<String> filas = leer(new CsvCredentialReader(), csv.getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(List.of(
+                    "1:Platform|URL|Username|Password",
+                    "2:Github|https://github.com|luis|pa,ss",
+                    "4:Mi \"banco\"||ana|linea1\nlinea2",
+                    "5:Netflix|https://netflix.com|luis|sin-salto"), filas);
+            log.info("Prueba de lectura CSV pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe detectar el punto y coma como separador desde la cabecera")
+        void shouldDetectSemicolonSeparator() throws IOException {
+
+            String csv = "Nombre;Usuario;Contraseña\nGithub;luis;a,b\n";
+
+            List<String> filas = leer(new CsvCredentialReader(), csv.getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(List.of("1:Nombre|Usuario|Contraseña", "2:Github|luis|a,b"), filas);
+            log.info("Prueba de separador punto y coma pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe fallar con comillas sin cerrar")
+        void shouldFailOnUnclosedQuotes() {
+
+            byte[] csv = "Platform\n\"Github\n".getBytes(StandardCharsets.UTF_8);
+
+            IOException exception = assertThrows(IOException.class, () -> leer(new CsvCredentialReader(), csv));
+            assertTrue(exception.getMessage().contains("fila 2"));
+            log.info("Prueba de comillas sin cerrar pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test del lector XLSX")
+    class xlsxTests {
+
+        @Test
+        @DisplayName("Debe leer la primera hoja con strings compartidos y celdas vacías en su columna")
+        void shouldReadSharedStringsWorkbook() throws IOException {
+
+            List<String> filas = leer(new XlsxCredentialReader(), excel(new XSSFWorkbook()));
+
+            assertEquals(List.of(
+                    "1:Platform|URL|Username|Password",
+                    "2:Github|https://github.com|luis|pass,1",
+                    "4:Netflix||12345"), filas.stream().map(f -> f.replace("null", "")).toList());
+            log.info("Prueba de lectura XLSX pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe leer las exportaciones SXSSF con strings en línea")
+        void shouldReadInlineStringsWorkbook() throws IOException {
+
+            List<String> filas = leer(new XlsxCredentialReader(), excel(new SXSSFWorkbook()));
+
+            assertEquals("2:Github|https://github.com|luis|pass,1", filas.get(1));
+            log.info("Prueba de lectura XLSX SXSSF pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe fallar si el archivo no es un XLSX")
+        void shouldFailOnInvalidWorkbook() {
+
+            byte[] contenido = "Platform,URL\n".getBytes(StandardCharsets.UTF_8);
+
+            assertThrows(IOException.class, () -> leer(new XlsxCredentialReader(), contenido));
+            log.info("Prueba de XLSX inválido pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test de ImportColumns")
+    class columnasTests {
+
+        @Test
+        @DisplayName("Debe ubicar las columnas de KeePass sin importar el orden ni mayúsculas")
+        void shouldMapKeePassHeader() {
+
+            ImportColumns columns = ImportColumns.from(new String[]{"Group", "Title", "Login Name", "Password", "URL", "Notes"});
+
+            PlatformCredentialDTO dto = columns.toDTO(new String[]{"General", " Github ", "luis", "secreto", ""});
+
+            assertEquals("Github", dto.getName());
+            assertEquals("luis", dto.getUsername());
+            assertEquals("secreto", dto.getPassword().toPlainString());
+            assertNull(dto.getUrl());
+            log.info("Prueba de cabecera KeePass pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar una cabecera sin columna de nombre")
+        void shouldRejectHeaderWithoutName() {
+
+            assertThrows(IllegalArgumentException.class, () -> ImportColumns.from(new String[]{"URL", "Password"}));
+            log.info("Prueba de cabecera sin nombre pasada correctamente.");
+        }
+    }
+}
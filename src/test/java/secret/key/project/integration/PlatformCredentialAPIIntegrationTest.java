@@ -16,6 +16,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import secret.key.project.entity.PlatformCredential;
 import secret.key.project.repository.PlatformCredentialRepository;
+import secret.key.project.serviceImpl.PlatformCredentialCache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,12 +37,17 @@ import java.time.LocalDate;
 @DisplayName("API REST Integration Test - PlatformCredential")
 public class PlatformCredentialAPIIntegrationTest {
 
+    private static final String USER_ID = "testuser";
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private PlatformCredentialRepository platformCredentialRepository;
 
+    @Autowired
+    private PlatformCredentialCache platformCredentialCache;
+
     @Container
     static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0").withExposedPorts(27017);
 
@@ -52,15 +58,19 @@ public class PlatformCredentialAPIIntegrationTest {
         log.info("📍 Connection: {}", mongoDBContainer.getReplicaSetUrl());
     }
 
+    //Los datos se escriben directo en el repositorio, sin pasar por el servicio: la caché de credenciales
+    //sigue activa, así que se invalida junto con la limpieza para que la API vuelva a leer de Mongo
     @BeforeEach
     void setUp() {
         platformCredentialRepository.deleteAll();
+        platformCredentialCache.invalidate(USER_ID);
         log.info("🧹 Database cleaned before test");
     }
 
     @AfterEach
     void tearDown() {
         platformCredentialRepository.deleteAll();
+        platformCredentialCache.invalidate(USER_ID);
         log.info("🧹 Database cleaned after test");
     }
 
@@ -77,7 +87,7 @@ public class PlatformCredentialAPIIntegrationTest {
 
             for (int i = 1; i <= 10; i++) {
                 PlatformCredential platforms = new PlatformCredential();
-                platforms.setUserId("testuser");
+                platforms.setUserId(USER_ID);
                 platforms.setName("Platform " + i);
                 platforms.setUrl("https://platform" + i + ".com");
                 platforms.setUsername("user" + i);
@@ -114,7 +124,7 @@ public class PlatformCredentialAPIIntegrationTest {
         void shouldGetPlatformCredentialByNameSuccessfully() throws Exception {
 
             PlatformCredential platform = new PlatformCredential();
-            platform.setUserId("testuser");
+            platform.setUserId(USER_ID);
             platform.setName("LinkedIn");
             platform.setUrl("https://linkedin.com");
             platform.setUsername("usertest");
@@ -188,7 +198,7 @@ public class PlatformCredentialAPIIntegrationTest {
         void shouldUpdatePlatformCredentialSuccessfully() throws Exception {
 
             PlatformCredential platform = new PlatformCredential();
-            platform.setUserId("testuser");
+            platform.setUserId(USER_ID);
             platform.setName("LinkedIn");
             platform.setUrl("https://linkedin.com");
             platform.setUsername("usertest");
@@ -232,7 +242,7 @@ public class PlatformCredentialAPIIntegrationTest {
         void shouldDeletePlatformCredentialSuccessfully() throws Exception {
 
             PlatformCredential platform = new PlatformCredential();
-            platform.setUserId("testuser");
+            platform.setUserId(USER_ID);
             platform.setName("LinkedIn");
             platform.setUrl("https://linkedin.com");
             platform.setUsername("usertest");
@@ -2,24 +2,34 @@ package secret.key.project.integration;
 
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import secret.key.project.crypto.FieldCipher;
+import secret.key.project.crypto.CredentialEncryptor;
 import secret.key.project.entity.PlatformCredential;
 import secret.key.project.repository.PlatformCredentialRepository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,6 +49,9 @@ public class PlatformCredentialIntegrationTest {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private CredentialEncryptor credentialEncryptor;
+
     @Container
     static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0").withExposedPorts(27017);
 
@@ -177,4 +190,164 @@ public class PlatformCredentialIntegrationTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @Order(5)
+    @DisplayName("Test 5 - Stream by UserId with cursor batches - MongoDB")
+    void testStreamByUserIdPlatformCredential() {
+
+        for (int i = 1; i <= 25; i++) {
+            PlatformCredential cred = new PlatformCredential();
+            cred.setName("Platform " + i);
+            cred.setUrl("https://platform" + i + ".com");
+            cred.setUsername("user" + i);
+            cred.setPassword("pass" + i);
+            cred.setUserId("user-123");
+            cred.setCreatedDate(LocalDate.now());
+            platformCredentialRepository.save(cred);
+        }
+
+        long count;
+        try (Stream<PlatformCredential> stream = platformCredentialRepository.streamByUserId("user-123", 10)) {
+            count = stream.filter(cred -> "user-123".equals(cred.getUserId())).count();
+        }
+        Map<String, Integer> longitudes = platformCredentialRepository.findMaxFieldLengthsByUserId("user-123");
+
+        assertEquals(25, count, "El cursor debe recorrer las 25 credenciales en lotes de 10");
+        assertEquals("Platform 25".length(), longitudes.get("name"));
+        assertEquals("https://platform25.com".length(), longitudes.get("url"));
+
+        log.info("✅ Stream por cursor verificado: {} credenciales, longitudes: {}", count, longitudes);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test 6 - Keyset pagination by name with user_name_idx - MongoDB")
+    void testFindByUserIdAfterPlatformCredential() {
+
+        for (int i = 10; i < 35; i++) {
+            PlatformCredential cred = new PlatformCredential();
+            cred.setName("Platform " + i);
+            cred.setUrl("https://platform" + i + ".com");
+            cred.setUsername("user" + i);
+            cred.setPassword("pass" + i);
+            cred.setUserId(i % 5 == 0 ? "user-456" : "user-123");
+            cred.setCreatedDate(LocalDate.now());
+            platformCredentialRepository.save(cred);
+        }
+
+        List<String> nombres = new ArrayList<>();
+        String lastName = null;
+        List<PlatformCredential> pagina;
+        do {
+            pagina = platformCredentialRepository.findSummariesByUserIdAfter("user-123", lastName, 7);
+            pagina.forEach(cred -> nombres.add(cred.getName()));
+            assertTrue(pagina.stream().allMatch(cred -> cred.getPassword() == null), "El listado no debe traer el password");
+            lastName = pagina.isEmpty() ? lastName : pagina.get(pagina.size() - 1).getName();
+        } while (pagina.size() == 7);
+
+        assertEquals(20, nombres.size(), "Deben recorrerse solo las 20 credenciales de user-123");
+        assertEquals(nombres.stream().sorted().toList(), nombres, "Las páginas deben venir ordenadas por nombre");
+        assertEquals(nombres.stream().distinct().count(), nombres.size(), "No debe haber repetidos entre páginas");
+
+        log.info("✅ Paginación keyset verificada: {} credenciales", nombres.size());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Test 7 - Summary slice and secret projection - MongoDB")
+    void testSummaryAndSecretProjectionPlatformCredential() {
+
+        PlatformCredential saved = null;
+        for (int i = 1; i <= 3; i++) {
+            PlatformCredential cred = new PlatformCredential();
+            cred.setName("Platform " + i);
+            cred.setUrl("https://platform" + i + ".com");
+            cred.setUsername("user" + i);
+            cred.setPassword("pass" + i);
+            cred.setUserId("user-123");
+            cred.setCreatedDate(LocalDate.now());
+            saved = platformCredentialRepository.save(cred);
+        }
+
+        Slice<PlatformCredential> slice = platformCredentialRepository.findSummarySliceByUserId("user-123", PageRequest.of(0, 2));
+        Slice<PlatformCredential> siguiente = platformCredentialRepository.findSummarySliceByUserId("user-123", PageRequest.of(1, 2));
+        Page<PlatformCredential> pagina = platformCredentialRepository.findSummaryPageByUserId("user-123", PageRequest.of(0, 2));
+        Optional<PlatformCredential> secreto = platformCredentialRepository.findSecretByIdAndUserId(saved.getId(), "user-123");
+        Optional<PlatformCredential> ajeno = platformCredentialRepository.findSecretByIdAndUserId(saved.getId(), "user-456");
+
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.hasNext());
+        assertEquals(List.of("Platform 1", "Platform 2"), slice.getContent().stream().map(PlatformCredential::getName).toList());
+        assertEquals(List.of("Platform 3"), siguiente.getContent().stream().map(PlatformCredential::getName).toList());
+        assertFalse(siguiente.hasNext());
+        assertEquals(3, pagina.getTotalElements());
+        assertNull(pagina.getContent().get(0).getPassword(), "La página no debe traer el password");
+        assertNull(slice.getContent().get(0).getPassword(), "El resumen no debe traer el password");
+        assertNotNull(slice.getContent().get(0).getCreatedDate());
+        assertTrue(secreto.isPresent());
+        assertTrue(FieldCipher.isSealed(secreto.get().getPassword()), "El password debe leerse cifrado hasta revelarlo");
+        assertEquals("pass3", credentialEncryptor.decrypt("user-123", CredentialEncryptor.PASSWORD, secreto.get().getPassword()));
+        assertNull(secreto.get().getName(), "El secreto solo debe traer id y password");
+        assertTrue(ajeno.isEmpty());
+
+        log.info("✅ Proyecciones verificadas: {} resúmenes, secreto de {}", slice.getContent().size(), secreto.get().getId());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Test 8 - Bulk insert, precheck with $in and delete by ids - MongoDB")
+    void testBulkOperationsPlatformCredential() {
+
+        PlatformCredential existente = new PlatformCredential(null, "user-123", "Gitlab", "https://gitlab.com", "gitlab", "123", LocalDate.now());
+        existente = platformCredentialRepository.save(existente);
+
+        List<PlatformCredential> lote = new ArrayList<>();
+        for (String nombre : List.of("Github", "Gitlab", "Netflix")) {
+            lote.add(new PlatformCredential(new ObjectId().toHexString(), "user-123", nombre, "https://x.com", "user", "pass", LocalDate.now()));
+        }
+
+        Map<String, String> ids = platformCredentialRepository.findIdsByUserIdAndNameIn("user-123", List.of("Github", "Gitlab"));
+        Map<Integer, BulkWriteError> errores = platformCredentialRepository.bulkInsert(lote);
+
+        assertEquals(Map.of("Gitlab", existente.getId()), ids);
+        assertEquals(1, errores.size(), "Solo Gitlab debe chocar con el índice único");
+        assertEquals(11000, errores.get(1).getCode());
+        assertEquals(3, platformCredentialRepository.countByUserId("user-123"), "Desordenado: el resto del lote se escribe");
+
+        long eliminadas = platformCredentialRepository.deleteByUserIdAndIdIn("user-123", List.of(lote.get(0).getId(), lote.get(2).getId()));
+        assertEquals(2, eliminadas);
+
+        log.info("✅ Operaciones por lote verificadas, errores: {}", errores.keySet());
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Test 9 - Unique index rejects duplicates on save and findAndModify - MongoDB")
+    void testUniqueIndexOnSaveAndUpdatePlatformCredential() {
+
+        PlatformCredential github = platformCredentialRepository.save(
+                new PlatformCredential(null, "user-123", "Github", "https://github.com", "github", "123", LocalDate.now()));
+        platformCredentialRepository.save(
+                new PlatformCredential(null, "user-123", "Gitlab", "https://gitlab.com", "gitlab", "123", LocalDate.now()));
+
+        DuplicateKeyException duplicada = assertThrows(DuplicateKeyException.class, () -> platformCredentialRepository.save(
+                new PlatformCredential(null, "user-123", "Github", "https://otro.com", "otro", "456", LocalDate.now())));
+        //GlobalExceptionHandler distingue el nombre repetido por el índice que aparece en el mensaje
+        assertTrue(duplicada.getMessage().contains("user_name_idx"));
+
+        PlatformCredential cambios = new PlatformCredential(null, null, "Github Enterprise", "https://github.com/enterprise", "github", "789", LocalDate.now());
+        Optional<PlatformCredential> actualizada = platformCredentialRepository.updateByIdAndUserId(github.getId(), "user-123", cambios);
+        Optional<PlatformCredential> ajena = platformCredentialRepository.updateByIdAndUserId(github.getId(), "user-456", cambios);
+
+        assertTrue(actualizada.isPresent());
+        assertEquals("Github Enterprise", actualizada.get().getName());
+        assertEquals("789", credentialEncryptor.decrypt("user-123", CredentialEncryptor.PASSWORD, actualizada.get().getPassword()));
+        assertTrue(ajena.isEmpty());
+
+        cambios.setName("Gitlab");
+        assertThrows(DuplicateKeyException.class,
+                () -> platformCredentialRepository.updateByIdAndUserId(github.getId(), "user-123", cambios));
+
+        log.info("✅ Índice único verificado en alta y actualización de {}", github.getId());
+    }
+}
@@ -0,0 +1,191 @@
+package secret.key.project.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.entity.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtService Test")
+@Slf4j
+public class JwtServiceTest {
+
+    private static final String SECRET = "DHoEyF2VTNrYGafkeIP9LipcGfVkOt8SeBC9SjViYR8=";
+    private static final String SECRET_K2 = "c2VjcmV0LWtleS1wcm9qZWN0LXJvdGF0ZWQta2V5LTAwMDE=";
+
+    @TempDir
+    Path directorio;
+
+    private JwtService jwtService;
+    private User user;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = crearServicio(new MockEnvironment().withProperty("jwt.secret", SECRET));
+
+        userId = UUID.randomUUID().toString();
+        user = new User(userId, "testuser", "password", List.of("ROLE_USER"), 0);
+    }
+
+    private static JwtService crearServicio(MockEnvironment environment) {
+        JwtService service = new JwtService(new SimpleMeterRegistry(), environment);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86400000L);
+        service.init();
+        return service;
+    }
+
+    private static void escribirKeyring(Path archivo, String yaml) throws IOException {
+        Files.writeString(archivo, yaml);
+    }
+
+    @Nested
+    @DisplayName("Test de parseToken")
+    class ParseTokenTests {
+
+        @Test
+        @DisplayName("Debe obtener subject, userId y expiración con un único parseo")
+        void shouldParseAllClaimsAtOnce() {
+            String token = jwtService.generateToken(user, userId);
+
+            TokenClaims claims = jwtService.parseToken(token);
+
+            assertEquals("testuser", claims.getSubject());
+            assertEquals(userId, claims.getUserId());
+            assertNotNull(claims.getExpiration());
+            assertFalse(claims.isExpired());
+            assertTrue(jwtService.isTokenValid(claims, user));
+            log.info("Prueba de parseo único del token pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe invalidar los claims de otro usuario")
+        void shouldRejectClaimsOfAnotherUser() {
+            String token = jwtService.generateToken(user, userId);
+            User other = new User(UUID.randomUUID().toString(), "otheruser", "password", List.of("ROLE_USER"), 0);
+
+            assertFalse(jwtService.isTokenValid(jwtService.parseToken(token), other));
+            log.info("Prueba de claims de otro usuario pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar excepción cuando la firma no es válida")
+        void shouldThrowExceptionWhenSignatureIsInvalid() {
+            String token = jwtService.generateToken(user, userId);
+            String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertThrows(io.jsonwebtoken.JwtException.class, () -> jwtService.parseToken(tampered));
+            log.info("Prueba de firma inválida pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test de rotación de claves")
+    class KeyRotationTests {
+
+        @Test
+        @DisplayName("Debe cargar el keyring de jwt.keys y firmar con jwt.active-kid")
+        void shouldLoadKeyRingFromConfiguration() {
+            String oldToken = jwtService.generateToken(user, userId);
+
+            JwtService rotado = crearServicio(new MockEnvironment()
+                    .withProperty("jwt.keys[0].kid", "default")
+                    .withProperty("jwt.keys[0].secret", SECRET)
+                    .withProperty("jwt.keys[1].kid", "k2")
+                    .withProperty("jwt.keys[1].secret", SECRET_K2)
+                    .withProperty("jwt.active-kid", "k2"));
+            String newToken = rotado.generateToken(user, userId);
+
+            assertEquals("k2", rotado.getActiveKeyId());
+            assertEquals("testuser", rotado.parseToken(oldToken).getSubject());
+            assertEquals("testuser", rotado.parseToken(newToken).getSubject());
+            assertThrows(io.jsonwebtoken.JwtException.class, () -> jwtService.parseToken(newToken));
+            log.info("Prueba de keyring desde configuración pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rotar y retirar claves al recargar jwt.keys-file sin reiniciar")
+        void shouldReloadKeyRingFromFile() throws Exception {
+            Path archivo = directorio.resolve("jwt-keys.yml");
+            escribirKeyring(archivo, "jwt:\n  keys:\n    - kid: default\n      secret: " + SECRET + "\n");
+            JwtService service = crearServicio(new MockEnvironment().withProperty("jwt.keys-file", archivo.toString()));
+            String oldToken = service.generateToken(user, userId);
+
+            escribirKeyring(archivo, "jwt:\n  active-kid: k2\n  keys:\n    - kid: default\n      secret: " + SECRET
+                    + "\n    - kid: k2\n      secret: " + SECRET_K2 + "\n");
+            service.recargarClaves();
+            String newToken = service.generateToken(user, userId);
+
+            assertEquals("k2", service.getActiveKeyId());
+            assertEquals("testuser", service.parseToken(oldToken).getSubject());
+
+            escribirKeyring(archivo, "jwt:\n  keys:\n    - kid: k2\n      secret: " + SECRET_K2 + "\n");
+            service.recargarClaves();
+
+            assertThrows(io.jsonwebtoken.JwtException.class, () -> service.parseToken(oldToken));
+            assertEquals("testuser", service.parseToken(newToken).getSubject());
+            log.info("Prueba de recarga del keyring pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe conservar el keyring actual cuando el archivo recargado no es válido")
+        void shouldKeepKeyRingWhenReloadFails() throws Exception {
+            Path archivo = directorio.resolve("jwt-keys.yml");
+            escribirKeyring(archivo, "jwt:\n  keys:\n    - kid: default\n      secret: " + SECRET + "\n");
+            JwtService service = crearServicio(new MockEnvironment().withProperty("jwt.keys-file", archivo.toString()));
+            String token = service.generateToken(user, userId);
+
+            escribirKeyring(archivo, "jwt:\n  active-kid: k9\n  keys:\n    - kid: default\n      secret: " + SECRET + "\n");
+            service.recargarClaves();
+
+            assertEquals("default", service.getActiveKeyId());
+            assertEquals("testuser", service.parseToken(token).getSubject());
+            log.info("Prueba de recarga inválida del keyring pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test de principal stateless y versión de token")
+    class StatelessPrincipalTests {
+
+        @Test
+        @DisplayName("Debe reconstruir el principal desde los claims sin consultar Mongo")
+        void shouldBuildPrincipalFromClaims() {
+            TokenClaims claims = jwtService.parseToken(jwtService.generateToken(user, userId));
+
+            User principal = jwtService.toPrincipal(claims);
+
+            assertEquals(userId, principal.getId());
+            assertEquals("testuser", principal.getUsername());
+            assertEquals(List.of("ROLE_USER"), principal.getRoles());
+            assertNull(principal.getPassword());
+            assertTrue(jwtService.isTokenValid(claims, principal));
+            log.info("Prueba de principal stateless pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe invalidar tokens con una versión anterior a la del usuario")
+        void shouldRejectTokensWithOutdatedVersion() {
+            TokenClaims claims = jwtService.parseToken(jwtService.generateToken(user, userId));
+
+            user.setTokenVersion(1);
+
+            assertFalse(jwtService.isTokenValid(claims, user));
+            log.info("Prueba de versión de token desactualizada pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package secret.key.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserCache;
+import reactor.test.StepVerifier;
+import secret.key.project.dto.TokenClaims;
+import secret.key.project.entity.User;
+import secret.key.project.error.UsuarioException;
+import secret.key.project.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenVersionService Test")
+@Slf4j
+public class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    private TokenVersionService tokenVersionService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(userRepository, userCache, Duration.ofMinutes(1));
+        user = new User(UUID.randomUUID().toString(), "testuser", "hash", List.of("ROLE_USER"), 1);
+    }
+
+    private TokenClaims claims(int tokenVersion) {
+        return new TokenClaims(user.getUsername(), user.getId(), new Date(System.currentTimeMillis() + 60_000),
+                List.of("ROLE_USER"), tokenVersion);
+    }
+
+    private void versionEnMongo(int tokenVersion) {
+        when(userRepository.findTokenVersionById(user.getId()))
+                .thenReturn(Optional.of(new User(user.getId(), null, null, null, tokenVersion)));
+    }
+
+    @Nested
+    @DisplayName("Test de isCurrent")
+    class isCurrentTests {
+
+        @Test
+        @DisplayName("Debe comparar con el tokenVersion de Mongo y cachearlo entre requests")
+        void shouldCompareWithStoredVersionAndCacheIt() {
+
+            versionEnMongo(1);
+
+            assertTrue(tokenVersionService.isCurrent(claims(1)));
+            assertFalse(tokenVersionService.isCurrent(claims(0)));
+            verify(userRepository, times(1)).findTokenVersionById(user.getId());
+            log.info("Prueba de versión mínima cacheada pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe resolver la versión en el stack reactivo con el mismo criterio")
+        void shouldResolveReactiveCheck() {
+
+            versionEnMongo(2);
+
+            StepVerifier.create(tokenVersionService.isCurrentReactive(claims(1)))
+                    .expectNext(false)
+                    .verifyComplete();
+            StepVerifier.create(tokenVersionService.isCurrentReactive(claims(2)))
+                    .expectNext(true)
+                    .verifyComplete();
+            log.info("Prueba de versión mínima reactiva pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test de revokeTokens")
+    class revokeTokensTests {
+
+        @Test
+        @DisplayName("Debe incrementar tokenVersion con un $inc sin guardar el usuario completo")
+        void shouldIncrementVersionWithoutSavingUser() {
+
+            versionEnMongo(1);
+            assertTrue(tokenVersionService.isCurrent(claims(1)));
+            when(userRepository.incrementTokenVersion(user.getId())).thenReturn(1L);
+            versionEnMongo(2);
+
+            tokenVersionService.revokeTokens(user);
+
+            assertFalse(tokenVersionService.isCurrent(claims(1)));
+            verify(userRepository, never()).save(any(User.class));
+            verify(userCache).removeUserFromCache("testuser");
+            log.info("Prueba de revocación con $inc pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar una excepción cuando el usuario no existe")
+        void shouldThrowWhenUserDoesNotExist() {
+
+            when(userRepository.incrementTokenVersion(user.getId())).thenReturn(0L);
+
+            assertThrows(UsuarioException.class, () -> tokenVersionService.revokeTokens(user));
+            verify(userCache, never()).removeUserFromCache(any());
+            log.info("Prueba de revocación de usuario inexistente pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package secret.key.project.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CredentialSearchIndex Test")
+@Slf4j
+public class CredentialSearchIndexTest {
+
+    private static final List<String[]> DOCUMENTOS = List.of(
+            new String[]{"Github", "https://github.com/login", "luis.dev"},
+            new String[]{"Gitlab", "https://www.gitlab.com", "luis"},
+            new String[]{"Netflix", "https://netflix.com", "familia@mail.com"},
+            new String[]{"Banco Interbank", "https://user:pw@interbank.pe:8443/app", "cliente01"},
+            new String[]{"Contraseña WiFi", null, null});
+
+    private static List<String> buscar(CredentialSearchIndex index, String query, int limit) {
+        List<String> nombres = new ArrayList<>();
+        for (int posicion : index.search(query, limit)) {
+            nombres.add(DOCUMENTOS.get(posicion)[0]);
+        }
+        return nombres;
+    }
+
+    @Nested
+    @DisplayName("Test para search")
+    class searchTests {
+
+        @Test
+        @DisplayName("Debe ordenar por prefijo del nombre antes que coincidencias en host o username")
+        void shouldRankNamePrefixFirst() {
+
+            CredentialSearchIndex index = CredentialSearchIndex.build(DOCUMENTOS, Long.MAX_VALUE);
+
+            assertTrue(index.indexado());
+            assertEquals(List.of("Github", "Gitlab"), buscar(index, "git", 10));
+            assertEquals(List.of("Github"), buscar(index, "GITH", 10));
+            assertEquals(List.of("Banco Interbank"), buscar(index, "interbank.pe", 10));
+            assertEquals(List.of("Netflix"), buscar(index, "mail", 10));
+            assertEquals(List.of("Github", "Gitlab"), buscar(index, "luis", 10));
+            assertEquals(List.of(), buscar(index, "amazon", 10));
+            log.info("Prueba de búsqueda por trigramas pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe buscar consultas cortas, sin acentos y respetar el límite")
+        void shouldHandleShortQueriesAccentsAndLimit() {
+
+            CredentialSearchIndex index = CredentialSearchIndex.build(DOCUMENTOS, Long.MAX_VALUE);
+
+            assertEquals(List.of("Github", "Gitlab"), buscar(index, "gi", 10));
+            assertEquals(List.of("Contraseña WiFi"), buscar(index, "contrasena", 10));
+            assertEquals(1, index.search("g", 1).length);
+            assertEquals(0, index.search("  ", 10).length);
+            log.info("Prueba de consultas cortas pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe recorrer los campos sin trigramas cuando supera el presupuesto de memoria")
+        void shouldFallBackToScanWhenOverBudget() {
+
+            CredentialSearchIndex completo = CredentialSearchIndex.build(DOCUMENTOS, Long.MAX_VALUE);
+            CredentialSearchIndex acotado = CredentialSearchIndex.build(DOCUMENTOS, 1024);
+
+            assertFalse(acotado.indexado());
+            assertTrue(acotado.memoria() < completo.memoria());
+            assertEquals(buscar(completo, "git", 10), buscar(acotado, "git", 10));
+            assertEquals(buscar(completo, "mail", 10), buscar(acotado, "mail", 10));
+            log.info("Prueba de presupuesto de memoria pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe extraer solo el host de la url")
+        void shouldExtractHost() {
+
+            assertEquals("gitlab.com", CredentialSearchIndex.host("https://www.gitlab.com/users/sign_in"));
+            assertEquals("interbank.pe", CredentialSearchIndex.host("https://user:pw@interbank.pe:8443/app"));
+            assertEquals("netflix.com", CredentialSearchIndex.host("netflix.com?ref=1"));
+            assertNull(CredentialSearchIndex.host(null));
+            log.info("Prueba de extracción del host pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package secret.key.project.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import secret.key.project.dto.ExportJobDTO;
+import secret.key.project.entity.User;
+import secret.key.project.error.ExportJobNoDisponibleException;
+import secret.key.project.error.ExportJobNoEncontradoException;
+import secret.key.project.error.ExportJobRechazadoException;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.service.PlatformCredentialService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ExportJobServiceImpl Test")
+@Slf4j
+public class ExportJobServiceImplTest {
+
+    private static final String CONTENIDO = "Platform,URL\r\nGithub,https://github.com\r\n";
+
+    @Mock
+    private PlatformCredentialService platformCredentialService;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @Mock
+    private Authentication authentication;
+
+    @TempDir
+    Path directorio;
+
+    private ExportJobServiceImpl exportJobService;
+    private User mockUser;
+
+    @BeforeEach
+    void setUp() {
+
+        mockUser = new User();
+        mockUser.setId("user-123");
+
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(mockUser);
+
+        when(platformCredentialService.contarPlataformas()).thenReturn(2L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            LongConsumer progreso = invocation.getArgument(2);
+            out.write(CONTENIDO.getBytes(StandardCharsets.UTF_8));
+            progreso.accept(2);
+            return null;
+        }).when(platformCredentialService).exportarPlataformas(eq(ExportFormat.CSV), any(), any());
+
+        exportJobService = crearServicio(1, Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportJobService.cerrar();
+        SecurityContextHolder.clearContext();
+    }
+
+    private ExportJobServiceImpl crearServicio(int maxActivosPorUsuario, Duration resultTtl) {
+        return new ExportJobServiceImpl(platformCredentialService, 1, 1, maxActivosPorUsuario, resultTtl, directorio);
+    }
+
+    private ExportJobDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ExportJobDTO job = exportJobService.obtenerExportacion(id);
+        while (("QUEUED".equals(job.getStatus()) || "RUNNING".equals(job.getStatus())) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            job = exportJobService.obtenerExportacion(id);
+        }
+        return job;
+    }
+
+    @Nested
+    @DisplayName("Test para crearExportacion")
+    class crearExportacionTests {
+
+        @Test
+        @DisplayName("Debe completar la exportación y descargar el resultado descifrado")
+        void shouldCompleteExportJobAndDownloadResult() throws Exception {
+
+            ExportJobDTO creado = exportJobService.crearExportacion(ExportFormat.CSV);
+            assertEquals("csv", creado.getFormat());
+            assertEquals(2, creado.getTotal());
+
+            ExportJobDTO job = esperarFin(creado.getId());
+            assertEquals("COMPLETED", job.getStatus());
+            assertEquals(100, job.getProgress());
+            assertNotNull(job.getExpiresAt());
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            exportJobService.descargarExportacion(creado.getId()).writeTo(outputStream);
+            assertEquals(CONTENIDO, outputStream.toString(StandardCharsets.UTF_8));
+
+            //En disco solo queda el contenido cifrado
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                List<Path> temporales = archivos.toList();
+                assertEquals(1, temporales.size());
+                assertFalse(new String(Files.readAllBytes(temporales.get(0)), StandardCharsets.UTF_8).contains("Github"));
+            }
+            log.info("Prueba de exportación asíncrona completa pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar una excepción cuando el usuario no tiene plataformas")
+        void shouldThrowExceptionWhenNoPlatformCredentials() {
+
+            when(platformCredentialService.contarPlataformas()).thenReturn(0L);
+
+            assertThrows(PlatformCredentialNoEncontradoException.class, () -> {
+                exportJobService.crearExportacion(ExportFormat.CSV);
+            });
+            log.info("Prueba de exportación asíncrona sin plataformas pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar exportaciones por encima del límite por usuario")
+        void shouldRejectExportJobsOverUserLimit() throws Exception {
+
+            CountDownLatch liberar = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                liberar.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(platformCredentialService).exportarPlataformas(eq(ExportFormat.PDF), any(), any());
+
+            ExportJobDTO primero = exportJobService.crearExportacion(ExportFormat.PDF);
+
+            assertThrows(ExportJobRechazadoException.class, () -> {
+                exportJobService.crearExportacion(ExportFormat.PDF);
+            });
+            assertThrows(ExportJobNoDisponibleException.class, () -> {
+                exportJobService.descargarExportacion(primero.getId());
+            });
+
+            liberar.countDown();
+            assertEquals("COMPLETED", esperarFin(primero.getId()).getStatus());
+            log.info("Prueba de límite de exportaciones por usuario pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe marcar la exportación como fallida cuando la generación falla")
+        void shouldMarkExportJobAsFailed() throws Exception {
+
+            doThrow(new IllegalStateException("cursor cerrado"))
+                    .when(platformCredentialService).exportarPlataformas(eq(ExportFormat.XLSX), any(), any());
+
+            ExportJobDTO job = esperarFin(exportJobService.crearExportacion(ExportFormat.XLSX).getId());
+
+            assertEquals("FAILED", job.getStatus());
+            assertTrue(job.getError().contains("cursor cerrado"));
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                assertEquals(0, archivos.count());
+            }
+            log.info("Prueba de exportación asíncrona fallida pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe marcar la exportación como fallida y liberar el cupo cuando la generación lanza un Error")
+        void shouldMarkExportJobAsFailedOnError() throws Exception {
+
+            doThrow(new OutOfMemoryError("Java heap space"))
+                    .when(platformCredentialService).exportarPlataformas(eq(ExportFormat.XLSX), any(), any());
+
+            ExportJobDTO job = esperarFin(exportJobService.crearExportacion(ExportFormat.XLSX).getId());
+
+            assertEquals("FAILED", job.getStatus());
+            assertNotNull(job.getExpiresAt());
+            assertEquals("COMPLETED", esperarFin(exportJobService.crearExportacion(ExportFormat.CSV).getId()).getStatus());
+            log.info("Prueba de exportación asíncrona con Error pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para obtenerExportacion y limpieza")
+    class obtenerExportacionTests {
+
+        @Test
+        @DisplayName("Debe ocultar las exportaciones de otro usuario")
+        void shouldNotFindExportJobOfAnotherUser() throws Exception {
+
+            ExportJobDTO job = esperarFin(exportJobService.crearExportacion(ExportFormat.CSV).getId());
+
+            User otroUsuario = new User();
+            otroUsuario.setId("user-456");
+            when(authentication.getPrincipal()).thenReturn(otroUsuario);
+
+            assertThrows(ExportJobNoEncontradoException.class, () -> {
+                exportJobService.obtenerExportacion(job.getId());
+            });
+            log.info("Prueba de exportación de otro usuario pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe eliminar las exportaciones vencidas y su archivo")
+        void shouldRemoveExpiredExportJobs() throws Exception {
+
+            exportJobService.cerrar();
+            exportJobService = crearServicio(1, Duration.ZERO);
+
+            ExportJobDTO job = esperarFin(exportJobService.crearExportacion(ExportFormat.CSV).getId());
+            assertEquals("COMPLETED", job.getStatus());
+
+            exportJobService.limpiarVencidos();
+
+            assertThrows(ExportJobNoEncontradoException.class, () -> {
+                exportJobService.obtenerExportacion(job.getId());
+            });
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                assertEquals(0, archivos.count());
+            }
+            log.info("Prueba de limpieza de exportaciones vencidas pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe conservar la exportación vencida mientras se descarga")
+        void shouldNotRemoveExportJobWhileDownloading() throws Exception {
+
+            exportJobService.cerrar();
+            exportJobService = crearServicio(1, Duration.ZERO);
+
+            ExportJobDTO job = esperarFin(exportJobService.crearExportacion(ExportFormat.CSV).getId());
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    //La limpieza corre a mitad de la descarga
+                    exportJobService.limpiarVencidos();
+                    super.write(b, off, len);
+                }
+            };
+
+            exportJobService.descargarExportacion(job.getId()).writeTo(outputStream);
+
+            assertEquals(CONTENIDO, outputStream.toString(StandardCharsets.UTF_8));
+            assertEquals("COMPLETED", exportJobService.obtenerExportacion(job.getId()).getStatus());
+
+            exportJobService.limpiarVencidos();
+
+            assertThrows(ExportJobNoEncontradoException.class, () -> {
+                exportJobService.obtenerExportacion(job.getId());
+            });
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                assertEquals(0, archivos.count());
+            }
+            log.info("Prueba de limpieza durante la descarga pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package secret.key.project.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import secret.key.project.dto.BulkItemResultDTO;
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.ImportJobDTO;
+import secret.key.project.dto.ImportRejectedRowDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.entity.User;
+import secret.key.project.error.ImportJobNoEncontradoException;
+import secret.key.project.error.ImportJobRechazadoException;
+import secret.key.project.importer.ImportFormat;
+import secret.key.project.service.PlatformCredentialBulkService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ImportJobServiceImpl Test")
+@Slf4j
+public class ImportJobServiceImplTest {
+
+    @Mock
+    private PlatformCredentialBulkService platformCredentialBulkService;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @Mock
+    private Authentication authentication;
+
+    @TempDir
+    Path directorio;
+
+    private ImportJobServiceImpl importJobService;
+    private final List<List<String>> lotes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+
+        User mockUser = new User();
+        mockUser.setId("user-123");
+
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(mockUser);
+
+        //Crea todo salvo los nombres "Duplicada", como haría la validación $in del servicio por lote
+        when(platformCredentialBulkService.crearPlataformas(anyList())).thenAnswer(invocation -> {
+            List<PlatformCredentialDTO> lote = invocation.getArgument(0);
+            lotes.add(lote.stream().map(PlatformCredentialDTO::getName).toList());
+            List<BulkItemResultDTO> items = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                String name = lote.get(i).getName();
+                items.add("Duplicada".equals(name)
+                        ? new BulkItemResultDTO(i, null, name, BulkItemResultDTO.CONFLICT, "Ya existe una plataforma registrada con el nombre: " + name)
+                        : new BulkItemResultDTO(i, "id-" + i, name, BulkItemResultDTO.CREATED, null));
+            }
+            return new BulkResultDTO(items.size(), 0, 0, items);
+        });
+
+        importJobService = crearServicio(1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.cerrar();
+        SecurityContextHolder.clearContext();
+    }
+
+    private ImportJobServiceImpl crearServicio(int maxActivosPorUsuario, int batchSize) {
+        return new ImportJobServiceImpl(platformCredentialBulkService, 1, 1, maxActivosPorUsuario,
+                Duration.ofMinutes(15), directorio, batchSize, 1000);
+    }
+
+    private static MockMultipartFile csv(String contenido) {
+        return new MockMultipartFile("file", "plataformas.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportJobDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobDTO job = importJobService.obtenerImportacion(id);
+        while (("QUEUED".equals(job.getStatus()) || "RUNNING".equals(job.getStatus())) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            job = importJobService.obtenerImportacion(id);
+        }
+        return job;
+    }
+
+    @Nested
+    @DisplayName("Test para crearImportacion")
+    class crearImportacionTests {
+
+        @Test
+        @DisplayName("Debe importar por lotes y reportar las filas rechazadas con su número de fila")
+        void shouldImportInBatchesAndReportRejectedRows() throws Exception {
+
+            String contenido = "Platform,URL,Username,Password\n"
+                    + "Github,https://github.com,luis,p1\n"
+                    + ",https://sin-nombre.com,luis,p2\n"
+                    + "Duplicada,https://dup.com,luis,p3\n"
+                    + "Netflix,https://netflix.com,luis,p4\n"
+                    + "Spotify,https://spotify.com,luis,p5\n";
+
+            ImportJobDTO creado = importJobService.crearImportacion(csv(contenido), ImportFormat.CSV);
+            ImportJobDTO job = esperarFin(creado.getId());
+
+            assertEquals("COMPLETED", job.getStatus());
+            assertEquals(5, job.getProcessed());
+            assertEquals(3, job.getImported());
+            assertEquals(2, job.getRejected());
+            assertEquals(List.of(List.of("Github", "Duplicada"), List.of("Netflix", "Spotify")), lotes);
+            assertEquals(List.of(3L, 4L), job.getRejectedRows().stream().map(ImportRejectedRowDTO::getRow).sorted().toList());
+            assertNotNull(job.getExpiresAt());
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                assertEquals(0, archivos.count());
+            }
+            log.info("Prueba de importación por lotes pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe fallar la importación si la cabecera no tiene columna de nombre")
+        void shouldFailWhenHeaderHasNoNameColumn() throws Exception {
+
+            ImportJobDTO creado = importJobService.crearImportacion(csv("URL,Password\nhttps://github.com,p1\n"), ImportFormat.CSV);
+            ImportJobDTO job = esperarFin(creado.getId());
+
+            assertEquals("FAILED", job.getStatus());
+            assertTrue(job.getError().contains("columna de nombre"));
+            verifyNoInteractions(platformCredentialBulkService);
+            log.info("Prueba de cabecera inválida pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar archivos vacíos y más importaciones activas que el límite por usuario")
+        void shouldRejectEmptyFileAndTooManyActiveJobs() throws Exception {
+
+            CountDownLatch liberar = new CountDownLatch(1);
+            when(platformCredentialBulkService.crearPlataformas(anyList())).thenAnswer(invocation -> {
+                liberar.await(5, TimeUnit.SECONDS);
+                return new BulkResultDTO(0, 0, 0, List.of());
+            });
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> importJobService.crearImportacion(new MockMultipartFile("file", new byte[0]), ImportFormat.CSV));
+
+            ImportJobDTO primero = importJobService.crearImportacion(csv("Platform\nGithub\n"), ImportFormat.CSV);
+            assertThrows(ImportJobRechazadoException.class,
+                    () -> importJobService.crearImportacion(csv("Platform\nNetflix\n"), ImportFormat.CSV));
+
+            liberar.countDown();
+            assertEquals("COMPLETED", esperarFin(primero.getId()).getStatus());
+            log.info("Prueba de límites de importación pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para obtenerImportacion")
+    class obtenerImportacionTests {
+
+        @Test
+        @DisplayName("Debe tratar una importación inexistente o de otro usuario como no encontrada")
+        void shouldNotFindForeignImport() {
+
+            assertThrows(ImportJobNoEncontradoException.class, () -> importJobService.obtenerImportacion("no-existe"));
+            assertThrows(ImportJobNoEncontradoException.class, () -> importJobService.obtenerImportacion(null));
+            log.info("Prueba de importación no encontrada pasada correctamente.");
+        }
+    }
+}
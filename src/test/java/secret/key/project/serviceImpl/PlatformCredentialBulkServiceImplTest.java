@@ -0,0 +1,196 @@
+package secret.key.project.serviceImpl;
+
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.BulkItemResultDTO;
+import secret.key.project.dto.BulkResultDTO;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.entity.User;
+import secret.key.project.repository.PlatformCredentialRepository;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("PlatformCredentialBulkServiceImpl Test")
+@Slf4j
+public class PlatformCredentialBulkServiceImplTest {
+
+    @Mock
+    private PlatformCredentialRepository platformCredentialRepository;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @Mock
+    private Authentication authentication;
+
+    private PlatformCredentialBulkServiceImpl bulkService;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+
+        userId = UUID.randomUUID().toString();
+        User mockUser = new User();
+        mockUser.setId(userId);
+
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(mockUser);
+
+        bulkService = crearServicio(500, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkService.cerrar();
+    }
+
+    private PlatformCredentialBulkServiceImpl crearServicio(int batchSize, int parallelism) {
+        PlatformCredentialCache cache = new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        return new PlatformCredentialBulkServiceImpl(platformCredentialRepository, cache, batchSize, parallelism, 10);
+    }
+
+    private static PlatformCredentialDTO dto(String id, String name) {
+        PlatformCredentialDTO dto = new PlatformCredentialDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setUrl("https://" + name + ".com");
+        dto.setUsername("user");
+        dto.setPassword(SecretValue.of("pass"));
+        return dto;
+    }
+
+    private static List<String> estados(BulkResultDTO result) {
+        return result.getItems().stream().map(BulkItemResultDTO::getStatus).toList();
+    }
+
+    @Nested
+    @DisplayName("Test para crearPlataformas")
+    class crearPlataformasTests {
+
+        @Test
+        @DisplayName("Debe validar con una sola consulta $in y escribir solo los válidos en un bulkWrite")
+        @SuppressWarnings("unchecked")
+        void shouldPrecheckOnceAndBulkInsertValidItems() {
+
+            when(platformCredentialRepository.findIdsByUserIdAndNameIn(eq(userId), anyCollection())).thenReturn(Map.of("Gitlab", "id-existente"));
+            when(platformCredentialRepository.bulkInsert(anyList())).thenReturn(Map.of());
+
+            BulkResultDTO result = bulkService.crearPlataformas(Arrays.asList(
+                    dto(null, "Github"), dto(null, ""), dto(null, "Github"), dto(null, "Gitlab"), dto(null, "Netflix")));
+
+            assertEquals(List.of("CREATED", "INVALID", "CONFLICT", "CONFLICT", "CREATED"), estados(result));
+            assertEquals(2, result.getSucceeded());
+            assertEquals(3, result.getFailed());
+            assertNotNull(result.getItems().get(0).getId());
+
+            ArgumentCaptor<List<PlatformCredential>> captor = ArgumentCaptor.forClass(List.class);
+            verify(platformCredentialRepository, times(1)).findIdsByUserIdAndNameIn(eq(userId), anyCollection());
+            verify(platformCredentialRepository, times(1)).bulkInsert(captor.capture());
+            assertEquals(2, captor.getValue().size());
+            assertTrue(captor.getValue().stream().allMatch(cred -> userId.equals(cred.getUserId()) && cred.getCreatedDate() != null));
+            verify(platformCredentialRepository, never()).save(any(PlatformCredential.class));
+            log.info("Prueba de alta por lote pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe partir en lotes y marcar como conflicto las claves duplicadas de Mongo")
+        void shouldSplitIntoBatchesAndReportDuplicateKeys() {
+
+            bulkService.cerrar();
+            bulkService = crearServicio(2, 2);
+
+            when(platformCredentialRepository.findIdsByUserIdAndNameIn(eq(userId), anyCollection())).thenReturn(Map.of());
+            when(platformCredentialRepository.bulkInsert(anyList())).thenAnswer(invocation -> {
+                List<PlatformCredential> lote = invocation.getArgument(0);
+                return "P3".equals(lote.get(0).getName())
+                        ? Map.of(0, new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0))
+                        : Map.of();
+            });
+
+            BulkResultDTO result = bulkService.crearPlataformas(List.of(
+                    dto(null, "P1"), dto(null, "P2"), dto(null, "P3"), dto(null, "P4"), dto(null, "P5")));
+
+            assertEquals(List.of("CREATED", "CREATED", "CONFLICT", "CREATED", "CREATED"), estados(result));
+            verify(platformCredentialRepository, times(3)).bulkInsert(anyList());
+            log.info("Prueba de alta en varios lotes pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar lotes vacíos o por encima del máximo")
+        void shouldRejectEmptyOrOversizedBatch() {
+
+            List<PlatformCredentialDTO> grande = new ArrayList<>();
+            for (int i = 0; i < 11; i++) {
+                grande.add(dto(null, "P" + i));
+            }
+
+            assertThrows(IllegalArgumentException.class, () -> bulkService.crearPlataformas(List.of()));
+            assertThrows(IllegalArgumentException.class, () -> bulkService.crearPlataformas(grande));
+            verifyNoInteractions(platformCredentialRepository);
+            log.info("Prueba de límites del lote pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para actualizarPlataformas y eliminarPlataformas")
+    class actualizarEliminarTests {
+
+        @Test
+        @DisplayName("Debe reportar no encontradas y nombres de otra plataforma en la actualización")
+        void shouldReportNotFoundAndNameConflictsOnUpdate() {
+
+            when(platformCredentialRepository.findExistingIdsByUserId(eq(userId), anyCollection())).thenReturn(Set.of("id-1", "id-2"));
+            when(platformCredentialRepository.findIdsByUserIdAndNameIn(eq(userId), anyCollection()))
+                    .thenReturn(Map.of("Github", "id-1", "Gitlab", "id-9"));
+            when(platformCredentialRepository.bulkUpdate(eq(userId), anyList())).thenReturn(Map.of());
+
+            BulkResultDTO result = bulkService.actualizarPlataformas(List.of(
+                    dto("id-1", "Github"), dto("id-2", "Gitlab"), dto("id-3", "Netflix"), dto(null, "Sin id")));
+
+            assertEquals(List.of("UPDATED", "CONFLICT", "NOT_FOUND", "INVALID"), estados(result));
+            verify(platformCredentialRepository, times(1)).bulkUpdate(eq(userId), argThat(lote -> lote.size() == 1));
+            log.info("Prueba de actualización por lote pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe eliminar con un solo deleteMany las plataformas existentes del usuario")
+        void shouldDeleteExistingIdsInOneQuery() {
+
+            when(platformCredentialRepository.findExistingIdsByUserId(eq(userId), anyCollection())).thenReturn(Set.of("id-1", "id-2"));
+
+            BulkResultDTO result = bulkService.eliminarPlataformas(List.of("id-1", "id-2", "id-1", "id-3"));
+
+            assertEquals(List.of("DELETED", "DELETED", "CONFLICT", "NOT_FOUND"), estados(result));
+            verify(platformCredentialRepository, times(1)).deleteByUserIdAndIdIn(userId, List.of("id-1", "id-2"));
+            log.info("Prueba de eliminación por lote pasada correctamente.");
+        }
+    }
+}
@@ -8,31 +8,53 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.DataKeyService;
+import secret.key.project.crypto.FieldCipher;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.CursorPageDTO;
+import secret.key.project.dto.KeysetCursor;
 import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.dto.PlatformCredentialSummaryDTO;
+import secret.key.project.dto.SlicePageDTO;
 import secret.key.project.entity.PlatformCredential;
 import secret.key.project.entity.User;
-import secret.key.project.error.PlatformCredentialExporException;
 import secret.key.project.error.PlatformCredentialNoEncontradoException;
 import secret.key.project.error.UsuarioException;
 import secret.key.project.error.UsuarioExceptionNoContentException;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.export.ExportMetrics;
 import secret.key.project.repository.PlatformCredentialRepository;
 
+import javax.crypto.KeyGenerator;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +72,24 @@ public class PlatformCredentialServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private PlatformCredentialCache platformCredentialCache =
+            new PlatformCredentialCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+
+    @Mock
+    private DataKeyService dataKeyService;
+
+    @Spy
+    private CredentialEncryptor credentialEncryptor = new CredentialEncryptor(mock(DataKeyService.class), false, false);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ExportMetrics exportMetrics = new ExportMetrics(meterRegistry);
+
+    @Mock
+    private MongoIndexConfig mongoIndexConfig;
+
     @InjectMocks
     private PlatformCredentialServiceImpl platformCredentialServiceImpl;
 
@@ -71,6 +111,7 @@ public class PlatformCredentialServiceImplTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getPrincipal()).thenReturn(mockUser);
+        when(mongoIndexConfig.isNombreUnicoConfirmado()).thenReturn(true);
 
         //Datos de prueba
         platformCredential = new PlatformCredential();
@@ -87,7 +128,7 @@ public class PlatformCredentialServiceImplTest {
         platformCredentialDTO.setName("Github");
         platformCredentialDTO.setUrl("https://github.com");
         platformCredentialDTO.setUsername("user_github");
-        platformCredentialDTO.setPassword("pasword123");
+        platformCredentialDTO.setPassword(SecretValue.of("pasword123"));
         platformCredentialDTO.setCreatedDate(LocalDate.now());
     }
 
@@ -129,14 +170,15 @@ public class PlatformCredentialServiceImplTest {
             List<PlatformCredential> platformsCredentials = Arrays.asList(platformCredential);
             Page<PlatformCredential> page = new PageImpl<>(platformsCredentials, pageable, 1);
 
-            when(platformCredentialRepository.findByUserId(pageable, userId)).thenReturn(page);
+            when(platformCredentialRepository.findSummaryPageByUserId(userId, pageable)).thenReturn(page);
 
-            Page<PlatformCredentialDTO> result = platformCredentialServiceImpl.getPlatformCredentialByPagination(pageable);
+            Page<PlatformCredentialSummaryDTO> result = platformCredentialServiceImpl.getPlatformCredentialByPagination(pageable);
 
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
             assertEquals("Github", result.getContent().get(0).getName());
-            verify(platformCredentialRepository, times(1)).findByUserId(pageable, userId);
+            verify(platformCredentialRepository, times(1)).findSummaryPageByUserId(userId, pageable);
+            verify(platformCredentialRepository, never()).findByUserId(pageable, userId);
             log.info("Prueba de paginación de credenciales de plataformas pasada correctamente.");
         }
 
@@ -156,7 +198,7 @@ public class PlatformCredentialServiceImplTest {
             Pageable pageable = PageRequest.of(0, 10);
             Page<PlatformCredential> emptyPage = new PageImpl<>(Collections.emptyList());
 
-            when(platformCredentialRepository.findByUserId(pageable, userId)).thenReturn(emptyPage);
+            when(platformCredentialRepository.findSummaryPageByUserId(userId, pageable)).thenReturn(emptyPage);
 
             assertThrows(UsuarioExceptionNoContentException.class, () -> {
                 platformCredentialServiceImpl.getPlatformCredentialByPagination(pageable);
@@ -180,22 +222,36 @@ public class PlatformCredentialServiceImplTest {
         }
 
         @Test
-        @DisplayName("Debe lanzar una excepción cuando la Plataforma ya existe")
+        @DisplayName("Debe propagar la clave duplicada del índice único cuando la Plataforma ya existe")
         void shouldThrowExceptionWhenPlatformCredentialIsExists() {
 
-            when(platformCredentialRepository.existsByUserIdAndName(userId, platformCredentialDTO.getName())).thenReturn(true);
+            when(platformCredentialRepository.save(any(PlatformCredential.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
-            assertThrows(PlatformCredentialExporException.class, () -> {
+            assertThrows(DuplicateKeyException.class, () -> {
                 platformCredentialServiceImpl.createPlatformCredential(platformCredentialDTO);
             });
             log.info("Prueba de crear plataforma existente pasada correctamente");
         }
 
+        @Test
+        @DisplayName("Debe consultar el nombre antes de guardar mientras el índice único no está confirmado")
+        void shouldCheckNameWhileIndexIsNotConfirmed() {
+
+            when(mongoIndexConfig.isNombreUnicoConfirmado()).thenReturn(false);
+            when(platformCredentialRepository.existsByUserIdAndName(userId, "Github")).thenReturn(true);
+
+            DuplicateKeyException exception = assertThrows(DuplicateKeyException.class, () -> {
+                platformCredentialServiceImpl.createPlatformCredential(platformCredentialDTO);
+            });
+            assertTrue(exception.getMessage().contains(MongoIndexConfig.INDICE_USUARIO_NOMBRE));
+            verify(platformCredentialRepository, never()).save(any(PlatformCredential.class));
+            log.info("Prueba de consulta previa sin índice confirmado pasada correctamente");
+        }
+
         @Test
         @DisplayName("Debe crear la Plataforma Credential correctamente")
         void shouldCreatePlatformCredentialSuccessfully() {
 
-            when(platformCredentialRepository.existsByUserIdAndName(userId, platformCredentialDTO.getName())).thenReturn(false);
             when(platformCredentialRepository.save(any(PlatformCredential.class))).thenReturn(platformCredential);
 
             PlatformCredentialDTO result = platformCredentialServiceImpl.createPlatformCredential(platformCredentialDTO);
@@ -204,6 +260,7 @@ public class PlatformCredentialServiceImplTest {
             assertEquals("Github", result.getName());
             assertEquals("https://github.com", result.getUrl());
             verify(platformCredentialRepository, times(1)).save(any(PlatformCredential.class));
+            verifyNoMoreInteractions(platformCredentialRepository);
             log.info("Prueba de crear plataforma Credential correctamente");
         }
     }
@@ -236,7 +293,7 @@ public class PlatformCredentialServiceImplTest {
         @DisplayName("Debe lanzar una excepción cuando el id de la plataforma credential no existe")
         void shouldThrowExceptionWhenPlatformCredentialIdDoesNotExist() {
 
-            when(platformCredentialRepository.findByIdAndUserId(platformCredentialDTO.getId(), userId)).thenReturn(Optional.empty());
+            when(platformCredentialRepository.updateByIdAndUserId(eq(userId), eq(userId), any(PlatformCredential.class))).thenReturn(Optional.empty());
 
             assertThrows(UsuarioExceptionNoContentException.class, () -> {
                 platformCredentialServiceImpl.updatePlarformCredential(platformCredentialDTO, userId);
@@ -254,18 +311,33 @@ public class PlatformCredentialServiceImplTest {
             updatedDTO.setName("GitLab");
             updatedDTO.setUrl("https://gitlab.com");
             updatedDTO.setUsername("testuser");
-            updatedDTO.setPassword("password123");
+            updatedDTO.setPassword(SecretValue.of("password123"));
             updatedDTO.setCreatedDate(LocalDate.now());
 
-            when(platformCredentialRepository.findByIdAndUserId(credentialId, userId)).thenReturn(Optional.of(platformCredential));
-            when(platformCredentialRepository.existsByUserIdAndName(userId, "GitLab")).thenReturn(true);
+            when(platformCredentialRepository.updateByIdAndUserId(eq(credentialId), eq(userId), any(PlatformCredential.class)))
+                    .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
-            assertThrows(IllegalArgumentException.class, () -> {
+            assertThrows(DuplicateKeyException.class, () -> {
                 platformCredentialServiceImpl.updatePlarformCredential(updatedDTO, credentialId);
             });
             log.info("Prueba de actualizar plataforma credential ya existente pasada correctamente");
         }
 
+        @Test
+        @DisplayName("Debe rechazar el nombre de otra plataforma mientras el índice único no está confirmado")
+        void shouldCheckOtherPlatformNameWhileIndexIsNotConfirmed() {
+
+            String credentialId = platformCredential.getId();
+            when(mongoIndexConfig.isNombreUnicoConfirmado()).thenReturn(false);
+            when(platformCredentialRepository.existsByUserIdAndNameAndIdNot(userId, "Github", credentialId)).thenReturn(true);
+
+            assertThrows(DuplicateKeyException.class, () -> {
+                platformCredentialServiceImpl.updatePlarformCredential(platformCredentialDTO, credentialId);
+            });
+            verify(platformCredentialRepository, never()).updateByIdAndUserId(anyString(), anyString(), any(PlatformCredential.class));
+            log.info("Prueba de consulta previa al actualizar sin índice confirmado pasada correctamente");
+        }
+
         @Test
         @DisplayName("Debe actualizar la Plataforma Credential correctamente")
         void shouldUpdatePlatformCredentialSuccessfully() {
@@ -276,19 +348,23 @@ public class PlatformCredentialServiceImplTest {
             updatedDTO.setName("Github");
             updatedDTO.setUrl("https://github.com/updated");
             updatedDTO.setUsername("testuser");
-            updatedDTO.setPassword("password123");
+            updatedDTO.setPassword(SecretValue.of("password123"));
             updatedDTO.setCreatedDate(LocalDate.now());
 
-            when(platformCredentialRepository.findByIdAndUserId(credentialId, userId)).thenReturn(Optional.of(platformCredential));
-            when(platformCredentialRepository.save(any(PlatformCredential.class))).thenReturn(platformCredential);
+            PlatformCredential actualizada = new PlatformCredential(credentialId, userId, "Github",
+                    "https://github.com/updated", "testuser", "password123", LocalDate.now());
+            when(platformCredentialRepository.updateByIdAndUserId(eq(credentialId), eq(userId), any(PlatformCredential.class)))
+                    .thenReturn(Optional.of(actualizada));
 
             PlatformCredentialDTO result = platformCredentialServiceImpl.updatePlarformCredential(updatedDTO, credentialId);
 
             assertNotNull(result);
             assertEquals("Github", result.getName());
             assertEquals("https://github.com/updated", result.getUrl());
-            verify(platformCredentialRepository, times(1)).save(any(PlatformCredential.class));
-            verify(platformCredentialRepository, never()).existsByUserIdAndName(anyString(), anyString());
+            verify(platformCredentialRepository, times(1)).updateByIdAndUserId(eq(credentialId), eq(userId),
+                    argThat(cambios -> "https://github.com/updated".equals(cambios.getUrl())));
+            verify(platformCredentialRepository, never()).findByIdAndUserId(anyString(), anyString());
+            verify(platformCredentialRepository, never()).save(any(PlatformCredential.class));
 
             log.info("Prueba de actualizar plataforma Credential correctamente");
 
@@ -416,7 +492,7 @@ public class PlatformCredentialServiceImplTest {
             List<PlatformCredential> credentials = Arrays.asList(platformCredential);
             when(platformCredentialRepository.findByUserId(userId)).thenReturn(credentials);
 
-            List<PlatformCredentialDTO> result = platformCredentialServiceImpl.getAllPlatformCredentials();
+            List<PlatformCredentialSummaryDTO> result = platformCredentialServiceImpl.getAllPlatformCredentials();
 
             assertNotNull(result);
             assertEquals(credentials.size(), result.size());
@@ -425,6 +501,204 @@ public class PlatformCredentialServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test para getPlatformCredentialBySlice")
+    class getPlatformCredentialBySliceTests {
+
+        @Test
+        @DisplayName("Debe devolver el slice sin consultar el total")
+        void shouldReturnSliceWithoutCount() {
+
+            Pageable pageable = PageRequest.of(0, 1);
+            when(platformCredentialRepository.findSummarySliceByUserId(userId, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(platformCredential), pageable, true));
+
+            SlicePageDTO<PlatformCredentialSummaryDTO> slice = platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, false);
+
+            assertEquals(1, slice.getContent().size());
+            assertTrue(slice.isHasNext());
+            assertEquals(null, slice.getTotalElements());
+            verify(platformCredentialRepository, never()).countByUserId(anyString());
+            verify(platformCredentialRepository, never()).findByUserId(any(Pageable.class), anyString());
+            log.info("Prueba de paginación por slice sin total pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe calcular el total solo si se pide, cachearlo e invalidarlo al crear")
+        void shouldComputeTotalLazilyAndCacheIt() {
+
+            Pageable pageable = PageRequest.of(0, 10);
+            when(platformCredentialRepository.findSummarySliceByUserId(userId, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(platformCredential), pageable, false));
+            when(platformCredentialRepository.countByUserId(userId)).thenReturn(1L);
+
+            assertEquals(Long.valueOf(1), platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, true).getTotalElements());
+            assertEquals(Long.valueOf(1), platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, true).getTotalElements());
+            verify(platformCredentialRepository, times(1)).countByUserId(userId);
+
+            when(platformCredentialRepository.save(any(PlatformCredential.class))).thenReturn(platformCredential);
+            when(platformCredentialRepository.countByUserId(userId)).thenReturn(2L);
+            platformCredentialServiceImpl.createPlatformCredential(platformCredentialDTO);
+
+            assertEquals(Long.valueOf(2), platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, true).getTotalElements());
+            verify(platformCredentialRepository, times(2)).countByUserId(userId);
+            log.info("Prueba de total diferido y cacheado pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar una excepción cuando el usuario no tiene plataformas")
+        void shouldThrowExceptionWhenFirstSliceIsEmpty() {
+
+            Pageable pageable = PageRequest.of(0, 10);
+            when(platformCredentialRepository.findSummarySliceByUserId(userId, pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+            assertThrows(UsuarioExceptionNoContentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, false);
+            });
+            log.info("Prueba de slice vacío pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un tamaño de página mayor al máximo")
+        void shouldThrowExceptionWhenSliceSizeExceedsMaximum() {
+
+            Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialBySlice(pageable, false);
+            });
+            verify(platformCredentialRepository, never()).findSummarySliceByUserId(any(), any());
+            log.info("Prueba de slice con tamaño excesivo pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para revelarPassword")
+    class revelarPasswordTests {
+
+        @Test
+        @DisplayName("Debe revelar solo el password de la credencial del usuario")
+        void shouldRevealPassword() {
+
+            PlatformCredential secreto = new PlatformCredential();
+            secreto.setId(platformCredential.getId());
+            secreto.setPassword("pasword123");
+            when(platformCredentialRepository.findSecretByIdAndUserId(platformCredential.getId(), userId)).thenReturn(Optional.of(secreto));
+
+            PlatformCredentialSecretDTO result = platformCredentialServiceImpl.revelarPassword(platformCredential.getId());
+
+            assertEquals(platformCredential.getId(), result.getId());
+            assertEquals("pasword123", result.getPassword().toPlainString());
+            verify(platformCredentialRepository, never()).findByIdAndUserId(anyString(), anyString());
+            log.info("Prueba de revelar password pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe leer sin descifrar y descifrar el password solo al leerlo del DTO")
+        void shouldDecryptPasswordOnlyOnAccess() throws Exception {
+
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            when(dataKeyService.getDataKey(userId)).thenReturn(keyGenerator.generateKey());
+            CredentialEncryptor encryptor = spy(new CredentialEncryptor(dataKeyService, false, false));
+            ReflectionTestUtils.setField(platformCredentialServiceImpl, "credentialEncryptor", encryptor);
+
+            String sellado = encryptor.encrypt(userId, CredentialEncryptor.PASSWORD, "pasword123");
+            PlatformCredential guardada = new PlatformCredential("id-1", userId, "Github", "https://github.com", "luis", sellado, LocalDate.now());
+            when(platformCredentialRepository.findByNameAndUserId("Github", userId)).thenReturn(Optional.of(guardada));
+
+            PlatformCredentialDTO result = platformCredentialServiceImpl.getPlatformCredentialByName("Github");
+
+            assertTrue(result.getPassword().isSealed());
+            verify(encryptor, never()).decryptToChars(anyString(), anyString(), anyString());
+
+            char[] password = result.getPassword().reveal();
+            assertEquals("pasword123", new String(password));
+            Arrays.fill(password, '\0');
+            verify(encryptor, times(1)).decryptToChars(userId, CredentialEncryptor.PASSWORD, sellado);
+            assertTrue(FieldCipher.isSealed(sellado));
+            log.info("Prueba de descifrado al acceder pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar una excepción cuando la credencial no es del usuario")
+        void shouldThrowExceptionWhenCredentialNotFound() {
+
+            when(platformCredentialRepository.findSecretByIdAndUserId("otro-id", userId)).thenReturn(Optional.empty());
+
+            assertThrows(PlatformCredentialNoEncontradoException.class, () -> {
+                platformCredentialServiceImpl.revelarPassword("otro-id");
+            });
+            log.info("Prueba de revelar password inexistente pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para getPlatformCredentialByCursor")
+    class getPlatformCredentialByCursorTests {
+
+        private List<PlatformCredential> credenciales(int desde, int hasta) {
+            List<PlatformCredential> lista = new ArrayList<>();
+            for (int i = desde; i < hasta; i++) {
+                lista.add(new PlatformCredential("id-" + i, userId, "Platform " + i, "https://p" + i + ".com", "user" + i, "pass" + i, LocalDate.now()));
+            }
+            return lista;
+        }
+
+        @Test
+        @DisplayName("Debe devolver la página y un cursor hacia la siguiente sin contar documentos")
+        void shouldReturnPageAndNextCursor() {
+
+            when(platformCredentialRepository.findSummariesByUserIdAfter(userId, null, 3)).thenReturn(credenciales(0, 3));
+            when(platformCredentialRepository.findSummariesByUserIdAfter(userId, "Platform 1", 3)).thenReturn(credenciales(2, 3));
+
+            CursorPageDTO<PlatformCredentialSummaryDTO> primera = platformCredentialServiceImpl.getPlatformCredentialByCursor(null, 2);
+
+            assertEquals(2, primera.getSize());
+            assertEquals("Platform 1", primera.getContent().get(1).getName());
+            assertNotNull(primera.getNextCursor());
+
+            CursorPageDTO<PlatformCredentialSummaryDTO> segunda = platformCredentialServiceImpl.getPlatformCredentialByCursor(primera.getNextCursor(), 2);
+
+            assertEquals(1, segunda.getSize());
+            assertEquals("Platform 2", segunda.getContent().get(0).getName());
+            assertEquals(null, segunda.getNextCursor());
+            verify(platformCredentialRepository, never()).findByUserId(any(Pageable.class), anyString());
+            log.info("Prueba de paginación por cursor pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar cursores inválidos o de otro usuario")
+        void shouldRejectInvalidOrForeignCursor() {
+
+            String cursorAjeno = new KeysetCursor("otro-usuario", "Platform 1").encode();
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialByCursor(cursorAjeno, 10);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialByCursor("no-es-un-cursor", 10);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialByCursor(null, 0);
+            });
+            verify(platformCredentialRepository, never()).findSummariesByUserIdAfter(anyString(), any(), anyInt());
+            log.info("Prueba de cursores inválidos pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar una excepción cuando el usuario no tiene plataformas")
+        void shouldThrowExceptionWhenFirstPageIsEmpty() {
+
+            when(platformCredentialRepository.findSummariesByUserIdAfter(userId, null, 11)).thenReturn(List.of());
+
+            assertThrows(UsuarioExceptionNoContentException.class, () -> {
+                platformCredentialServiceImpl.getPlatformCredentialByCursor(null, 10);
+            });
+            log.info("Prueba de paginación por cursor vacía pasada correctamente.");
+        }
+    }
+
     @Nested
     @DisplayName("Test para exportPlatformCredentialsPDF")
     class exportPlatformCredentialsPDFTests {
@@ -433,7 +707,7 @@ public class PlatformCredentialServiceImplTest {
         @DisplayName("Debe lanzar una excepción cuando no hay plataformas credential para exportar")
         void shouldThrowExceptionWhenNoPlatformCredentialsToExportPDF(){
 
-            when(platformCredentialRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(false);
 
             assertThrows(PlatformCredentialNoEncontradoException.class, () -> {
                 platformCredentialServiceImpl.exportarPlataformasPDF();
@@ -443,15 +717,43 @@ public class PlatformCredentialServiceImplTest {
 
         @Test
         @DisplayName("Debe exportar las Plataformas Credential a PDF correctamente")
-        void shouldExportPlatformCredentialsToPDFSuccessfully(){
+        void shouldExportPlatformCredentialsToPDFSuccessfully() throws Exception {
 
-            when(platformCredentialRepository.findByUserId(userId)).thenReturn(Arrays.asList(platformCredential));
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(Stream.of(platformCredential));
 
-            platformCredentialServiceImpl.exportarPlataformasPDF();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformasPDF().writeTo(outputStream);
 
-            verify(platformCredentialRepository, times(1)).findByUserId(userId);
+            String pdf = new String(outputStream.toByteArray(), 0, 5);
+            assertEquals("%PDF-", pdf);
+            verify(platformCredentialRepository, times(1)).streamByUserId(eq(userId), anyInt());
+            verify(platformCredentialRepository, never()).findByUserId(userId);
             log.info("Prueba de exportar plataformas Credential a PDF correctamente.");
         }
+
+        @Test
+        @DisplayName("Debe exportar a PDF en varios bloques de filas")
+        void shouldExportPlatformCredentialsToPDFInChunks() throws Exception {
+
+            ReflectionTestUtils.setField(platformCredentialServiceImpl, "pdfFlushRows", 50);
+            List<PlatformCredential> credentials = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                credentials.add(new PlatformCredential(UUID.randomUUID().toString(), userId, "Platform " + i,
+                        "https://platform" + i + ".com", "user" + i, "pass" + i, LocalDate.now()));
+            }
+
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(credentials.stream());
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformasPDF().writeTo(outputStream);
+
+            String pdf = outputStream.toString(java.nio.charset.StandardCharsets.ISO_8859_1);
+            assertTrue(pdf.startsWith("%PDF-"));
+            assertTrue(pdf.trim().endsWith("%%EOF"));
+            log.info("Prueba de exportar PDF en bloques pasada correctamente.");
+        }
     }
 
     @Nested
@@ -462,7 +764,7 @@ public class PlatformCredentialServiceImplTest {
         @DisplayName("Debe lanzar una excepción cuando no hay plataformas credential para exportar")
         void shouldThrowExceptionWhenNoPlatformCredentialsToExportExcel() {
 
-            when(platformCredentialRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(false);
 
             assertThrows(PlatformCredentialNoEncontradoException.class, () -> {
                 platformCredentialServiceImpl.exportarPlataformasExcel();
@@ -472,15 +774,181 @@ public class PlatformCredentialServiceImplTest {
 
         @Test
         @DisplayName("Debe exportar las Plataformas Credential a Excel correctamente")
-        void shouldExportPlatformCredentialsToExcelSuccessfully() {
+        void shouldExportPlatformCredentialsToExcelSuccessfully() throws Exception {
+
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(Stream.of(platformCredential));
+            when(platformCredentialRepository.findMaxFieldLengthsByUserId(userId)).thenReturn(Map.of("name", 6));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformasExcel().writeTo(outputStream);
+
+            byte[] excel = outputStream.toByteArray();
+            assertTrue(excel.length > 4);
+            assertEquals(0x50, excel[0]); // Firma ZIP "PK" del xlsx
+            assertEquals(0x4B, excel[1]);
+
+            verify(platformCredentialRepository, times(1)).streamByUserId(eq(userId), anyInt());
+            log.info("Prueba de exportar plataformas Credential a Excel correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para exportarPlataformas (trabajos asíncronos)")
+    class exportarPlataformasTests {
+
+        @Test
+        @DisplayName("Debe exportar a CSV escapando campos y reportando el progreso")
+        void shouldExportPlatformCredentialsToCsvWithProgress() {
+
+            platformCredential.setPassword("pa,ss\"word");
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(Stream.of(platformCredential, platformCredential));
+
+            List<Long> progreso = new ArrayList<>();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformas(ExportFormat.CSV, outputStream, progreso::add);
+
+            String[] lineas = outputStream.toString(java.nio.charset.StandardCharsets.UTF_8).split("\r\n");
+            assertEquals(3, lineas.length);
+            assertEquals("Platform,URL,Username,Password,Date created", lineas[0]);
+            assertTrue(lineas[1].startsWith("Github,https://github.com,user_github,\"pa,ss\"\"word\","));
+            assertEquals(List.of(1L, 2L), progreso);
+            log.info("Prueba de exportar plataformas a CSV con progreso pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe registrar la duración, las filas y los bytes de la exportación")
+        void shouldRecordExportMetrics() {
+
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(Stream.of(platformCredential, platformCredential));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformas(ExportFormat.CSV, outputStream, filas -> { });
+
+            assertEquals(1L, meterRegistry.get("credential.export").tags("format", "csv", "outcome", "success").timer().count());
+            assertEquals(2.0, meterRegistry.get("credential.export.rows").tag("format", "csv").summary().totalAmount(), 0.0);
+            assertEquals(outputStream.size(), meterRegistry.get("credential.export.bytes").tag("format", "csv").summary().totalAmount(), 0.0);
+            log.info("Prueba de métricas de exportación pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe exportar a NDJSON una línea JSON por plataforma desde el cursor")
+        void shouldExportPlatformCredentialsToNdjson() throws Exception {
+
+            when(platformCredentialRepository.existsByUserId(userId)).thenReturn(true);
+            when(platformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(Stream.of(platformCredential, platformCredential));
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            platformCredentialServiceImpl.exportarPlataformasNdjson().writeTo(outputStream);
+
+            String[] lineas = outputStream.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+            assertEquals(2, lineas.length);
+            assertTrue(lineas[0].startsWith("{\"id\":\"" + platformCredential.getId() + "\",\"name\":\"Github\""));
+            assertTrue(lineas[0].endsWith("\"createdDate\":\"" + platformCredential.getCreatedDate() + "\"}"));
+            verify(platformCredentialRepository, never()).findByUserId(userId);
+            log.info("Prueba de exportar plataformas a NDJSON pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe contar las plataformas desde la caché sin consultar Mongo")
+        void shouldCountPlatformCredentialsFromCache() {
+
+            when(platformCredentialRepository.findByUserId(userId)).thenReturn(List.of(platformCredential));
+            platformCredentialServiceImpl.getAllPlatformCredentials();
+
+            assertEquals(1L, platformCredentialServiceImpl.contarPlataformas());
+            verify(platformCredentialRepository, never()).countByUserId(userId);
+            log.info("Prueba de contar plataformas desde la caché pasada correctamente.");
+        }
+    }
+
+
+    @Nested
+    @DisplayName("Test de la caché de credenciales por usuario")
+    class platformCredentialCacheTests {
+
+        @Test
+        @DisplayName("Debe consultar Mongo una sola vez para lecturas repetidas")
+        void shouldReadCredentialsFromCacheOnSecondCall() {
 
             when(platformCredentialRepository.findByUserId(userId)).thenReturn(Arrays.asList(platformCredential));
 
-            platformCredentialServiceImpl.exportarPlataformasExcel();
+            platformCredentialServiceImpl.getAllPlatformCredentials();
+            List<PlatformCredentialSummaryDTO> result = platformCredentialServiceImpl.getAllPlatformCredentials();
+            PlatformCredentialDTO byName = platformCredentialServiceImpl.getPlatformCredentialByName("Github");
 
+            assertEquals(1, result.size());
+            assertEquals("pasword123", byName.getPassword().toPlainString());
+            assertEquals(platformCredential.getId(), byName.getId());
             verify(platformCredentialRepository, times(1)).findByUserId(userId);
-            log.info("Prueba de exportar plataformas Credential a Excel correctamente.");
+            verify(platformCredentialRepository, never()).findByNameAndUserId(anyString(), anyString());
+            log.info("Prueba de lectura desde caché pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe reflejar altas y bajas en la caché sin volver a consultar Mongo")
+        void shouldWriteThroughOnCreateAndDelete() {
+
+            when(platformCredentialRepository.findByUserId(userId)).thenReturn(new ArrayList<>(List.of(platformCredential)));
+            platformCredentialServiceImpl.getAllPlatformCredentials();
+
+            PlatformCredential gitlab = new PlatformCredential(UUID.randomUUID().toString(), userId, "GitLab",
+                    "https://gitlab.com", "user_gitlab", "secret", LocalDate.now());
+            when(platformCredentialRepository.save(any(PlatformCredential.class))).thenReturn(gitlab);
+            when(platformCredentialRepository.findByIdAndUserId(platformCredential.getId(), userId)).thenReturn(Optional.of(platformCredential));
+
+            PlatformCredentialDTO newDTO = new PlatformCredentialDTO();
+            newDTO.setName("GitLab");
+            platformCredentialServiceImpl.createPlatformCredential(newDTO);
+            platformCredentialServiceImpl.deletePlatformCredential(platformCredential.getId());
+
+            List<PlatformCredentialSummaryDTO> result = platformCredentialServiceImpl.getAllPlatformCredentials();
+
+            assertEquals(1, result.size());
+            assertEquals("GitLab", result.get(0).getName());
+            verify(platformCredentialRepository, times(1)).findByUserId(userId);
+            log.info("Prueba de write-through en la caché pasada correctamente.");
         }
     }
 
+    @Nested
+    @DisplayName("Test para buscarPlataformas")
+    class buscarPlataformasTests {
+
+        @Test
+        @DisplayName("Debe buscar en la bóveda en memoria y ver las altas sin volver a consultar Mongo")
+        void shouldSearchInMemoryAndSeeWrites() {
+
+            PlatformCredential gitlab = new PlatformCredential(UUID.randomUUID().toString(), userId, "GitLab",
+                    "https://gitlab.com", "user_gitlab", "secret", LocalDate.now());
+            when(platformCredentialRepository.findByUserId(userId)).thenReturn(new ArrayList<>(List.of(platformCredential)));
+            when(platformCredentialRepository.save(any(PlatformCredential.class))).thenReturn(gitlab);
+
+            List<PlatformCredentialSummaryDTO> antes = platformCredentialServiceImpl.buscarPlataformas("git", 20);
+            PlatformCredentialDTO newDTO = new PlatformCredentialDTO();
+            newDTO.setName("GitLab");
+            platformCredentialServiceImpl.createPlatformCredential(newDTO);
+            List<PlatformCredentialSummaryDTO> despues = platformCredentialServiceImpl.buscarPlataformas("git", 20);
+            List<PlatformCredentialSummaryDTO> porUsuario = platformCredentialServiceImpl.buscarPlataformas("user_gitl", 20);
+
+            assertEquals(1, antes.size());
+            assertEquals(List.of("Github", "GitLab"), despues.stream().map(PlatformCredentialSummaryDTO::getName).toList());
+            assertEquals("GitLab", porUsuario.get(0).getName());
+            verify(platformCredentialRepository, times(1)).findByUserId(userId);
+            log.info("Prueba de búsqueda en memoria pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar una búsqueda vacía o un límite fuera de rango")
+        void shouldRejectBlankQueryOrInvalidLimit() {
+
+            assertThrows(IllegalArgumentException.class, () -> platformCredentialServiceImpl.buscarPlataformas(" ", 20));
+            assertThrows(IllegalArgumentException.class, () -> platformCredentialServiceImpl.buscarPlataformas("git", 0));
+            assertThrows(IllegalArgumentException.class, () -> platformCredentialServiceImpl.buscarPlataformas("git", 101));
+            verifyNoInteractions(platformCredentialRepository);
+            log.info("Prueba de validación de la búsqueda pasada correctamente.");
+        }
+    }
 }
@@ -0,0 +1,254 @@
+package secret.key.project.serviceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+import tools.jackson.databind.json.JsonMapper;
+import secret.key.project.config.MongoIndexConfig;
+import secret.key.project.crypto.CredentialEncryptor;
+import secret.key.project.crypto.DataKeyService;
+import secret.key.project.crypto.ReactiveCredentialEncryptor;
+import secret.key.project.crypto.SecretValue;
+import secret.key.project.dto.PlatformCredentialDTO;
+import secret.key.project.dto.PlatformCredentialSecretDTO;
+import secret.key.project.entity.PlatformCredential;
+import secret.key.project.entity.User;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+import secret.key.project.error.UsuarioException;
+import secret.key.project.error.UsuarioExceptionNoContentException;
+import secret.key.project.export.ExportFormat;
+import secret.key.project.export.ExportMetrics;
+import secret.key.project.repository.ReactivePlatformCredentialRepository;
+
+import javax.crypto.KeyGenerator;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ReactivePlatformCredentialServiceImpl Test")
+@Slf4j
+public class ReactivePlatformCredentialServiceImplTest {
+
+    @Mock
+    private ReactivePlatformCredentialRepository reactivePlatformCredentialRepository;
+
+    @Mock
+    private DataKeyService dataKeyService;
+
+    @Mock
+    private MongoIndexConfig mongoIndexConfig;
+
+    private CredentialEncryptor credentialEncryptor;
+    private ReactivePlatformCredentialServiceImpl reactivePlatformCredentialServiceImpl;
+
+    private String userId;
+    private Context autenticado;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        userId = UUID.randomUUID().toString();
+        User mockUser = new User();
+        mockUser.setId(userId);
+        autenticado = ReactiveSecurityContextHolder.withAuthentication(
+                new UsernamePasswordAuthenticationToken(mockUser, null, List.of()));
+
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        when(dataKeyService.getDataKey(userId)).thenReturn(generator.generateKey());
+        when(dataKeyService.isLoaded(userId)).thenReturn(true);
+
+        credentialEncryptor = new CredentialEncryptor(dataKeyService, false, false);
+        reactivePlatformCredentialServiceImpl = new ReactivePlatformCredentialServiceImpl(reactivePlatformCredentialRepository,
+                credentialEncryptor, new ReactiveCredentialEncryptor(credentialEncryptor, dataKeyService),
+                new ExportMetrics(new SimpleMeterRegistry()), mongoIndexConfig);
+        when(mongoIndexConfig.isNombreUnicoConfirmado()).thenReturn(true);
+    }
+
+    private PlatformCredential credencial(String name, String password) {
+        return new PlatformCredential(UUID.randomUUID().toString(), userId, name, "https://" + name + ".com",
+                "user_" + name, credentialEncryptor.encrypt(userId, CredentialEncryptor.PASSWORD, password), LocalDate.of(2024, 1, 15));
+    }
+
+    @Nested
+    @DisplayName("Test para el listado y la búsqueda")
+    class lecturaTests {
+
+        @Test
+        @DisplayName("Debe emitir los resúmenes del usuario sin password")
+        void shouldStreamSummaries() {
+
+            Flux<PlatformCredential> resumenes = Flux.just(credencial("github", "a"), credencial("netflix", "b"));
+            when(reactivePlatformCredentialRepository.findSummariesByUserId(userId)).thenReturn(resumenes);
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.listarPlataformas().contextWrite(autenticado))
+                    .assertNext(summary -> assertEquals("github", summary.getName()))
+                    .assertNext(summary -> assertEquals("netflix", summary.getName()))
+                    .verifyComplete();
+            log.info("Prueba de listado reactivo pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar excepción si el usuario no tiene plataformas o no está autenticado")
+        void shouldFailWhenEmptyOrAnonymous() {
+
+            when(reactivePlatformCredentialRepository.findSummariesByUserId(userId)).thenReturn(Flux.empty());
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.listarPlataformas().contextWrite(autenticado))
+                    .expectError(UsuarioExceptionNoContentException.class)
+                    .verify();
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.listarPlataformas())
+                    .expectError(UsuarioException.class)
+                    .verify();
+            log.info("Prueba de listado reactivo vacío pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe cargar la clave de datos fuera del event loop antes de devolver el password")
+        void shouldLoadDataKeyBeforeReturningPassword() {
+
+            PlatformCredential github = credencial("github", "s3cr3t");
+            when(reactivePlatformCredentialRepository.findByNameAndUserId("github", userId)).thenReturn(Mono.just(github));
+            when(dataKeyService.isLoaded(userId)).thenReturn(false);
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.getPlatformCredentialByName("github").contextWrite(autenticado))
+                    .assertNext(dto -> {
+                        assertTrue(Thread.currentThread().getName().startsWith("boundedElastic"));
+                        assertEquals("s3cr3t", dto.getPassword().toPlainString());
+                    })
+                    .verifyComplete();
+            log.info("Prueba de búsqueda reactiva por nombre pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe serializar el password revelado sin volver a pedir la clave de datos")
+        void shouldSerializeRevealedPasswordWithoutDataKey() {
+
+            PlatformCredential github = credencial("github", "s3cr3t");
+            when(reactivePlatformCredentialRepository.findSecretByIdAndUserId(github.getId(), userId)).thenReturn(Mono.just(github));
+
+            PlatformCredentialSecretDTO dto = reactivePlatformCredentialServiceImpl.revelarPassword(github.getId())
+                    .contextWrite(autenticado).block();
+            clearInvocations(dataKeyService);
+
+            assertTrue(JsonMapper.builder().build().writeValueAsString(dto).contains("\"s3cr3t\""));
+            verifyNoInteractions(dataKeyService);
+            log.info("Prueba de serialización sin clave de datos pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para registrar plataformas")
+    class createTests {
+
+        @Test
+        @DisplayName("Debe guardar la plataforma con el usuario y la fecha actual")
+        void shouldCreatePlatformCredential() {
+
+            PlatformCredentialDTO dto = new PlatformCredentialDTO();
+            dto.setName("github");
+            dto.setPassword(SecretValue.of("s3cr3t"));
+            when(reactivePlatformCredentialRepository.save(any(PlatformCredential.class)))
+                    .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.createPlatformCredential(dto).contextWrite(autenticado))
+                    .assertNext(saved -> {
+                        assertEquals("github", saved.getName());
+                        assertEquals(LocalDate.now(), saved.getCreatedDate());
+                    })
+                    .verifyComplete();
+            verify(reactivePlatformCredentialRepository).save(argThat(entity -> userId.equals(entity.getUserId())));
+            log.info("Prueba de registro reactivo pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un nombre repetido sin guardar mientras el índice único no está confirmado")
+        void shouldCheckNameWhileIndexIsNotConfirmed() {
+
+            PlatformCredentialDTO dto = new PlatformCredentialDTO();
+            dto.setName("github");
+            dto.setPassword(SecretValue.of("s3cr3t"));
+            when(mongoIndexConfig.isNombreUnicoConfirmado()).thenReturn(false);
+            when(reactivePlatformCredentialRepository.existsByUserIdAndName(userId, "github")).thenReturn(Mono.just(true));
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl.createPlatformCredential(dto).contextWrite(autenticado))
+                    .expectError(DuplicateKeyException.class)
+                    .verify();
+            verify(reactivePlatformCredentialRepository, never()).save(any(PlatformCredential.class));
+            log.info("Prueba de consulta previa reactiva sin índice confirmado pasada correctamente.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test para exportar por streaming")
+    class exportTests {
+
+        @Test
+        @DisplayName("Debe emitir el encabezado y un buffer por lote de filas descifradas")
+        void shouldExportCsvInBatches() {
+
+            ReflectionTestUtils.setField(reactivePlatformCredentialServiceImpl, "exportBatchSize", 2);
+            when(reactivePlatformCredentialRepository.existsByUserId(userId)).thenReturn(Mono.just(true));
+            Flux<PlatformCredential> cursor = Flux.just(credencial("a", "p1"), credencial("b", "p2"), credencial("c", "p3"));
+            when(reactivePlatformCredentialRepository.streamByUserId(eq(userId), anyInt())).thenReturn(cursor);
+
+            Flux<DataBuffer> csv = reactivePlatformCredentialServiceImpl
+                    .exportarPlataformas(ExportFormat.CSV, DefaultDataBufferFactory.sharedInstance)
+                    .contextWrite(autenticado)
+                    .block();
+
+            StepVerifier.create(csv.map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                    .expectNext("Platform,URL,Username,Password,Date created\r\n")
+                    .expectNext("a,https://a.com,user_a,p1,2024-01-15\r\nb,https://b.com,user_b,p2,2024-01-15\r\n")
+                    .expectNext("c,https://c.com,user_c,p3,2024-01-15\r\n")
+                    .verifyComplete();
+            log.info("Prueba de exportación reactiva CSV pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe lanzar excepción antes de empezar si no hay plataformas o el formato no se soporta")
+        void shouldFailBeforeStreaming() {
+
+            when(reactivePlatformCredentialRepository.existsByUserId(userId)).thenReturn(Mono.just(false));
+
+            StepVerifier.create(reactivePlatformCredentialServiceImpl
+                            .exportarPlataformas(ExportFormat.NDJSON, DefaultDataBufferFactory.sharedInstance)
+                            .contextWrite(autenticado))
+                    .expectError(PlatformCredentialNoEncontradoException.class)
+                    .verify();
+            StepVerifier.create(reactivePlatformCredentialServiceImpl
+                            .exportarPlataformas(ExportFormat.PDF, DefaultDataBufferFactory.sharedInstance))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+            verify(reactivePlatformCredentialRepository, never()).streamByUserId(any(), anyInt());
+            log.info("Prueba de exportación reactiva sin plataformas pasada correctamente.");
+        }
+    }
+}
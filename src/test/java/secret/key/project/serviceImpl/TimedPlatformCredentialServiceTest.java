@@ -0,0 +1,83 @@
+package secret.key.project.serviceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import secret.key.project.error.PlatformCredentialNoEncontradoException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimedPlatformCredentialService Test")
+@Slf4j
+public class TimedPlatformCredentialServiceTest {
+
+    @Mock
+    private PlatformCredentialServiceImpl delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPlatformCredentialService timedPlatformCredentialService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timedPlatformCredentialService = new TimedPlatformCredentialService(delegate, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Test de credential.service")
+    class medicionTests {
+
+        @Test
+        @DisplayName("Debe delegar y registrar la llamada exitosa con el nombre del método")
+        void shouldRecordSuccess() {
+
+            when(delegate.contarPlataformas()).thenReturn(3L);
+
+            assertEquals(3L, timedPlatformCredentialService.contarPlataformas());
+            assertEquals(1L, meterRegistry.get("credential.service")
+                    .tags("method", "contarPlataformas", "outcome", "success").timer().count());
+            assertEquals(0L, meterRegistry.get("credential.service")
+                    .tags("method", "contarPlataformas", "outcome", "error").timer().count());
+            log.info("Prueba de métrica de llamada exitosa pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe propagar la excepción y registrar la llamada como error")
+        void shouldRecordErrorAndRethrow() {
+
+            doThrow(new PlatformCredentialNoEncontradoException("Plataforma no encontrada con el id: 99"))
+                    .when(delegate).deletePlatformCredential("99");
+
+            assertThrows(PlatformCredentialNoEncontradoException.class,
+                    () -> timedPlatformCredentialService.deletePlatformCredential("99"));
+            assertEquals(1L, meterRegistry.get("credential.service")
+                    .tags("method", "deletePlatformCredential", "outcome", "error").timer().count());
+            log.info("Prueba de métrica de llamada con error pasada correctamente.");
+        }
+
+        @Test
+        @DisplayName("Debe delegar las exportaciones por streaming sin registrar credential.service")
+        void shouldNotTimeStreamingExports() {
+
+            StreamingResponseBody body = outputStream -> { };
+            when(delegate.exportarPlataformasCsv()).thenReturn(body);
+
+            assertSame(body, timedPlatformCredentialService.exportarPlataformasCsv());
+            assertNull(meterRegistry.find("credential.service").tag("method", "exportarPlataformasCsv").timer());
+            log.info("Prueba de exportación sin timer pasada correctamente.");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package secret.key.project.serviceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import secret.key.project.entity.User;
+import secret.key.project.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDetailsServiceImpl Test")
+@Slf4j
+public class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CaffeineUserCache userCache;
+    private UserDetailsServiceImpl userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new CaffeineUserCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        userDetailsService = new UserDetailsServiceImpl(userRepository, userCache, new SimpleMeterRegistry());
+        user = new User("user-123", "testuser", "hash", List.of("ROLE_USER"), 0);
+    }
+
+    @Test
+    @DisplayName("Debe consultar Mongo una sola vez para cargas repetidas")
+    void shouldLoadUserFromCacheOnSecondCall() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        log.info("Prueba de caché de usuarios pasada correctamente.");
+    }
+
+    @Test
+    @DisplayName("Debe volver a consultar Mongo tras invalidar el usuario")
+    void shouldReloadUserAfterInvalidation() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userCache.removeUserFromCache("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(2)).findByUsername("testuser");
+        log.info("Prueba de invalidación de caché de usuarios pasada correctamente.");
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción y no cachear usuarios inexistentes")
+    void shouldNotCacheMissingUsers() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertNull(userCache.getUserFromCache("ghost"));
+        log.info("Prueba de usuario inexistente pasada correctamente.");
+    }
+
+    @Test
+    @DisplayName("Debe rehashear en el login un hash sin prefijo o con menor costo")
+    void shouldRehashOutdatedPasswordOnLogin() {
+        //Hash guardado antes de la delegación: BCrypt sin {bcrypt}
+        user.setPassword(new BCryptPasswordEncoder(4).encode("s3cr3t"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq("testuser"), eq(user.getPassword()), anyString())).thenReturn(1L);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        Authentication resultado = provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "s3cr3t"));
+        assertTrue(resultado.isAuthenticated());
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("testuser"), eq(user.getPassword()), captor.capture());
+        assertTrue(captor.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("s3cr3t", captor.getValue()));
+        assertNull(userCache.getUserFromCache("testuser"));
+
+        //Con el hash ya actualizado no se vuelve a escribir
+        assertFalse(encoder.upgradeEncoding(captor.getValue()));
+        log.info("Prueba de rehash en el login pasada correctamente.");
+    }
+
+    @Test
+    @DisplayName("Debe conservar el usuario si el hash cambió desde que se leyó")
+    void shouldKeepUserWhenPasswordChangedConcurrently() {
+        when(userRepository.updatePassword("testuser", "hash", "{bcrypt}nuevo")).thenReturn(0L);
+
+        UserDetails resultado = userDetailsService.updatePassword(user, "{bcrypt}nuevo");
+
+        assertSame(user, resultado);
+        assertEquals("hash", user.getPassword());
+        log.info("Prueba de rehash concurrente pasada correctamente.");
+    }
+}